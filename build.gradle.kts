@@ -52,6 +52,17 @@ tasks.compileTestJava {
     options.compilerArgs.add("--enable-preview")
 }
 
+tasks.named<JavaCompile>("compileJmhJava") {
+    options.compilerArgs.add("--enable-preview")
+    options.compilerArgs.add("--add-modules")
+    options.compilerArgs.add("jdk.incubator.vector")
+}
+
+// Der Generator lädt alle Klassen; einige nutzen die (in Java 21 noch preview) Foreign-Memory-API
+tasks.named<me.champeau.jmh.JmhBytecodeGeneratorTask>("jmhRunBytecodeGenerator") {
+    jvmArgs.addAll("--enable-preview", "--add-modules", "jdk.incubator.vector")
+}
+
 jmh {
     warmupIterations.set(5)
     iterations.set(10)
@@ -20,7 +20,7 @@ public class CPUNoiseBenchJmh {
     public String shape; // wird in @Setup geparst
 
     // --- Backend- und Lauf-Parameter ---
-    @Param({"SEQUENTIAL", "PARALLELISM_CORES", "PARALLELISM_THREADS"})
+    @Param({"SEQUENTIAL", "PARALLELISM_CORES", "PARALLELISM_THREADS", "FORK_JOIN"})
     public String parallelismMode;
 
     @Param({"ALU_ONLY", "LOOKUP"})
@@ -35,6 +35,9 @@ public class CPUNoiseBenchJmh {
     @Param({"true", "false"})
     public boolean oneDimensionalIndexing;
 
+    @Param({"ROW_MAJOR", "MORTON"})
+    public String tileTraversal;
+
     private int nx, ny, nz;
     private NoiseBackend noiseBackend;
     private NoiseEngine3D engine;
@@ -59,6 +62,7 @@ public class CPUNoiseBenchJmh {
                 .withSize3D(nx)
                 .withParallelismMode(mode)
                 .preventRamUsage(cacheOptimized)
+                .withTileTraversal(NoiseBackendBuilder.TileTraversal.valueOf(tileTraversal))
                 .vectorize(vectorized)
                 .with1DIndexing(oneDimensionalIndexing)
                 .withNoiseCalculationMode(calculationMode)
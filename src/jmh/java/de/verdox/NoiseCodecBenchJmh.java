@@ -0,0 +1,64 @@
+package de.verdox;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.codec.NoiseCodec;
+import org.openjdk.jmh.annotations.*;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Durchsatz von Encode/Decode eines 3D-Noise-Felds; das Kompressionsverhältnis wird im Setup ausgegeben.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@State(Scope.Benchmark)
+@Threads(1)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+@Fork(2)
+public class NoiseCodecBenchJmh {
+    @Param({"64", "128"})
+    public int size;
+
+    @Param({"NONE", "LEFT", "PLANAR", "LORENZO"})
+    public String predictor;
+
+    @Param({"VARINT", "BITPACK"})
+    public String entropy;
+
+    @Param({"0.000244140625"}) // 1/4096
+    public float step;
+
+    private float[] field;
+    private byte[] encoded;
+    private NoiseCodec codec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NoiseBackend backend = NoiseBackendBuilder.cpu()
+                .withSize3D(size)
+                .withParallelismMode(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)
+                .vectorize(true)
+                .build();
+        backend.generate(0, 0, 0, 0.009f);
+        field = backend.getResult().clone();
+        backend.dispose();
+
+        codec = new NoiseCodec(step, NoiseCodec.Predictor.valueOf(predictor), NoiseCodec.Entropy.valueOf(entropy));
+        encoded = codec.encode(field, size, size, size);
+        System.out.printf("%n[codec] %s/%s size=%d: %d -> %d bytes, ratio %.2f : 1%n",
+                predictor, entropy, size, field.length * Float.BYTES, encoded.length,
+                (double) field.length * Float.BYTES / encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(field, size, size, size);
+    }
+
+    @Benchmark
+    public float[] decode() {
+        return NoiseCodec.decode(encoded);
+    }
+}
@@ -1,7 +1,10 @@
 package de.verdox.noise;
 
+import de.verdox.util.LODUtil;
+
 import java.awt.image.BufferedImage;
 import java.awt.image.WritableRaster;
+import java.util.function.BooleanSupplier;
 
 public abstract class NoiseBackend {
     protected int width;
@@ -31,6 +34,20 @@ public abstract class NoiseBackend {
         this.is3D = false;
     }
 
+    /**
+     * For wrappers that take over the shape of another backend; {@code height} is 1 for 2D.
+     */
+    protected NoiseBackend(float[] result, int width, int height, int depth, boolean is3D) {
+        if (result.length != width * height * depth) {
+            throw new IllegalArgumentException("Result array does not have the correct length");
+        }
+        this.result = result;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.is3D = is3D;
+    }
+
     public void rebind(float[] result, int width, int height, int depth) {
         if (result.length != width * height * depth) {
             throw new IllegalArgumentException("Result array does not have the correct length");
@@ -55,6 +72,191 @@ public abstract class NoiseBackend {
 
     public abstract void generate(float x0, float y0, float frequency);
 
+    /**
+     * Like {@link #generate(float, float, float, float)}, but aborts with a {@link NoiseGenerationCancelledException}
+     * once {@code cancelled} returns true. Backends check it at least before starting; tiled backends also check
+     * between tiles.
+     */
+    public void generate(float x0, float y0, float z0, float frequency, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) throw new NoiseGenerationCancelledException();
+        generate(x0, y0, z0, frequency);
+    }
+
+    /**
+     * 2D variant of {@link #generate(float, float, float, float, BooleanSupplier)}.
+     */
+    public void generate(float x0, float y0, float frequency, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) throw new NoiseGenerationCancelledException();
+        generate(x0, y0, frequency);
+    }
+
+    /**
+     * Like {@link #generate(float, float, float, float)}, but on LOD level {@code lodLevel} instead of the one
+     * configured in the builder; the LOD mode stays the configured one. The result is laid out as if the backend had
+     * been built with that level, so one backend can serve every detail level without a rebuild.
+     *
+     * @throws UnsupportedOperationException if the backend only supports its configured LOD level
+     */
+    public void generateLod(float x0, float y0, float z0, float frequency, int lodLevel) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support per-call LOD levels");
+    }
+
+    /**
+     * 2D variant of {@link #generateLod(float, float, float, float, int)}.
+     */
+    public void generateLod(float x0, float y0, float frequency, int lodLevel) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support per-call LOD levels");
+    }
+
+    /**
+     * Generates {@code count} chunks of this backend's configuration in one call. Origins are passed as
+     * {@code (x, y, z)} triples ({@code y} is ignored for 2D backends); chunk {@code i} is written to
+     * {@code out[i * stride]} onward, where {@code stride} is at least the chunk's sample count on the LOD level.
+     * <p>
+     * The base implementation generates the chunks one after another; Aparapi backends dispatch all of them at once.
+     */
+    public void generateBatch(float[] origins, int count, float frequency, float[] out, int stride) {
+        checkBatch(origins, count, out, stride);
+        final int n = sampleCount();
+        if (stride < n) {
+            throw new IllegalArgumentException("stride " + stride + " is smaller than a chunk (" + n + ")");
+        }
+        for (int i = 0; i < count; i++) {
+            if (is3D) {
+                generate(origins[i * 3], origins[i * 3 + 1], origins[i * 3 + 2], frequency);
+            } else {
+                generate(origins[i * 3], origins[i * 3 + 2], frequency);
+            }
+            System.arraycopy(result, 0, out, i * stride, n);
+        }
+    }
+
+    /**
+     * Number of values a generate call writes, i.e. the used prefix of {@link #getResult()} on the LOD level; the
+     * whole result for backends without LOD.
+     */
+    public int sampleCount() {
+        return width * height * depth;
+    }
+
+    /**
+     * Generates the box {@code [offX, offX + w) x [offY, offY + h) x [offZ, offZ + d)} of the sample grid anchored at
+     * {@code (x0, y0, z0)}: sample {@code (x, y, z)} lies at {@code x0 + x * frequency} etc., so a region yields the
+     * same bits as the matching part of a bigger region with the same anchor. Local sample {@code (i, j, k)} is written
+     * to {@code out[baseIndex + i + j * rowStride + k * planeStride]}. The size and LOD of this backend are not used.
+     * <p>
+     * For 2D backends {@code y0}, {@code offY} and {@code rowStride} are ignored and {@code h} must be 1; {@code z}
+     * is the row axis.
+     *
+     * @throws UnsupportedOperationException if the backend cannot generate arbitrary regions
+     */
+    public void generateRegion(float x0, float y0, float z0, float frequency,
+                               int offX, int offY, int offZ, int w, int h, int d,
+                               float[] out, int baseIndex, int rowStride, int planeStride) {
+        generateRegion(x0, y0, z0, frequency, offX, offY, offZ, 1, 1, 1, w, h, d, out, baseIndex, rowStride, planeStride);
+    }
+
+    /**
+     * Like {@link #generateRegion(float, float, float, float, int, int, int, int, int, int, float[], int, int, int)},
+     * but only generates every {@code step}-th sample per axis: local sample {@code (i, j, k)} is grid sample
+     * {@code (offX + i * stepX, offY + j * stepY, offZ + k * stepZ)}. The output stays densely indexed by
+     * {@code (i, j, k)}.
+     *
+     * @throws UnsupportedOperationException if the backend cannot generate arbitrary regions
+     */
+    public void generateRegion(float x0, float y0, float z0, float frequency,
+                               int offX, int offY, int offZ, int stepX, int stepY, int stepZ, int w, int h, int d,
+                               float[] out, int baseIndex, int rowStride, int planeStride) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support region generation");
+    }
+
+    /**
+     * Generates LOD levels {@code 0 .. levels-1} of the region at {@code (x0, y0, z0)} in one call, each level with
+     * the values a backend of this size built for that LOD and {@code mode} would produce (the configured LOD of this
+     * backend is ignored).
+     * <ul>
+     *     <li>{@link LODUtil.LODMode#TILE_PYRAMID}: level {@code l + 1} doubles the spacing of level {@code l}, so its
+     *     lower octant is every second sample of level {@code l}. That octant is copied and only the remaining 7/8
+     *     are generated.</li>
+     *     <li>{@link LODUtil.LODMode#CHUNK_LOCAL}: coarse levels keep the spacing and are the leading sub-box of
+     *     level 0; they are copied from it without generating anything.</li>
+     * </ul>
+     * Requires {@link #generateRegion} support.
+     */
+    public NoisePyramid generatePyramid(float x0, float y0, float z0, float frequency, int levels, LODUtil.LODMode mode) {
+        if (levels < 1 || levels > 31) {
+            throw new IllegalArgumentException("levels must be in [1, 31]");
+        }
+        final int[] ws = new int[levels], hs = new int[levels], ds = new int[levels];
+        for (int l = 0; l < levels; l++) {
+            if (mode == LODUtil.LODMode.TILE_PYRAMID) {
+                ws[l] = width; hs[l] = height; ds[l] = depth;
+            } else {
+                ws[l] = Math.max(1, width >> l); hs[l] = is3D ? Math.max(1, height >> l) : 1; ds[l] = Math.max(1, depth >> l);
+            }
+        }
+        final NoisePyramid pyramid = new NoisePyramid(ws, hs, ds);
+        final float[] out = pyramid.data();
+        final int W = width, H = height, D = depth, plane = W * H;
+        if (!is3D) y0 = 0f;
+
+        generateRegion(x0, y0, z0, frequency, 0, 0, 0, W, H, D, out, 0, W, plane);
+
+        for (int l = 1; l < levels; l++) {
+            final int dst = pyramid.offset(l);
+            if (mode == LODUtil.LODMode.TILE_PYRAMID) {
+                final int src = pyramid.offset(l - 1);
+                final float fq = frequency * (1 << l);
+                final int hx = (W + 1) / 2, hy = (H + 1) / 2, hz = (D + 1) / 2;
+                // unterer Oktant = jedes zweite Sample der feineren Stufe (Zweierpotenz-Skalierung ist exakt)
+                for (int z = 0; z < hz; z++) {
+                    for (int y = 0; y < hy; y++) {
+                        int s = src + 2 * z * plane + 2 * y * W, d = dst + z * plane + y * W;
+                        for (int x = 0; x < hx; x++, s += 2) out[d + x] = out[s];
+                    }
+                }
+                generateRegion(x0, y0, z0, fq, hx, 0, 0, W - hx, H, D, out, dst + hx, W, plane);
+                if (is3D) generateRegion(x0, y0, z0, fq, 0, hy, 0, hx, H - hy, D, out, dst + hy * W, W, plane);
+                generateRegion(x0, y0, z0, fq, 0, 0, hz, hx, is3D ? hy : 1, D - hz, out, dst + hz * plane, W, plane);
+            } else {
+                final int w = ws[l], h = hs[l], d = ds[l];
+                for (int z = 0; z < d; z++) {
+                    for (int y = 0; y < h; y++) {
+                        System.arraycopy(out, z * plane + y * W, out, dst + (z * h + y) * w, w);
+                    }
+                }
+            }
+        }
+        return pyramid;
+    }
+
+    /**
+     * 2D variant of {@link #generatePyramid(float, float, float, float, int, LODUtil.LODMode)}.
+     */
+    public NoisePyramid generatePyramid(float x0, float z0, float frequency, int levels, LODUtil.LODMode mode) {
+        return generatePyramid(x0, 0f, z0, frequency, levels, mode);
+    }
+
+    protected void checkRegion(int w, int h, int d, float[] out, int baseIndex, int rowStride, int planeStride) {
+        if (w < 0 || h < 0 || d < 0 || (!is3D && h != 1)) {
+            throw new IllegalArgumentException("Invalid region size " + w + "x" + h + "x" + d);
+        }
+        if (w == 0 || d == 0) return;
+        long last = baseIndex + (w - 1) + (long) (h - 1) * rowStride + (long) (d - 1) * planeStride;
+        if (baseIndex < 0 || last >= out.length) {
+            throw new IllegalArgumentException("Region does not fit into out (" + out.length + " values)");
+        }
+    }
+
+    protected static void checkBatch(float[] origins, int count, float[] out, int stride) {
+        if (count < 0 || origins.length < count * 3) {
+            throw new IllegalArgumentException("origins must hold " + count + " (x, y, z) triples");
+        }
+        if ((long) count * stride > out.length) {
+            throw new IllegalArgumentException("out is too small for " + count + " chunks of " + stride + " values");
+        }
+    }
+
     public abstract void logSetup();
 
     /**
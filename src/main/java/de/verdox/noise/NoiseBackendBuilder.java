@@ -23,7 +23,6 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
     protected int size = 16;
     protected boolean is3D = false;
     protected boolean oneDimensionalIndexing = true;
-    protected float[] result = new float[size * size * size];
     protected NoiseCalculationMode noiseCalculationMode = NoiseCalculationMode.ALU_ONLY;
 
     public byte getLodLevel() {
@@ -46,6 +45,10 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         return (BUILDER) this;
     }
 
+    public int getSize() {
+        return size;
+    }
+
     public boolean is3DMode() {
         return is3D;
     }
@@ -66,7 +69,6 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         }
         this.size = size;
         this.is3D = false;
-        this.result = new float[size * size];
         return (BUILDER) this;
     }
 
@@ -83,7 +85,6 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         }
         this.size = size;
         this.is3D = true;
-        this.result = new float[size * size * size];
         return (BUILDER) this;
     }
 
@@ -94,6 +95,17 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         return (BUILDER) this;
     }
 
+    /**
+     * Every built backend gets its own result array, so one builder can be used as a factory for several backends.
+     */
+    protected float[] newResult() {
+        return new float[is3D ? size * size * size : size * size];
+    }
+
+    public boolean isOneDimensionalIndexing() {
+        return oneDimensionalIndexing;
+    }
+
     public NoiseCalculationMode getNoiseCalculationMode() {
         return noiseCalculationMode;
     }
@@ -102,8 +114,12 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
 
     public static class CPUNoiseBackendBuilder extends NoiseBackendBuilder<CPUNoiseBackendBuilder> {
         private boolean preventRamUsage;
+        private boolean directOutput;
         private boolean vectorize;
         private CPUParallelismMode parallelismMode = CPUParallelismMode.PARALLELISM_THREADS;
+        private TileTraversal tileTraversal = TileTraversal.ROW_MAJOR;
+        private NoiseExecutor executor;
+        private int cellWidth = 1, cellHeight = 1, cellDepth = 1;
 
         private CPUNoiseBackendBuilder() {
         }
@@ -117,6 +133,15 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
             return this;
         }
 
+        /**
+         * Only used together with {@link #preventRamUsage(boolean)}: keeps the cache sized tiles but lets the kernel
+         * write each tile straight into the result array instead of staging it in a slab and copying it over.
+         */
+        public CPUNoiseBackendBuilder directOutput(boolean directOutput) {
+            this.directOutput = directOutput;
+            return this;
+        }
+
         public CPUNoiseBackendBuilder vectorize(boolean vectorize) {
             this.vectorize = vectorize;
             return this;
@@ -127,14 +152,45 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
             return this;
         }
 
+        /**
+         * Only used together with {@link #preventRamUsage(boolean)}: order in which the cache sized tiles are computed.
+         */
+        public CPUNoiseBackendBuilder withTileTraversal(TileTraversal tileTraversal) {
+            this.tileTraversal = tileTraversal;
+            return this;
+        }
+
+        /**
+         * Worker pool the parallel modes schedule onto. Defaults to {@link NoiseExecutor#shared()}.
+         */
+        public CPUNoiseBackendBuilder withExecutor(NoiseExecutor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Lets {@code generate} evaluate the kernel only on the corners of cells of {@code cellWidth x cellHeight x
+         * cellDepth} samples and fill the samples in between by trilinear (2D: bilinear, {@code cellHeight} unused)
+         * interpolation. Samples on cell corners stay exact. 1, 1, 1 (default) generates every sample.
+         */
+        public CPUNoiseBackendBuilder withInterpolation(int cellWidth, int cellHeight, int cellDepth) {
+            if (cellWidth < 1 || cellHeight < 1 || cellDepth < 1) {
+                throw new IllegalArgumentException("Cell sizes must be >= 1");
+            }
+            this.cellWidth = cellWidth;
+            this.cellHeight = cellHeight;
+            this.cellDepth = cellDepth;
+            return this;
+        }
+
         @Override
         public NoiseBackend build() {
             NoiseBackend noiseBackend;
             if(isPreventRamUsage()) {
-                noiseBackend = is3D ? new CPUJavaAparapiNoiseBackend.CacheOnly(this, result, size, size, size) : new CPUJavaAparapiNoiseBackend.CacheOnly(this, result, size, size);
+                noiseBackend = is3D ? new CPUJavaAparapiNoiseBackend.CacheOnly(this, newResult(), size, size, size) : new CPUJavaAparapiNoiseBackend.CacheOnly(this, newResult(), size, size);
             }
             else {
-                noiseBackend = is3D ? new CPUJavaAparapiNoiseBackend.Simple(this, result, size, size, size) : new CPUJavaAparapiNoiseBackend.Simple(this, result, size, size) ;
+                noiseBackend = is3D ? new CPUJavaAparapiNoiseBackend.Simple(this, newResult(), size, size, size) : new CPUJavaAparapiNoiseBackend.Simple(this, newResult(), size, size) ;
             }
             noiseBackend.postInit();
             return noiseBackend;
@@ -144,6 +200,10 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
             return preventRamUsage;
         }
 
+        public boolean isDirectOutput() {
+            return directOutput;
+        }
+
         public boolean isVectorize() {
             return vectorize;
         }
@@ -151,6 +211,30 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         public CPUParallelismMode getParallelismMode() {
             return parallelismMode;
         }
+
+        public TileTraversal getTileTraversal() {
+            return tileTraversal;
+        }
+
+        public NoiseExecutor getExecutor() {
+            return executor != null ? executor : NoiseExecutor.shared();
+        }
+
+        public boolean isInterpolating() {
+            return cellWidth > 1 || cellHeight > 1 || cellDepth > 1;
+        }
+
+        public int getCellWidth() {
+            return cellWidth;
+        }
+
+        public int getCellHeight() {
+            return cellHeight;
+        }
+
+        public int getCellDepth() {
+            return cellDepth;
+        }
     }
 
     public static class GPUNoiseBackendBuilder extends NoiseBackendBuilder<GPUNoiseBackendBuilder> {
@@ -174,9 +258,9 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         public NoiseBackend build() {
             NoiseBackend noiseBackend;
             if (useBatching) {
-                noiseBackend = is3D ? new GPUAparapiNoiseBackend.Batched(preferredDevice, this, result, size, size, size) : new GPUAparapiNoiseBackend.Batched(preferredDevice, this, result, size, size);
+                noiseBackend = is3D ? new GPUAparapiNoiseBackend.Batched(preferredDevice, this, newResult(), size, size, size) : new GPUAparapiNoiseBackend.Batched(preferredDevice, this, newResult(), size, size);
             } else {
-                noiseBackend = is3D ? new GPUAparapiNoiseBackend.Simple(preferredDevice, this, result, size, size, size) : new GPUAparapiNoiseBackend.Simple(preferredDevice, this, result, size, size);
+                noiseBackend = is3D ? new GPUAparapiNoiseBackend.Simple(preferredDevice, this, newResult(), size, size, size) : new GPUAparapiNoiseBackend.Simple(preferredDevice, this, newResult(), size, size);
             }
             noiseBackend.postInit();
             return noiseBackend;
@@ -191,6 +275,22 @@ public abstract class NoiseBackendBuilder<BUILDER extends NoiseBackendBuilder<BU
         SEQUENTIAL,
         PARALLELISM_CORES,
         PARALLELISM_THREADS,
+        /**
+         * Recursive split of the tile range, executed work-stealing on the {@link NoiseExecutor}'s fork/join workers.
+         * Not part of the executor's round-robin between backends.
+         */
+        FORK_JOIN,
+    }
+
+    public enum TileTraversal {
+        /**
+         * Z-slabs outside, Y-row-blocks inside, each tile spans the full width
+         */
+        ROW_MAJOR,
+        /**
+         * Cubic tiles sized for the L2 cache (blocked in X as well), visited along a Morton (Z-order) curve
+         */
+        MORTON
     }
 
     public enum NoiseCalculationMode {
@@ -0,0 +1,79 @@
+package de.verdox.noise;
+
+import java.util.function.Consumer;
+
+/**
+ * A generated chunk handed out by {@link NoiseChunkPublisher}. The data array is borrowed from the publisher's buffer
+ * pool and must be given back with {@link #release()} once the consumer is done with it; generation stalls while all
+ * buffers are held.
+ */
+public final class NoiseChunk {
+    private final int chunkX, chunkY, chunkZ;
+    private final int width, height, depth;
+    private final float[] data;
+    private final Consumer<float[]> recycler;
+    private boolean released;
+
+    NoiseChunk(int chunkX, int chunkY, int chunkZ, int width, int height, int depth, float[] data, Consumer<float[]> recycler) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.chunkZ = chunkZ;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.data = data;
+        this.recycler = recycler;
+    }
+
+    public int chunkX() {
+        return chunkX;
+    }
+
+    /**
+     * Always 0 for 2D chunks.
+     */
+    public int chunkY() {
+        return chunkY;
+    }
+
+    public int chunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * Sample count in X on the publisher's LOD level.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Sample count in Y on the publisher's LOD level, 1 for 2D chunks.
+     */
+    public int height() {
+        return height;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * The first {@code width * height * depth} values hold the chunk (x fastest, then y, then z).
+     */
+    public float[] data() {
+        if (released) {
+            throw new IllegalStateException("Chunk was already released");
+        }
+        return data;
+    }
+
+    /**
+     * Returns the buffer to the publisher. The chunk must not be used afterward.
+     */
+    public void release() {
+        if (released) return;
+        released = true;
+        recycler.accept(data);
+    }
+}
@@ -0,0 +1,237 @@
+package de.verdox.noise;
+
+import de.verdox.util.LODUtil;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the chunks of a region as {@link NoiseChunk}s with backpressure.
+ * <p>
+ * Every subscription builds its own backend from the builder (size, seed, LOD etc. are taken from there) and only
+ * generates as many chunks ahead as the subscriber requested. Results are copied into a bounded pool of buffers, so
+ * memory stays at {@code bufferCount} chunks no matter how slow the consumer is; chunks have to be
+ * {@linkplain NoiseChunk#release() released}. Generation runs on the {@link NoiseExecutor} of the builder.
+ */
+public class NoiseChunkPublisher implements Flow.Publisher<NoiseChunk> {
+    private final NoiseBackendBuilder<?> builder;
+    private final NoiseExecutor executor;
+    private final float frequency;
+    private final int chunkX0, chunkY0, chunkZ0;
+    private final int countX, countY, countZ;
+    private final int bufferCount;
+
+    private NoiseChunkPublisher(NoiseBackendBuilder<?> builder, float frequency,
+                                int chunkX0, int chunkY0, int chunkZ0, int chunkX1, int chunkY1, int chunkZ1,
+                                int bufferCount) {
+        if (chunkX1 < chunkX0 || chunkY1 < chunkY0 || chunkZ1 < chunkZ0) {
+            throw new IllegalArgumentException("Region end must not be smaller than region start");
+        }
+        if (bufferCount < 1) {
+            throw new IllegalArgumentException("bufferCount must be >= 1");
+        }
+        this.builder = builder;
+        this.executor = builder instanceof NoiseBackendBuilder.CPUNoiseBackendBuilder cpu ? cpu.getExecutor() : NoiseExecutor.shared();
+        this.frequency = frequency;
+        this.chunkX0 = chunkX0;
+        this.chunkY0 = chunkY0;
+        this.chunkZ0 = chunkZ0;
+        this.countX = chunkX1 - chunkX0;
+        this.countY = chunkY1 - chunkY0;
+        this.countZ = chunkZ1 - chunkZ0;
+        this.bufferCount = bufferCount;
+    }
+
+    /**
+     * Chunks {@code [chunkX0, chunkX1) x [chunkY0, chunkY1) x [chunkZ0, chunkZ1)} of a 3D builder.
+     */
+    public static NoiseChunkPublisher region3D(NoiseBackendBuilder<?> builder, float frequency,
+                                               int chunkX0, int chunkY0, int chunkZ0,
+                                               int chunkX1, int chunkY1, int chunkZ1,
+                                               int bufferCount) {
+        if (!builder.is3DMode()) {
+            throw new IllegalArgumentException("Builder is not configured for 3D noise");
+        }
+        return new NoiseChunkPublisher(builder, frequency, chunkX0, chunkY0, chunkZ0, chunkX1, chunkY1, chunkZ1, bufferCount);
+    }
+
+    /**
+     * Chunks {@code [chunkX0, chunkX1) x [chunkZ0, chunkZ1)} of a 2D builder.
+     */
+    public static NoiseChunkPublisher region2D(NoiseBackendBuilder<?> builder, float frequency,
+                                               int chunkX0, int chunkZ0, int chunkX1, int chunkZ1,
+                                               int bufferCount) {
+        if (builder.is3DMode()) {
+            throw new IllegalArgumentException("Builder is not configured for 2D noise");
+        }
+        return new NoiseChunkPublisher(builder, frequency, chunkX0, 0, chunkZ0, chunkX1, 1, chunkZ1, bufferCount);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super NoiseChunk> subscriber) {
+        Objects.requireNonNull(subscriber);
+        NoiseBackend backend;
+        try {
+            backend = builder.build();
+        } catch (RuntimeException e) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(e);
+            return;
+        }
+        ChunkSubscription subscription = new ChunkSubscription(subscriber, backend);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Abstand zweier Chunk-Ursprünge im Noise-Raum; TILE_PYRAMID deckt pro Chunk 2^lod mal so viel ab.
+     */
+    private float chunkSpan() {
+        int scale = builder.getLodMode() == LODUtil.LODMode.TILE_PYRAMID ? 1 << builder.getLodLevel() : 1;
+        return builder.getSize() * frequency * scale;
+    }
+
+    private final class ChunkSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super NoiseChunk> subscriber;
+        private final NoiseBackend backend;
+        private final int width, height, depth;
+        private final Queue<float[]> freeBuffers = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final int total = countX * countY * countZ;
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // nur innerhalb von run() benutzt
+        private int allocated;
+        private int next;
+        private boolean done;
+
+        private ChunkSubscription(Flow.Subscriber<? super NoiseChunk> subscriber, NoiseBackend backend) {
+            this.subscriber = subscriber;
+            this.backend = backend;
+            int size = builder.getSize();
+            if (builder.is3DMode()) {
+                var lp = LODUtil.computeLOD3D(size, size, size, 0, 0, 0, frequency, builder.getLodLevel(), builder.getLodMode());
+                this.width = lp.widthLOD();
+                this.height = lp.heightLOD();
+                this.depth = lp.depthLOD();
+            } else {
+                var lp = LODUtil.computeLOD2D(size, size, 0, 0, frequency, builder.getLodLevel(), builder.getLodMode());
+                this.width = lp.widthLOD();
+                this.height = 1;
+                this.depth = lp.depthLOD();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " chunks, must be > 0");
+            } else {
+                requested.getAndAccumulate(n, (cur, add) -> cur + add < 0 ? Long.MAX_VALUE : cur + add);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void recycle(float[] buffer) {
+            if (!cancelled) {
+                freeBuffers.offer(buffer);
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::run);
+            }
+        }
+
+        private void run() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    step();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void step() {
+            try {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+
+                final float span = chunkSpan();
+                final int len = width * height * depth;
+                while (next < total && requested.get() > 0 && !cancelled) {
+                    float[] buffer = freeBuffers.poll();
+                    if (buffer == null) {
+                        if (allocated == bufferCount) break; // Consumer hält alle Puffer
+                        buffer = new float[len];
+                        allocated++;
+                    }
+
+                    final int cx = chunkX0 + next % countX;
+                    final int cy = chunkY0 + (next / countX) % countY;
+                    final int cz = chunkZ0 + next / (countX * countY);
+                    if (backend.is3D) {
+                        backend.generate(cx * span, cy * span, cz * span, frequency);
+                    } else {
+                        backend.generate(cx * span, cz * span, frequency);
+                    }
+                    System.arraycopy(backend.getResult(), 0, buffer, 0, len);
+                    next++;
+                    if (requested.get() != Long.MAX_VALUE) requested.decrementAndGet();
+
+                    subscriber.onNext(new NoiseChunk(cx, cy, cz, width, height, depth, buffer, this::recycle));
+                }
+
+                if (next == total && !cancelled) {
+                    finish();
+                    subscriber.onComplete();
+                } else if (cancelled) {
+                    finish();
+                }
+            } catch (Throwable t) {
+                cancelled = true;
+                if (!done) {
+                    finish();
+                    subscriber.onError(t);
+                }
+            }
+        }
+
+        private void finish() {
+            if (done) return;
+            done = true;
+            freeBuffers.clear();
+            backend.dispose();
+        }
+    }
+}
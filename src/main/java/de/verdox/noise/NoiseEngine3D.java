@@ -15,6 +15,10 @@ public class NoiseEngine3D {
         this.noiseBackend = noiseBackend;
     }
 
+    public NoiseBackend getNoiseBackend() {
+        return noiseBackend;
+    }
+
     public void computeNoise(float startX, float startY, float startZ, float frequency) {
         this.noiseBackend.generate(startX, startY, startZ, frequency);
     }
@@ -0,0 +1,238 @@
+package de.verdox.noise;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * Process-wide worker pool for the CPU backends. All backends built with the same executor share a bounded set of
+ * worker threads instead of each creating their own pool.
+ * <p>
+ * Concurrent {@link #invokeAll(int, IntConsumer)} calls are served round-robin, one tile at a time, so a backend
+ * generating a large volume does not starve others. The calling thread always helps with its own job, which keeps
+ * calls from worker threads deadlock free. {@link #invoke(ForkJoinTask)} ({@code CPUParallelismMode.FORK_JOIN}) is not
+ * part of this rotation: its tasks are scheduled by the pool's work stealing.
+ * <p>
+ * After {@link #shutdown()} every method still works, but runs its work on the calling thread.
+ */
+public final class NoiseExecutor implements AutoCloseable {
+    /**
+     * System property for the parallelism of {@link #shared()}. Defaults to the number of hardware threads.
+     */
+    public static final String PARALLELISM_PROPERTY = "noise.executor.parallelism";
+
+    private static final Object SHARED_LOCK = new Object();
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+    private static NoiseExecutor shared;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Queue<Job> jobs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private NoiseExecutor(int parallelism, String name) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName(name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, true);
+    }
+
+    /**
+     * Returns the executor shared by all backends that did not get an explicit one. A new instance is created if the
+     * previous one was shut down.
+     */
+    public static NoiseExecutor shared() {
+        synchronized (SHARED_LOCK) {
+            if (shared == null || shared.isShutdown()) {
+                int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+                shared = new NoiseExecutor(Math.max(1, parallelism), "noise-worker");
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Creates a separate executor with its own workers, e.g. to isolate a group of backends.
+     */
+    public static NoiseExecutor create(int parallelism) {
+        return new NoiseExecutor(parallelism, "noise-worker-pool" + POOL_COUNT.incrementAndGet());
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs {@code task} for every index in {@code [0, count)} and returns once all of them have finished.
+     * The first exception thrown by a task is rethrown after the remaining tasks completed.
+     */
+    public void invokeAll(int count, IntConsumer task) {
+        if (count <= 0) return;
+        if (count == 1) {
+            task.accept(0);
+            return;
+        }
+
+        Job job = new Job(count, task);
+        jobs.add(job);
+        signalWorkers(Math.min(count - 1, parallelism));
+
+        // Caller hilft bei seinem eigenen Job mit
+        int i;
+        while ((i = job.claim()) >= 0) {
+            job.run(i);
+        }
+        jobs.remove(job);
+        job.done.join();
+        job.rethrow();
+    }
+
+    /**
+     * Runs a fork/join task on the worker pool and waits for it. Used by {@code CPUParallelismMode.FORK_JOIN}; these
+     * tasks bypass the round-robin rotation of {@link #invokeAll(int, IntConsumer)}. After shutdown the task runs on
+     * the calling thread, so tasks should split without forking when {@link ForkJoinTask#inForkJoinPool()} is false.
+     */
+    public <T> T invoke(ForkJoinTask<T> task) {
+        if (!pool.isShutdown()) {
+            try {
+                return pool.invoke(task);
+            } catch (RejectedExecutionException e) {
+                // zwischen Prüfung und Übergabe heruntergefahren
+            }
+        }
+        return task.invoke();
+    }
+
+    /**
+     * Runs a single background task on the worker pool, e.g. a producer loop that itself calls into a backend. After
+     * shutdown the task runs on the calling thread before this method returns.
+     */
+    public void execute(Runnable task) {
+        if (!pool.isShutdown()) {
+            try {
+                pool.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                // zwischen Prüfung und Übergabe heruntergefahren
+            }
+        }
+        task.run();
+    }
+
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    /**
+     * Stops accepting work. Jobs that are already running are completed; afterward {@link #invokeAll(int, IntConsumer)},
+     * {@link #invoke(ForkJoinTask)} and {@link #execute(Runnable)} still work but run on the calling thread only.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void signalWorkers(int wanted) {
+        for (int n = 0; n < wanted; n++) {
+            int cur = activeWorkers.get();
+            if (cur >= parallelism) return;
+            if (!activeWorkers.compareAndSet(cur, cur + 1)) {
+                n--;
+                continue;
+            }
+            try {
+                pool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                activeWorkers.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Worker-Schleife: nimmt den vordersten Job, holt sich eine Kachel und hängt den Job wieder hinten an,
+     * solange er noch Kacheln hat (Round-Robin über alle laufenden Jobs).
+     */
+    private void drain() {
+        try {
+            Job job;
+            while ((job = jobs.poll()) != null) {
+                int i = job.claim();
+                if (i < 0) continue;
+                if (job.hasMore()) jobs.add(job);
+                job.run(i);
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+        // Job kann zwischen poll() und decrement eingereiht worden sein
+        if (!jobs.isEmpty()) signalWorkers(1);
+    }
+
+    private static final class Job {
+        private final int count;
+        private final IntConsumer task;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Job(int count, IntConsumer task) {
+            this.count = count;
+            this.task = task;
+            this.remaining = new AtomicInteger(count);
+        }
+
+        int claim() {
+            if (next.get() >= count) return -1;
+            int i = next.getAndIncrement();
+            return i < count ? i : -1;
+        }
+
+        boolean hasMore() {
+            return next.get() < count;
+        }
+
+        void run(int i) {
+            try {
+                if (failure.get() == null) task.accept(i);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                if (remaining.decrementAndGet() == 0) done.complete(null);
+            }
+        }
+
+        void rethrow() {
+            Throwable t = failure.get();
+            if (t == null) return;
+            if (t instanceof RuntimeException r) throw r;
+            if (t instanceof Error e) throw e;
+            throw new RuntimeException(t);
+        }
+    }
+}
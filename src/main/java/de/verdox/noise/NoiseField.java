@@ -0,0 +1,40 @@
+package de.verdox.noise;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of a generated field. Safe to share between any number of readers.
+ */
+public final class NoiseField {
+    private final float[] data;
+
+    NoiseField(float[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Copies {@code length} values of {@code source}.
+     */
+    public static NoiseField copyOf(float[] source, int length) {
+        return new NoiseField(Arrays.copyOf(source, length));
+    }
+
+    public float get(int index) {
+        return data[index];
+    }
+
+    public int length() {
+        return data.length;
+    }
+
+    /**
+     * Copies the field into {@code target} starting at {@code offset}.
+     */
+    public void copyInto(float[] target, int offset) {
+        System.arraycopy(data, 0, target, offset, data.length);
+    }
+
+    public float[] toArray() {
+        return data.clone();
+    }
+}
@@ -0,0 +1,11 @@
+package de.verdox.noise;
+
+/**
+ * Thrown by a backend when a generate call was aborted through its cancellation check. The result array is only
+ * partially written afterward.
+ */
+public class NoiseGenerationCancelledException extends RuntimeException {
+    public NoiseGenerationCancelledException() {
+        super("Noise generation was cancelled");
+    }
+}
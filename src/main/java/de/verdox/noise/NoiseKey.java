@@ -0,0 +1,62 @@
+package de.verdox.noise;
+
+import de.verdox.util.LODUtil;
+
+/**
+ * Identity of a generate call: everything that influences the result. Used to recognise identical requests.
+ */
+public record NoiseKey(long seed, float x0, float y0, float z0, float frequency,
+                       byte lodLevel, LODUtil.LODMode lodMode,
+                       int width, int height, int depth, boolean is3D,
+                       NoiseBackendBuilder.NoiseCalculationMode calculationMode, boolean vectorize,
+                       int cellWidth, int cellHeight, int cellDepth) {
+
+    /**
+     * Key of a 3D request with the configuration of {@code builder}.
+     */
+    public static NoiseKey of(NoiseBackendBuilder<?> builder, float x0, float y0, float z0, float frequency) {
+        int size = builder.getSize();
+        int[] cell = cell(builder);
+        return new NoiseKey(builder.getSeed(), x0, y0, z0, frequency, builder.getLodLevel(), builder.getLodMode(),
+                size, size, size, true, builder.getNoiseCalculationMode(), vectorize(builder), cell[0], cell[1], cell[2]);
+    }
+
+    /**
+     * Key of a 2D request with the configuration of {@code builder}; height is 1.
+     */
+    public static NoiseKey of(NoiseBackendBuilder<?> builder, float x0, float z0, float frequency) {
+        int size = builder.getSize();
+        int[] cell = cell(builder);
+        return new NoiseKey(builder.getSeed(), x0, 0f, z0, frequency, builder.getLodLevel(), builder.getLodMode(),
+                size, 1, size, false, builder.getNoiseCalculationMode(), vectorize(builder), cell[0], 1, cell[2]);
+    }
+
+    /**
+     * The scalar and the vector CPU kernel hash the lattice differently and give different fields for the same seed.
+     */
+    private static boolean vectorize(NoiseBackendBuilder<?> builder) {
+        return builder instanceof NoiseBackendBuilder.CPUNoiseBackendBuilder cpu && cpu.isVectorize();
+    }
+
+    /**
+     * Interpolation cell size {W, H, D} of the builder; 1, 1, 1 for builders that generate every sample.
+     */
+    private static int[] cell(NoiseBackendBuilder<?> builder) {
+        if (builder instanceof NoiseBackendBuilder.CPUNoiseBackendBuilder cpu) {
+            return new int[]{cpu.getCellWidth(), cpu.getCellHeight(), cpu.getCellDepth()};
+        }
+        return new int[]{1, 1, 1};
+    }
+
+    /**
+     * Number of values the request produces on its LOD level, i.e. the used prefix of the backend's result.
+     */
+    public int sampleCount() {
+        if (is3D) {
+            LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel, lodMode);
+            return lp.widthLOD() * lp.heightLOD() * lp.depthLOD();
+        }
+        LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, z0, frequency, lodLevel, lodMode);
+        return lp.widthLOD() * lp.depthLOD();
+    }
+}
@@ -0,0 +1,303 @@
+package de.verdox.noise;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Requests chunks before they enter view distance, based on the viewer's motion.
+ * <p>
+ * {@link #observe} records position samples and keeps a smoothed velocity. From it the prefetcher extrapolates the
+ * viewer over the next {@link #withHorizon horizon} and submits every chunk that will come within {@code radius}
+ * chunks, but is not within it yet, to the {@link PriorityNoiseScheduler} of its LOD level. Prefetches are queued with
+ * priorities above {@link #PREFETCH_PRIORITY}, so regular requests with distance-like priorities always run first and
+ * prefetching only uses idle capacity.
+ * <p>
+ * The prediction is only rebuilt when the viewer's chunk or one of the extrapolated chunks changes, so observing a
+ * viewer that moves within a chunk at a steady speed is cheap.
+ * <p>
+ * When a chunk is needed, {@link #take} hands over the prefetched result. {@link #stats()} reports how many takes were
+ * served by a prefetch and how many prefetches were used at all. Prefetches that leave the predicted set are
+ * cancelled.
+ */
+public class NoisePrefetcher implements AutoCloseable {
+    /**
+     * Priorities of prefetch requests start here; the time until the chunk is needed is added.
+     */
+    public static final double PREFETCH_PRIORITY = 1_000_000d;
+    private static final int PREDICTION_STEPS = 8;
+    private static final float VELOCITY_SMOOTHING = 0.5f;
+
+    private final PriorityNoiseScheduler[] schedulersByLod;
+    private final boolean is3D;
+    private final float chunkSpan;
+    private final float frequency;
+    private final int radius;
+
+    private double horizonSeconds = 2;
+    private int lodDistance = Integer.MAX_VALUE;
+    private int maxInFlight = 256;
+
+    private final Map<Chunk, PriorityNoiseScheduler.Ticket> prefetched = new HashMap<>();
+    // früheste Vorhersage je Chunk-Position, LOD steckt im Wert
+    private final Map<Cell, Prediction> needed = new HashMap<>();
+    // noch nicht abgeschickte Vorhersagen, nach Zeitpunkt sortiert
+    private List<Prediction> backlog = List.of();
+    private int backlogIndex;
+    // aktueller Chunk und die PREDICTION_STEPS extrapolierten Chunks, je x/y/z
+    private int[] prediction = new int[3 * (PREDICTION_STEPS + 1)];
+    private int[] nextPrediction = new int[3 * (PREDICTION_STEPS + 1)];
+    private boolean hasPrediction;
+    private boolean hasSample;
+    private long lastNanos;
+    private float px, py, pz, vx, vy, vz;
+
+    private long takes, hits, issued, dropped;
+
+    /**
+     * @param schedulersByLod scheduler for each LOD level, index 0 is full resolution
+     * @param is3D            whether chunks are 3D volumes or 2D heightmap tiles
+     * @param chunkSpan       edge length of a chunk in noise coordinates (size * frequency)
+     * @param frequency       frequency passed to the schedulers
+     * @param radius          view distance in chunks
+     */
+    public NoisePrefetcher(PriorityNoiseScheduler[] schedulersByLod, boolean is3D, float chunkSpan, float frequency, int radius) {
+        if (schedulersByLod.length == 0) {
+            throw new IllegalArgumentException("At least one scheduler is needed");
+        }
+        if (radius < 0) {
+            throw new IllegalArgumentException("radius must be >= 0");
+        }
+        this.schedulersByLod = schedulersByLod.clone();
+        this.is3D = is3D;
+        this.chunkSpan = chunkSpan;
+        this.frequency = frequency;
+        this.radius = radius;
+    }
+
+    /**
+     * How far ahead the viewer is extrapolated. Default is 2 seconds.
+     */
+    public NoisePrefetcher withHorizon(double seconds) {
+        this.horizonSeconds = seconds;
+        this.hasPrediction = false;
+        return this;
+    }
+
+    /**
+     * Chunks closer than {@code chunks} are prefetched at LOD 0, each further doubling of the distance uses the next
+     * LOD level (up to the last scheduler). By default everything is prefetched at LOD 0.
+     */
+    public NoisePrefetcher withLodDistance(int chunks) {
+        if (chunks < 1) throw new IllegalArgumentException("lodDistance must be >= 1");
+        this.lodDistance = chunks;
+        this.hasPrediction = false;
+        return this;
+    }
+
+    /**
+     * Upper bound for outstanding prefetches. Default is 256.
+     */
+    public NoisePrefetcher withMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Records a viewer position (noise coordinates) and updates the prefetches. {@code y} is ignored for 2D.
+     */
+    public synchronized void observe(long nanoTime, float x, float y, float z) {
+        if (!is3D) y = 0;
+        if (hasSample && nanoTime > lastNanos) {
+            final float dt = (nanoTime - lastNanos) * 1e-9f;
+            vx += VELOCITY_SMOOTHING * ((x - px) / dt - vx);
+            vy += VELOCITY_SMOOTHING * ((y - py) / dt - vy);
+            vz += VELOCITY_SMOOTHING * ((z - pz) / dt - vz);
+        }
+        hasSample = true;
+        lastNanos = nanoTime;
+        px = x;
+        py = y;
+        pz = z;
+        updatePrefetches();
+    }
+
+    /**
+     * Hands over the prefetched result of a chunk and stops tracking it.
+     *
+     * @return the prefetched result, or null if the chunk was not prefetched at this LOD
+     */
+    public synchronized CompletableFuture<float[]> take(int chunkX, int chunkY, int chunkZ, int lod) {
+        takes++;
+        PriorityNoiseScheduler.Ticket ticket = prefetched.remove(new Chunk(chunkX, is3D ? chunkY : 0, chunkZ, lod));
+        if (ticket == null || ticket.isCancelled()) return null;
+        hits++;
+        return ticket.result();
+    }
+
+    /**
+     * 2D variant of {@link #take(int, int, int, int)}.
+     */
+    public CompletableFuture<float[]> take(int chunkX, int chunkZ, int lod) {
+        return take(chunkX, 0, chunkZ, lod);
+    }
+
+    private void updatePrefetches() {
+        final int cx = chunkOf(px), cy = is3D ? chunkOf(py) : 0, cz = chunkOf(pz);
+        if (predict(cx, cy, cz)) {
+            rebuildPrediction(cx, cy, cz);
+        }
+        while (backlogIndex < backlog.size() && prefetched.size() < maxInFlight) {
+            final Prediction p = backlog.get(backlogIndex++);
+            if (!prefetched.containsKey(p.chunk())) submit(p.chunk(), p.seconds());
+        }
+    }
+
+    /**
+     * Extrapoliert den Betrachter auf Chunk-Ebene; das ist die quantisierte Geschwindigkeit. Liefert true, wenn sich
+     * gegenüber der letzten Vorhersage etwas geändert hat.
+     */
+    private boolean predict(int cx, int cy, int cz) {
+        final int[] next = nextPrediction;
+        next[0] = cx;
+        next[1] = cy;
+        next[2] = cz;
+        for (int s = 1; s <= PREDICTION_STEPS; s++) {
+            final double t = horizonSeconds * s / PREDICTION_STEPS;
+            next[3 * s] = chunkOf((float) (px + vx * t));
+            next[3 * s + 1] = is3D ? chunkOf((float) (py + vy * t)) : 0;
+            next[3 * s + 2] = chunkOf((float) (pz + vz * t));
+        }
+        if (hasPrediction && Arrays.equals(next, prediction)) return false;
+        nextPrediction = prediction;
+        prediction = next;
+        hasPrediction = true;
+        return true;
+    }
+
+    private void rebuildPrediction(int cx, int cy, int cz) {
+        final int yRadius = is3D ? radius : 0;
+
+        // Vorhersage: für jeden Chunk der früheste Zeitpunkt, an dem er in Sichtweite kommt, und die LOD dort
+        needed.clear();
+        for (int s = 1; s <= PREDICTION_STEPS; s++) {
+            final double t = horizonSeconds * s / PREDICTION_STEPS;
+            final int ox = prediction[3 * s], oy = prediction[3 * s + 1], oz = prediction[3 * s + 2];
+            if (ox == cx && oy == cy && oz == cz) continue;
+
+            for (int dz = -radius; dz <= radius; dz++) {
+                for (int dy = -yRadius; dy <= yRadius; dy++) {
+                    for (int dx = -radius; dx <= radius; dx++) {
+                        final int x = ox + dx, y = oy + dy, z = oz + dz;
+                        if (!inView(dx, dy, dz)) continue;
+                        if (inView(x - cx, y - cy, z - cz)) continue; // schon sichtbar, fordert der Aufrufer selbst an
+                        final Cell cell = new Cell(x, y, z);
+                        if (needed.containsKey(cell)) continue;       // früherer Zeitpunkt gewinnt
+                        final double dist = Math.sqrt((double) dx * dx + (double) dy * dy + (double) dz * dz);
+                        needed.put(cell, new Prediction(new Chunk(x, y, z, lodFor(dist)), t));
+                    }
+                }
+            }
+        }
+
+        // nicht mehr vorhergesagte Prefetches verwerfen
+        for (Iterator<Map.Entry<Chunk, PriorityNoiseScheduler.Ticket>> it = prefetched.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Chunk, PriorityNoiseScheduler.Ticket> e = it.next();
+            Chunk c = e.getKey();
+            Prediction p = needed.get(new Cell(c.x, c.y, c.z));
+            if ((p == null || p.chunk().lod != c.lod) && !inView(c.x - cx, c.y - cy, c.z - cz)) {
+                e.getValue().cancel();
+                it.remove();
+                dropped++;
+            }
+        }
+
+        backlog = needed.values().stream()
+                .filter(p -> !prefetched.containsKey(p.chunk()))
+                .sorted(Comparator.comparingDouble(Prediction::seconds))
+                .toList();
+        backlogIndex = 0;
+    }
+
+    private void submit(Chunk c, double seconds) {
+        final PriorityNoiseScheduler scheduler = schedulersByLod[c.lod];
+        final double priority = PREFETCH_PRIORITY + seconds;
+        final PriorityNoiseScheduler.Ticket ticket = is3D
+                ? scheduler.submit(priority, c.x * chunkSpan, c.y * chunkSpan, c.z * chunkSpan, frequency)
+                : scheduler.submit(priority, c.x * chunkSpan, c.z * chunkSpan, frequency);
+        prefetched.put(c, ticket);
+        issued++;
+    }
+
+    private boolean inView(int dx, int dy, int dz) {
+        return (long) dx * dx + (long) dy * dy + (long) dz * dz <= (long) radius * radius;
+    }
+
+    private int lodFor(double distance) {
+        if (distance < lodDistance) return 0;
+        final int lod = 32 - Integer.numberOfLeadingZeros((int) (distance / lodDistance));
+        return Math.min(lod, schedulersByLod.length - 1);
+    }
+
+    private int chunkOf(float coordinate) {
+        return (int) Math.floor(coordinate / chunkSpan);
+    }
+
+    /**
+     * Outstanding prefetches that were neither taken nor dropped.
+     */
+    public synchronized int tracked() {
+        return prefetched.size();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(takes, hits, issued, dropped);
+    }
+
+    /**
+     * Cancels all outstanding prefetches. The schedulers are not closed.
+     */
+    @Override
+    public synchronized void close() {
+        prefetched.values().forEach(PriorityNoiseScheduler.Ticket::cancel);
+        dropped += prefetched.size();
+        prefetched.clear();
+        backlog = List.of();
+        hasPrediction = false;
+    }
+
+    private record Chunk(int x, int y, int z, int lod) {
+    }
+
+    private record Cell(int x, int y, int z) {
+    }
+
+    private record Prediction(Chunk chunk, double seconds) {
+    }
+
+    /**
+     * @param takes   calls of {@link #take}
+     * @param hits    takes that were served by a prefetch
+     * @param issued  submitted prefetches
+     * @param dropped prefetches that were cancelled because the prediction changed
+     */
+    public record Stats(long takes, long hits, long issued, long dropped) {
+        /**
+         * Share of takes that found a prefetched chunk.
+         */
+        public double hitRate() {
+            return takes == 0 ? 0 : (double) hits / takes;
+        }
+
+        /**
+         * Share of issued prefetches that were actually used.
+         */
+        public double usefulRate() {
+            return issued == 0 ? 0 : (double) hits / issued;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package de.verdox.noise;
+
+import java.util.Arrays;
+
+/**
+ * All LOD levels of a region in one contiguous mip-chain buffer. Level {@code l} starts at {@link #offset(int)} and
+ * is stored x-major with its own {@link #width(int)}, {@link #height(int)} and {@link #depth(int)}.
+ */
+public final class NoisePyramid {
+    private final float[] data;
+    private final int[] offsets;
+    private final int[] widths, heights, depths;
+
+    NoisePyramid(int[] widths, int[] heights, int[] depths) {
+        this.widths = widths;
+        this.heights = heights;
+        this.depths = depths;
+        this.offsets = new int[widths.length + 1];
+        for (int l = 0; l < widths.length; l++) {
+            offsets[l + 1] = offsets[l] + widths[l] * heights[l] * depths[l];
+        }
+        this.data = new float[offsets[widths.length]];
+    }
+
+    public int levels() {
+        return widths.length;
+    }
+
+    /**
+     * Start of level {@code level} in {@link #data()}.
+     */
+    public int offset(int level) {
+        return offsets[level];
+    }
+
+    /**
+     * Number of samples of level {@code level}.
+     */
+    public int length(int level) {
+        return offsets[level + 1] - offsets[level];
+    }
+
+    public int width(int level) {
+        return widths[level];
+    }
+
+    /**
+     * Always 1 for 2D pyramids.
+     */
+    public int height(int level) {
+        return heights[level];
+    }
+
+    public int depth(int level) {
+        return depths[level];
+    }
+
+    public float get(int level, int x, int y, int z) {
+        return data[offsets[level] + x + (y + z * heights[level]) * widths[level]];
+    }
+
+    /**
+     * The whole mip chain; use {@link #offset(int)} to find a level.
+     */
+    public float[] data() {
+        return data;
+    }
+
+    public float[] copyLevel(int level) {
+        return Arrays.copyOfRange(data, offsets[level], offsets[level + 1]);
+    }
+}
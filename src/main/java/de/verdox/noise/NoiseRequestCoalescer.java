@@ -0,0 +1,236 @@
+package de.verdox.noise;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects small chunk requests for a short time window and generates compatible ones in a single wide dispatch.
+ * <p>
+ * Requests are compatible if they come from the same kind of builder and agree on everything except the origin that
+ * changes the generated values, i.e. on every field of {@link NoiseKey} (dimension, size, LOD, calculation mode,
+ * kernel variant, interpolation cells, seed and frequency). Builders that only differ in how they compute
+ * (parallelism, tiling) share a group. A group is dispatched when it reaches {@code maxBatchSize} requests or when its
+ * window ends, whichever comes first, through {@link NoiseBackend#generateBatch}: Aparapi GPU backends launch one
+ * kernel for the whole group, CPU backends fork all chunks onto the executor at once. Each caller gets its own copy of
+ * its chunk.
+ * <p>
+ * Dispatches run one at a time on a single coalescer thread that owns one backend per group. It keeps the backends
+ * of the {@code maxBackends} most recently dispatched groups and disposes older ones.
+ */
+public class NoiseRequestCoalescer implements AutoCloseable {
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService dispatcher;
+    private final Map<Group, Batch> pending = new HashMap<>();
+    // nur vom Dispatcher-Thread benutzt, LRU nach letzter Dispatch
+    private final Map<Group, NoiseBackend> backends;
+    private final LongAdder dispatches = new LongAdder();
+    private boolean closed;
+
+    /**
+     * Keeps the backends of up to 16 groups.
+     *
+     * @param windowMicros how long the first request of a group waits for others
+     * @param maxBatchSize dispatches a group early once it holds this many requests
+     */
+    public NoiseRequestCoalescer(long windowMicros, int maxBatchSize) {
+        this(windowMicros, maxBatchSize, 16);
+    }
+
+    /**
+     * @param windowMicros how long the first request of a group waits for others
+     * @param maxBatchSize dispatches a group early once it holds this many requests
+     * @param maxBackends  number of groups whose backend is kept between dispatches
+     */
+    public NoiseRequestCoalescer(long windowMicros, int maxBatchSize, int maxBackends) {
+        if (windowMicros < 0) {
+            throw new IllegalArgumentException("windowMicros must be >= 0");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be >= 1");
+        }
+        if (maxBackends < 1) {
+            throw new IllegalArgumentException("maxBackends must be >= 1");
+        }
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.backends = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Group, NoiseBackend> eldest) {
+                if (size() <= maxBackends) return false;
+                eldest.getValue().dispose();
+                return true;
+            }
+        };
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "noise-coalescer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.dispatcher = executor;
+    }
+
+    /**
+     * Requests a 3D chunk with the configuration of {@code builder}.
+     *
+     * @return completes with a copy of the chunk on the builder's LOD level
+     */
+    public CompletableFuture<float[]> request(NoiseBackendBuilder<?> builder, float x0, float y0, float z0, float frequency) {
+        if (!builder.is3DMode()) {
+            throw new IllegalArgumentException("Builder is not configured for 3D noise");
+        }
+        return enqueue(new Group(builder.getClass(), NoiseKey.of(builder, 0f, 0f, 0f, frequency)), builder, x0, y0, z0);
+    }
+
+    /**
+     * Requests a 2D chunk with the configuration of {@code builder}.
+     *
+     * @return completes with a copy of the chunk on the builder's LOD level
+     */
+    public CompletableFuture<float[]> request(NoiseBackendBuilder<?> builder, float x0, float z0, float frequency) {
+        if (builder.is3DMode()) {
+            throw new IllegalArgumentException("Builder is not configured for 2D noise");
+        }
+        return enqueue(new Group(builder.getClass(), NoiseKey.of(builder, 0f, 0f, frequency)), builder, x0, 0f, z0);
+    }
+
+    /**
+     * Number of wide dispatches issued so far.
+     */
+    public long dispatches() {
+        return dispatches.sum();
+    }
+
+    private CompletableFuture<float[]> enqueue(Group group, NoiseBackendBuilder<?> builder, float x0, float y0, float z0) {
+        CompletableFuture<float[]> future = new CompletableFuture<>();
+        synchronized (pending) {
+            if (closed) {
+                throw new IllegalStateException("Coalescer is closed");
+            }
+            Batch batch = pending.get(group);
+            if (batch == null) {
+                batch = new Batch(group, builder);
+                pending.put(group, batch);
+                final Batch b = batch;
+                batch.timer = dispatcher.schedule(() -> flush(b), windowMicros, TimeUnit.MICROSECONDS);
+            }
+            batch.add(x0, y0, z0, future);
+            if (batch.size() >= maxBatchSize) {
+                // Batch voll: nicht auf das Fenster warten
+                pending.remove(group);
+                batch.timer.cancel(false);
+                final Batch b = batch;
+                dispatcher.execute(() -> dispatch(b));
+            }
+        }
+        return future;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (pending) {
+            if (!pending.remove(batch.group, batch)) return;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        // bereits abgebrochene Anfragen nicht mitrechnen
+        List<CompletableFuture<float[]>> callers = new ArrayList<>(batch.size());
+        float[] origins = new float[batch.size() * 3];
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.callers.get(i).isDone()) continue;
+            System.arraycopy(batch.origins, i * 3, origins, count * 3, 3);
+            callers.add(batch.callers.get(i));
+            count++;
+        }
+        if (count == 0) return;
+
+        try {
+            NoiseKey config = batch.group.config();
+            NoiseBackend backend = backends.computeIfAbsent(batch.group, g -> batch.builder.build());
+            int len = config.sampleCount();
+            float[] out = new float[count * len];
+            backend.generateBatch(origins, count, config.frequency(), out, len);
+            dispatches.increment();
+
+            for (int i = 0; i < count; i++) {
+                callers.get(i).complete(Arrays.copyOfRange(out, i * len, (i + 1) * len));
+            }
+        } catch (Throwable t) {
+            callers.forEach(f -> f.completeExceptionally(t));
+        }
+    }
+
+    /**
+     * Dispatches all pending groups, waits for them and disposes the backends.
+     */
+    @Override
+    public void close() {
+        List<Batch> remaining;
+        synchronized (pending) {
+            if (closed) return;
+            closed = true;
+            remaining = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Batch batch : remaining) {
+            batch.timer.cancel(false);
+            dispatcher.execute(() -> dispatch(batch));
+        }
+        dispatcher.execute(() -> {
+            backends.values().forEach(NoiseBackend::dispose);
+            backends.clear();
+        });
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Everything that has to be equal for two requests to share a dispatch and a backend. {@code config} holds all
+     * value-affecting settings of the builder; its origin is 0.
+     */
+    private record Group(Class<?> builderType, NoiseKey config) {
+    }
+
+    private static final class Batch {
+        private final Group group;
+        private final NoiseBackendBuilder<?> builder;
+        private final List<CompletableFuture<float[]>> callers = new ArrayList<>();
+        private float[] origins = new float[3 * 8];
+        private ScheduledFuture<?> timer;
+
+        private Batch(Group group, NoiseBackendBuilder<?> builder) {
+            this.group = group;
+            this.builder = builder;
+        }
+
+        private void add(float x0, float y0, float z0, CompletableFuture<float[]> caller) {
+            int i = callers.size() * 3;
+            if (i + 3 > origins.length) origins = Arrays.copyOf(origins, origins.length * 2);
+            origins[i] = x0;
+            origins[i + 1] = y0;
+            origins[i + 2] = z0;
+            callers.add(caller);
+        }
+
+        private int size() {
+            return callers.size();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package de.verdox.noise;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for many concurrent, mostly waiting chunk requests.
+ * <p>
+ * Requests passed to {@link #submit(Callable)} run on virtual threads, so IO and cache lookups do not need a platform
+ * thread each. The noise computation itself ({@link #computeNoise(float, float, float, float)}) is handed to a bounded
+ * pool of platform carrier threads, each owning its own {@link NoiseEngine3D}. A virtual thread only parks while it
+ * waits for the result and is never pinned inside kernel execution.
+ * <p>
+ * Carriers already run in parallel, so the backend factory should usually build
+ * {@link NoiseBackendBuilder.CPUParallelismMode#SEQUENTIAL} backends.
+ */
+public class NoiseRequestService implements AutoCloseable {
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService carriers;
+    private final ThreadLocal<NoiseEngine3D> engines;
+    private final Queue<NoiseBackend> backends = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Uses one carrier per hardware thread.
+     */
+    public NoiseRequestService(Supplier<NoiseBackend> backendFactory) {
+        this(backendFactory, NoiseEngine3D.CPU_CORES);
+    }
+
+    /**
+     * @param backendFactory builds the backend of one carrier, e.g. {@code builder::build}
+     * @param carrierThreads number of platform threads computing noise
+     */
+    public NoiseRequestService(Supplier<NoiseBackend> backendFactory, int carrierThreads) {
+        if (carrierThreads < 1) {
+            throw new IllegalArgumentException("carrierThreads must be >= 1");
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.carriers = Executors.newFixedThreadPool(carrierThreads, r -> {
+            Thread t = new Thread(r, "noise-carrier-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.engines = ThreadLocal.withInitial(() -> {
+            NoiseBackend backend = backendFactory.get();
+            backends.add(backend);
+            return new NoiseEngine3D(backend);
+        });
+    }
+
+    /**
+     * Runs a request on its own virtual thread.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        requests.execute(() -> {
+            try {
+                future.complete(request.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Computes a 3D chunk on a carrier thread and blocks the calling (virtual) thread until it is done.
+     *
+     * @return a copy of the chunk on the backend's LOD level, owned by the caller
+     */
+    public float[] computeNoise(float startX, float startY, float startZ, float frequency) {
+        return await(carriers.submit(() -> {
+            NoiseEngine3D engine = engines.get();
+            engine.computeNoise(startX, startY, startZ, frequency);
+            NoiseBackend backend = engine.getNoiseBackend();
+            return Arrays.copyOf(backend.getResult(), backend.sampleCount());
+        }));
+    }
+
+    /**
+     * Computes a 2D chunk on a carrier thread and blocks the calling (virtual) thread until it is done.
+     *
+     * @return a copy of the chunk on the backend's LOD level, owned by the caller
+     */
+    public float[] computeNoise(float startX, float startZ, float frequency) {
+        return await(carriers.submit(() -> {
+            NoiseEngine3D engine = engines.get();
+            engine.computeNoise(startX, startZ, frequency);
+            NoiseBackend backend = engine.getNoiseBackend();
+            return Arrays.copyOf(backend.getResult(), backend.sampleCount());
+        }));
+    }
+
+    private static float[] await(Future<float[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Waits for running requests, stops the carriers and disposes their backends.
+     */
+    @Override
+    public void close() {
+        requests.close();
+        carriers.close();
+        NoiseBackend backend;
+        while ((backend = backends.poll()) != null) {
+            backend.dispose();
+        }
+    }
+}
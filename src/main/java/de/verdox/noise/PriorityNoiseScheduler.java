@@ -0,0 +1,215 @@
+package de.verdox.noise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs chunk requests in order of a caller-supplied priority (lower value first, e.g. distance to the viewer).
+ * <p>
+ * Queued requests can be cancelled or re-prioritised; a request that is already running is aborted cooperatively at
+ * the next tile boundary of a {@code CacheOnly} backend (other backends only check before starting). Every worker
+ * thread owns its own backend from the factory.
+ */
+public class PriorityNoiseScheduler implements AutoCloseable {
+    private final PriorityBlockingQueue<Ticket> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Supplier<NoiseBackend> backendFactory;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Queue<NoiseBackend> backends = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * @param backendFactory builds the backend of one worker, e.g. {@code builder::build}
+     * @param workerThreads  number of requests computed at the same time
+     */
+    public PriorityNoiseScheduler(Supplier<NoiseBackend> backendFactory, int workerThreads) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("workerThreads must be >= 1");
+        }
+        this.backendFactory = backendFactory;
+        for (int i = 0; i < workerThreads; i++) {
+            Thread t = new Thread(this::work, "noise-priority-" + (i + 1));
+            t.setDaemon(true);
+            workers.add(t);
+            t.start();
+        }
+    }
+
+    /**
+     * Queues a 3D chunk request.
+     */
+    public Ticket submit(double priority, float x0, float y0, float z0, float frequency) {
+        return enqueue(new Ticket(priority, sequence.getAndIncrement(), true, x0, y0, z0, frequency));
+    }
+
+    /**
+     * Queues a 2D chunk request.
+     */
+    public Ticket submit(double priority, float x0, float z0, float frequency) {
+        return enqueue(new Ticket(priority, sequence.getAndIncrement(), false, x0, 0, z0, frequency));
+    }
+
+    /**
+     * Moves a still queued request to a new priority. Returns false if it already started or finished.
+     */
+    public boolean reprioritize(Ticket ticket, double priority) {
+        // Priorität nur ändern, solange das Ticket nicht in der Queue liegt
+        if (!queue.remove(ticket)) return false;
+        ticket.priority = priority;
+        queue.add(ticket);
+        dropIfClosed(ticket);
+        return true;
+    }
+
+    public int queuedRequests() {
+        return queue.size();
+    }
+
+    private Ticket enqueue(Ticket ticket) {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+        ticket.result.whenComplete((r, e) -> {
+            if (ticket.result.isCancelled()) queue.remove(ticket);
+        });
+        queue.add(ticket);
+        if (dropIfClosed(ticket)) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+        return ticket;
+    }
+
+    /**
+     * close() leert die Queue evtl. schon, bevor ein gleichzeitig eingereihtes Ticket ankommt. Liegt es danach noch in
+     * der Queue, würde es nie gestartet; dann wird es hier abgebrochen. Ist es schon weg, hat close() oder ein Worker
+     * es übernommen.
+     */
+    private boolean dropIfClosed(Ticket ticket) {
+        if (closed && queue.remove(ticket)) {
+            ticket.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    private void work() {
+        NoiseBackend backend = null;
+        while (!closed) {
+            Ticket ticket;
+            try {
+                ticket = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (ticket.result.isDone()) continue;
+
+            try {
+                if (backend == null) {
+                    backend = backendFactory.get();
+                    backends.add(backend);
+                }
+                if (ticket.is3D) {
+                    backend.generate(ticket.x0, ticket.y0, ticket.z0, ticket.frequency, ticket::isCancelled);
+                } else {
+                    backend.generate(ticket.x0, ticket.z0, ticket.frequency, ticket::isCancelled);
+                }
+                ticket.result.complete(backend.getResult().clone());
+            } catch (NoiseGenerationCancelledException e) {
+                ticket.cancel();
+            } catch (Throwable t) {
+                ticket.result.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * Cancels all queued requests, stops the workers and disposes their backends.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.forEach(Thread::interrupt);
+        Ticket ticket;
+        while ((ticket = queue.poll()) != null) {
+            ticket.cancel();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        NoiseBackend backend;
+        while ((backend = backends.poll()) != null) {
+            backend.dispose();
+        }
+    }
+
+    /**
+     * Handle of a submitted request. Queue order is by priority, then by submission order.
+     */
+    public static final class Ticket implements Comparable<Ticket> {
+        private volatile double priority;
+        private final long sequence;
+        private final boolean is3D;
+        private final float x0, y0, z0, frequency;
+        private final CompletableFuture<float[]> result;
+
+        private Ticket(double priority, long sequence, boolean is3D, float x0, float y0, float z0, float frequency) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.is3D = is3D;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.z0 = z0;
+            this.frequency = frequency;
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Completes with a copy of the generated field, or is cancelled.
+         */
+        public CompletableFuture<float[]> result() {
+            return result;
+        }
+
+        /**
+         * Drops the request if it is still queued, otherwise aborts it at the next tile boundary.
+         */
+        public void cancel() {
+            result.cancel(false);
+        }
+
+        public boolean isCancelled() {
+            return result.isCancelled();
+        }
+
+        public double priority() {
+            return priority;
+        }
+
+        @Override
+        public int compareTo(Ticket o) {
+            int c = Double.compare(priority, o.priority);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Ticket t && t.sequence == sequence;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequence);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package de.verdox.noise;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates identical concurrent requests. The first caller of a {@link NoiseKey} computes the field; everyone
+ * asking for the same key while that computation is running waits for it and receives the same immutable
+ * {@link NoiseField}. Finished keys are not cached, a later request computes again.
+ * <p>
+ * The service is meant to be shared by all subsystems that request chunks with the same configuration.
+ */
+public class SingleFlightNoiseService implements AutoCloseable {
+    private final NoiseBackendBuilder<?> builder;
+    private final Supplier<NoiseBackend> backendFactory;
+    private final ConcurrentHashMap<NoiseKey, CompletableFuture<NoiseField>> inFlight = new ConcurrentHashMap<>();
+    private final Queue<NoiseBackend> idleBackends = new ConcurrentLinkedQueue<>();
+
+    public SingleFlightNoiseService(NoiseBackendBuilder<?> builder) {
+        this(builder, builder::build);
+    }
+
+    /**
+     * @param builder        source of the configuration that goes into the keys
+     * @param backendFactory creates additional backends when several distinct keys are computed at the same time
+     */
+    public SingleFlightNoiseService(NoiseBackendBuilder<?> builder, Supplier<NoiseBackend> backendFactory) {
+        this.builder = builder;
+        this.backendFactory = backendFactory;
+    }
+
+    /**
+     * Returns the 3D field at the given origin, joining a running computation of the same key if there is one.
+     */
+    public CompletableFuture<NoiseField> request(float x0, float y0, float z0, float frequency) {
+        return request(NoiseKey.of(builder, x0, y0, z0, frequency));
+    }
+
+    /**
+     * Returns the 2D field at the given origin, joining a running computation of the same key if there is one.
+     */
+    public CompletableFuture<NoiseField> request(float x0, float z0, float frequency) {
+        return request(NoiseKey.of(builder, x0, z0, frequency));
+    }
+
+    /**
+     * Blocking variant of {@link #request(float, float, float, float)}.
+     */
+    public NoiseField get(float x0, float y0, float z0, float frequency) {
+        return join(request(x0, y0, z0, frequency));
+    }
+
+    /**
+     * Blocking variant of {@link #request(float, float, float)}.
+     */
+    public NoiseField get(float x0, float z0, float frequency) {
+        return join(request(x0, z0, frequency));
+    }
+
+    /**
+     * Number of keys that are currently being computed.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private CompletableFuture<NoiseField> request(NoiseKey key) {
+        CompletableFuture<NoiseField> mine = new CompletableFuture<>();
+        CompletableFuture<NoiseField> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return running;
+        }
+
+        // Erster Anfragender rechnet selbst, alle weiteren warten auf 'mine'
+        try {
+            mine.complete(compute(key));
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return mine;
+    }
+
+    private NoiseField compute(NoiseKey key) {
+        NoiseBackend backend = idleBackends.poll();
+        if (backend == null) backend = backendFactory.get();
+        try {
+            if (key.is3D()) {
+                backend.generate(key.x0(), key.y0(), key.z0(), key.frequency());
+            } else {
+                backend.generate(key.x0(), key.z0(), key.frequency());
+            }
+            return NoiseField.copyOf(backend.getResult(), key.sampleCount());
+        } finally {
+            idleBackends.add(backend);
+        }
+    }
+
+    private static NoiseField join(CompletableFuture<NoiseField> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        NoiseBackend backend;
+        while ((backend = idleBackends.poll()) != null) {
+            backend.dispose();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.aparapi.device.Device;
 import de.verdox.noise.NoiseBackend;
 import de.verdox.noise.NoiseBackendBuilder;
 import de.verdox.noise.aparapi.kernel.AbstractSimplexNoiseKernel;
+import de.verdox.util.LODUtil;
 
 public abstract class AparapiNoiseBackend<KERNEL extends AbstractSimplexNoiseKernel> extends NoiseBackend {
     protected final Device preferredDevice;
@@ -15,6 +16,8 @@ public abstract class AparapiNoiseBackend<KERNEL extends AbstractSimplexNoiseKer
     protected int localX, localY, localZ;
     protected int local1D;
     protected int slabDepth;
+    // LOD des laufenden generateLod-Aufrufs, -1 = LOD aus dem Builder
+    private int callLod = -1;
 
     public AparapiNoiseBackend(Device preferredDevice, NoiseBackendBuilder.NoiseCalculationMode calculationMode, float[] result, int width, int height, int depth) {
         super(result, width, height, depth);
@@ -42,6 +45,51 @@ public abstract class AparapiNoiseBackend<KERNEL extends AbstractSimplexNoiseKer
 
     protected abstract KERNEL setup();
 
+    /**
+     * Builder this backend was created from.
+     */
+    protected abstract NoiseBackendBuilder<?> builder();
+
+    /**
+     * LOD level of the running generate call: the one passed to {@code generateLod}, otherwise the configured one.
+     */
+    protected int lodLevel() {
+        return callLod >= 0 ? callLod : builder().getLodLevel();
+    }
+
+    /**
+     * Anzahl der LOD-Level, für die setup() Pläne vorberechnet: alle gültigen plus ggf. das konfigurierte.
+     */
+    protected int plannedLodLevels() {
+        return Math.max(maxLodLevel(), builder().getLodLevel()) + 1;
+    }
+
+    /**
+     * Dimensionen {W, H, D} auf LOD-Level {@code lod} (H = 1 in 2D).
+     */
+    protected int[] lodDims(int lod) {
+        if (is3D) {
+            LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, 0f, 0f, 0f, 1f, lod, builder().getLodMode());
+            return new int[]{lp.widthLOD(), lp.heightLOD(), lp.depthLOD()};
+        }
+        LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, 0f, 0f, 1f, lod, builder().getLodMode());
+        return new int[]{lp.widthLOD(), 1, lp.depthLOD()};
+    }
+
+    @Override
+    public int sampleCount() {
+        int[] dims = lodDims(lodLevel());
+        return dims[0] * dims[1] * dims[2];
+    }
+
+    /**
+     * Highest LOD level {@code generateLod} accepts. Beyond it {@code CHUNK_LOCAL} would not shrink the chunk any
+     * further; launch plans are precomputed for levels {@code 0..maxLodLevel()} in {@link #setup()}.
+     */
+    public int maxLodLevel() {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(width, Math.max(height, depth)));
+    }
+
     protected abstract KERNEL createKernel();
 
     @Override
@@ -80,4 +128,31 @@ public abstract class AparapiNoiseBackend<KERNEL extends AbstractSimplexNoiseKer
             generate2DNoise2DIndexed(x0, y0, frequency);
         }
     }
+
+    @Override
+    public void generateLod(float x0, float y0, float z0, float frequency, int lodLevel) {
+        beginLod(lodLevel);
+        try {
+            generate(x0, y0, z0, frequency);
+        } finally {
+            callLod = -1;
+        }
+    }
+
+    @Override
+    public void generateLod(float x0, float y0, float frequency, int lodLevel) {
+        beginLod(lodLevel);
+        try {
+            generate(x0, y0, frequency);
+        } finally {
+            callLod = -1;
+        }
+    }
+
+    private void beginLod(int lodLevel) {
+        if (lodLevel < 0 || lodLevel > maxLodLevel()) {
+            throw new IllegalArgumentException("lodLevel " + lodLevel + " is outside [0, " + maxLodLevel() + "]");
+        }
+        callLod = lodLevel;
+    }
 }
@@ -3,33 +3,49 @@ package de.verdox.noise.aparapi.backend.cpu;
 import com.aparapi.Kernel;
 import com.aparapi.Range;
 import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseExecutor;
+import de.verdox.noise.NoiseGenerationCancelledException;
 import de.verdox.noise.aparapi.backend.AparapiNoiseBackend;
 import de.verdox.noise.aparapi.kernel.AbstractSimplexNoiseKernel;
 import de.verdox.noise.aparapi.kernel.cpu.CPUScalarSimplexNoiseKernel;
 import de.verdox.noise.aparapi.kernel.cpu.CPUVectorSimplexNoiseKernel;
 import de.verdox.util.HardwareUtil;
 import de.verdox.util.LODUtil;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 
 public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<AbstractSimplexNoiseKernel> {
     protected final NoiseBackendBuilder.CPUNoiseBackendBuilder params;
-
+    protected final NoiseExecutor executor;
+    // Kernel pro Worker für generateBatch() und generateRegion(), erst bei Bedarf angelegt
+    private final ThreadLocal<AbstractSimplexNoiseKernel> batchKernels = ThreadLocal.withInitial(this::createKernel);
+    private static final VectorSpecies<Float> LERP_SPECIES = FloatVector.SPECIES_PREFERRED;
+    // Eckraster und auf volle Breite expandierte Eckzeilen des Interpolationsmodus
+    private float[] interpolationNodes = new float[0];
+    private float[] interpolationRows = new float[0];
 
     public CPUJavaAparapiNoiseBackend(NoiseBackendBuilder.CPUNoiseBackendBuilder params, float[] result, int width, int height, int depth) {
         super(null, params.getNoiseCalculationMode(), result, width, height, depth);
         this.params = params;
+        this.executor = params.getExecutor();
+        this.use1DIndexing = params.isOneDimensionalIndexing();
     }
 
     public CPUJavaAparapiNoiseBackend(NoiseBackendBuilder.CPUNoiseBackendBuilder params, float[] result, int width, int depth) {
         super(null, params.getNoiseCalculationMode(), result, width, depth);
         this.params = params;
+        this.executor = params.getExecutor();
+        this.use1DIndexing = params.isOneDimensionalIndexing();
+    }
+
+    @Override
+    protected NoiseBackendBuilder<?> builder() {
+        return params;
     }
 
     /**
@@ -140,6 +156,22 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
         return Math.max(ROW_Q, (rows / ROW_Q) * ROW_Q);
     }
 
+    /**
+     * Kantenlänge (Zweierpotenz) der würfelförmigen Kacheln für die Morton-Traversierung, sodass eine Kachel
+     * etwa den halben L2 belegt. Ohne L2-Info wird von 256 KiB ausgegangen.
+     */
+    public static int pickMortonTileEdge(int bytesPerVoxel) {
+        HardwareUtil.CacheSizes cs = HardwareUtil.readCaches();
+        long l2 = (cs.l2 != null && cs.l2.sizeBytes() > 0) ? cs.l2.sizeBytes() : 256L << 10;
+        long budgetElems = (l2 / 2) / bytesPerVoxel;
+
+        int edge = 16;
+        while (edge < 128 && (long) (edge * 2) * (edge * 2) * (edge * 2) <= budgetElems) {
+            edge *= 2;
+        }
+        return edge;
+    }
+
     private static int clamp(int v, int lo, int hi) {
         return Math.max(lo, Math.min(hi, v));
     }
@@ -148,7 +180,7 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
         return switch (params.getParallelismMode()) {
             case SEQUENTIAL -> 1;
             case PARALLELISM_CORES -> HardwareUtil.getPhysicalProcessorCount();
-            case PARALLELISM_THREADS -> Runtime.getRuntime().availableProcessors();
+            case PARALLELISM_THREADS, FORK_JOIN -> Runtime.getRuntime().availableProcessors();
         };
     }
 
@@ -169,6 +201,267 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
         }
     }
 
+    /**
+     * Verteilt alle Chunks eines Batches als einen einzigen Fork auf den {@link NoiseExecutor}, statt pro Chunk
+     * einmal zu forken und zu joinen. Wenige Chunks werden zusätzlich in Z-Slabs geteilt, damit alle Worker
+     * Arbeit bekommen. Jeder Task schreibt über baseIndex direkt nach {@code out}. Mit Interpolation wird jeder Chunk
+     * einzeln über generate() erzeugt, damit der Batch dieselben Werte liefert.
+     */
+    @Override
+    public void generateBatch(float[] origins, int count, float frequency, float[] out, int stride) {
+        if (params.isInterpolating()) {
+            super.generateBatch(origins, count, frequency, out, stride);
+            return;
+        }
+        checkBatch(origins, count, out, stride);
+        if (count == 0) return;
+
+        final int lod = lodLevel();
+        final var lodMode = params.getLodMode();
+        final int W, H, D;
+        if (is3D) {
+            LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, 0f, 0f, 0f, frequency, lod, lodMode);
+            W = lp.widthLOD(); H = lp.heightLOD(); D = lp.depthLOD();
+        } else {
+            LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, 0f, 0f, frequency, lod, lodMode);
+            W = lp.widthLOD(); H = 1; D = lp.depthLOD();
+        }
+        if (stride < W * H * D) {
+            throw new IllegalArgumentException("stride " + stride + " is smaller than a chunk (" + W * H * D + ")");
+        }
+
+        final int L = params.isVectorize() ? HardwareUtil.getVectorLaneLength() : 1;
+        final int Wv = (W + L - 1) / L;
+        final boolean sequential = params.getParallelismMode() == NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL;
+        final int slabsPerChunk = sequential ? 1 : clamp((2 * executor.parallelism() + count - 1) / count, 1, D);
+        final int dz = (D + slabsPerChunk - 1) / slabsPerChunk;
+        final int slabs = (D + dz - 1) / dz;
+
+        final IntConsumer task = t -> {
+            final int c = t / slabs;
+            final int zStart = (t % slabs) * dz;
+            final int d = Math.min(dz, D - zStart);
+            final float ox = origins[c * 3], oy = origins[c * 3 + 1], oz = origins[c * 3 + 2];
+
+            final AbstractSimplexNoiseKernel k = batchKernels.get();
+            k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+            k.bindOutput(out);
+            if (is3D) {
+                LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, ox, oy, oz, frequency, lod, lodMode);
+                k.setParameters(lp.baseX(), lp.baseY(), lp.baseZ(), W, H, d, lp.frequencyLOD(),
+                        c * stride + zStart * W * H, params.getSeed());
+                k.setTileOffset(0, 0, zStart);
+                k.execute(use1DIndexing ? Range.create(Wv * H * d, 1) : Range.create3D(Wv, H, d, 1, 1, 1));
+            } else {
+                LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, ox, oz, frequency, lod, lodMode);
+                k.setParameters(lp.baseX(), 0f, lp.baseZ(), W, 1, d, lp.frequencyLOD(),
+                        c * stride + zStart * W, params.getSeed());
+                k.setTileOffset(0, 0, zStart);
+                k.execute(use1DIndexing ? Range.create(Wv * d, 1) : Range.create2D(Wv, d, 1, 1));
+            }
+        };
+
+        if (sequential) {
+            for (int t = 0; t < count * slabs; t++) task.accept(t);
+        } else {
+            executor.invokeAll(count * slabs, task);
+        }
+    }
+
+    /**
+     * Region über baseIndex, Strides und Tile-Offset direkt nach {@code out}; mehrere Worker teilen sich die Region
+     * in Z-Slabs. Gleicher Kernel wie {@link #generate}, daher bitgleich zu einem vollen Feld mit gleichem Anker.
+     */
+    @Override
+    public void generateRegion(float x0, float y0, float z0, float frequency,
+                               int offX, int offY, int offZ, int stepX, int stepY, int stepZ, int w, int h, int d,
+                               float[] out, int baseIndex, int rowStride, int planeStride) {
+        checkRegion(w, h, d, out, baseIndex, rowStride, planeStride);
+        if (stepX < 1 || stepY < 1 || stepZ < 1) {
+            throw new IllegalArgumentException("Sample steps must be >= 1");
+        }
+        if (w == 0 || d == 0 || h == 0) return;
+
+        final int L = params.isVectorize() ? HardwareUtil.getVectorLaneLength() : 1;
+        final int Wv = (w + L - 1) / L;
+        final boolean sequential = params.getParallelismMode() == NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL;
+        // schmale Streifen lohnen keinen Fork: mindestens ~8192 Samples pro Slab
+        final int slabsWanted = sequential ? 1 : clamp((int) Math.min(executor.parallelism(), (long) w * h * d / 8192), 1, d);
+        final int dz = (d + slabsWanted - 1) / slabsWanted;
+        final int slabs = (d + dz - 1) / dz;
+
+        final IntConsumer task = s -> {
+            final int zStart = s * dz;
+            final int sd = Math.min(dz, d - zStart);
+            final AbstractSimplexNoiseKernel k = batchKernels.get();
+            k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+            k.bindOutput(out);
+            if (is3D) {
+                k.setParameters(x0, y0, z0, w, h, sd, frequency, baseIndex + zStart * planeStride, params.getSeed());
+                k.setTileOffset(offX, offY, offZ + zStart * stepZ);
+                k.setSampleStep(stepX, stepY, stepZ);
+                k.setOutputStrides(rowStride, planeStride);
+                k.execute(use1DIndexing ? Range.create(Wv * h * sd, 1) : Range.create3D(Wv, h, sd, 1, 1, 1));
+            } else {
+                k.setParameters(x0, 0f, z0, w, 1, sd, frequency, baseIndex + zStart * planeStride, params.getSeed());
+                k.setTileOffset(offX, 0, offZ + zStart * stepZ);
+                k.setSampleStep(stepX, 1, stepZ);
+                k.setOutputStrides(w, planeStride);
+                k.execute(use1DIndexing ? Range.create(Wv * sd, 1) : Range.create2D(Wv, sd, 1, 1));
+            }
+        };
+
+        if (slabs == 1) {
+            task.accept(0);
+        } else {
+            executor.invokeAll(slabs, task);
+        }
+    }
+
+    @Override
+    public void generate(float x0, float y0, float z0, float frequency) {
+        if (params.isInterpolating()) {
+            final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel(), params.getLodMode());
+            interpolate(lp.baseX(), lp.baseY(), lp.baseZ(), lp.frequencyLOD(), lp.widthLOD(), lp.heightLOD(), lp.depthLOD());
+            return;
+        }
+        super.generate(x0, y0, z0, frequency);
+    }
+
+    @Override
+    public void generate(float x0, float y0, float frequency) {
+        if (params.isInterpolating()) {
+            final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lodLevel(), params.getLodMode());
+            interpolate(lp.baseX(), 0f, lp.baseZ(), lp.frequencyLOD(), lp.widthLOD(), 1, lp.depthLOD());
+            return;
+        }
+        super.generate(x0, y0, frequency);
+    }
+
+    /**
+     * Interpolationsmodus: Kernel nur auf den Zellecken (ein gestrecktes Region-Raster), dann X-Expansion der
+     * Eckzeilen und ein vektorisierter Y/Z-Lerp über volle Zeilen nach {@code result}.
+     */
+    private void interpolate(float BX, float BY, float BZ, float FQ, int W, int H, int D) {
+        final int cx = params.getCellWidth(), cy = is3D ? params.getCellHeight() : 1, cz = params.getCellDepth();
+        final int gx = (W + cx - 2) / cx + 1, gy = (H + cy - 2) / cy + 1, gz = (D + cz - 2) / cz + 1;
+
+        final int nodes = gx * gy * gz;
+        if (interpolationNodes.length < nodes) interpolationNodes = new float[nodes];
+        final float[] grid = interpolationNodes;
+        generateRegion(BX, BY, BZ, FQ, 0, 0, 0, cx, cy, cz, gx, gy, gz, grid, 0, gx, gx * gy);
+        checkCancelled();
+
+        // jede Eckzeile auf volle Breite
+        final int expanded = gy * gz * W;
+        if (interpolationRows.length < expanded) interpolationRows = new float[expanded];
+        final float[] rows = interpolationRows;
+        final float invCx = 1f / cx;
+        for (int r = 0; r < gy * gz; r++) {
+            final int src = r * gx, dst = r * W;
+            for (int x = 0; x < W; x++) {
+                final int i = x / cx, t = x - i * cx;
+                final float a = grid[src + i];
+                rows[dst + x] = t == 0 ? a : Math.fma(grid[src + i + 1] - a, t * invCx, a);
+            }
+        }
+        checkCancelled();
+
+        final float invCy = 1f / cy, invCz = 1f / cz;
+        final IntConsumer plane = z -> {
+            final int kz = z / cz, tz = z - kz * cz;
+            final float fz = tz * invCz;
+            for (int y = 0; y < H; y++) {
+                final int ky = y / cy, ty = y - ky * cy;
+                final float fy = ty * invCy;
+                final int r00 = (kz * gy + ky) * W;
+                final int r10 = ty == 0 ? r00 : r00 + W;
+                final int r01 = tz == 0 ? r00 : r00 + gy * W;
+                final int r11 = tz == 0 ? r10 : r10 + gy * W;
+                lerpRow(rows, r00, r10, r01, r11, fy, fz, result, (z * H + y) * W, W);
+            }
+        };
+        if (params.getParallelismMode() == NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL || (long) W * H * D < 8192) {
+            for (int z = 0; z < D; z++) plane.accept(z);
+        } else {
+            executor.invokeAll(D, plane);
+        }
+    }
+
+    /**
+     * Abbruchpunkt zwischen den Durchgängen der Interpolation; nur {@link CacheOnly} bricht hier ab.
+     */
+    protected void checkCancelled() {
+    }
+
+    private static void lerpRow(float[] rows, int r00, int r10, int r01, int r11, float fy, float fz,
+                                float[] out, int dst, int W) {
+        int x = 0;
+        final int upper = LERP_SPECIES.loopBound(W);
+        if (upper > 0) {
+            final FloatVector FY = FloatVector.broadcast(LERP_SPECIES, fy), FZ = FloatVector.broadcast(LERP_SPECIES, fz);
+            for (; x < upper; x += LERP_SPECIES.length()) {
+                final FloatVector v00 = FloatVector.fromArray(LERP_SPECIES, rows, r00 + x);
+                final FloatVector v10 = FloatVector.fromArray(LERP_SPECIES, rows, r10 + x);
+                final FloatVector v01 = FloatVector.fromArray(LERP_SPECIES, rows, r01 + x);
+                final FloatVector v11 = FloatVector.fromArray(LERP_SPECIES, rows, r11 + x);
+                final FloatVector a = v10.sub(v00).fma(FY, v00);
+                final FloatVector b = v11.sub(v01).fma(FY, v01);
+                b.sub(a).fma(FZ, a).intoArray(out, dst + x);
+            }
+        }
+        for (; x < W; x++) {
+            final float a = Math.fma(rows[r10 + x] - rows[r00 + x], fy, rows[r00 + x]);
+            final float b = Math.fma(rows[r11 + x] - rows[r01 + x], fy, rows[r01 + x]);
+            out[dst + x] = Math.fma(b - a, fz, a);
+        }
+    }
+
+    /**
+     * Generates the field at {@code (x0, y0, z0)} both interpolated (left in {@link #getResult()}) and exactly,
+     * and reports how far the interpolation is off.
+     */
+    public InterpolationError interpolationError(float x0, float y0, float z0, float frequency) {
+        final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel(), params.getLodMode());
+        final int W = lp.widthLOD(), H = lp.heightLOD(), D = lp.depthLOD();
+        final float[] exact = new float[W * H * D];
+        generateRegion(lp.baseX(), lp.baseY(), lp.baseZ(), lp.frequencyLOD(), 0, 0, 0, W, H, D, exact, 0, W, W * H);
+        generate(x0, y0, z0, frequency);
+        return InterpolationError.between(exact, result, exact.length);
+    }
+
+    /**
+     * 2D variant of {@link #interpolationError(float, float, float, float)}.
+     */
+    public InterpolationError interpolationError(float x0, float y0, float frequency) {
+        final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lodLevel(), params.getLodMode());
+        final int W = lp.widthLOD(), D = lp.depthLOD();
+        final float[] exact = new float[W * D];
+        generateRegion(lp.baseX(), 0f, lp.baseZ(), lp.frequencyLOD(), 0, 0, 0, W, 1, D, exact, 0, W, W);
+        generate(x0, y0, frequency);
+        return InterpolationError.between(exact, result, exact.length);
+    }
+
+    /**
+     * Deviation of an approximated field from the exact one.
+     *
+     * @param maxAbs  largest absolute difference
+     * @param rms     root mean square of the differences
+     * @param samples number of compared samples
+     */
+    public record InterpolationError(float maxAbs, double rms, int samples) {
+        public static InterpolationError between(float[] exact, float[] approx, int length) {
+            float max = 0f;
+            double squares = 0;
+            for (int i = 0; i < length; i++) {
+                final float d = Math.abs(exact[i] - approx[i]);
+                max = Math.max(max, d);
+                squares += (double) d * d;
+            }
+            return new InterpolationError(max, length == 0 ? 0 : Math.sqrt(squares / length), length);
+        }
+    }
+
     /**
      * Tries to only use L1 and L2 cache of the processor
      */
@@ -178,8 +471,16 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
 
         protected ThreadLocal<AbstractSimplexNoiseKernel> cacheOptKernels;
         protected ThreadLocal<float[]> slabsPerThread;
-        protected ExecutorService cacheOptPool;
         private int maxSlabElems;
+        protected int tileEdge;
+        // Kachelpläne (3D) bzw. Zeilen pro Task (2D) je LOD-Level, im setup() vorberechnet
+        private TilePlan[] tilePlans;
+        private int[] rowsPerTask2D;
+        private static final BooleanSupplier NOT_CANCELLED = () -> false;
+        // Kachelgröße der GenerationJobs: klein genug für Budgets im Millisekundenbereich
+        private static final int JOB_TILE_SAMPLES = 4096;
+        // wird an jeder Kachelgrenze geprüft, gilt nur für die Dauer eines generate-Aufrufs
+        private volatile BooleanSupplier cancelled = NOT_CANCELLED;
 
         public CacheOnly(NoiseBackendBuilder.CPUNoiseBackendBuilder params, float[] result, int width, int height, int depth) {
             super(params, result, width, height, depth);
@@ -199,268 +500,234 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
                 // (dein bestehender 1D-Setup-Code bleibt unverändert)
                 this.slabDepth = pickDzFor1D(width, height, depth, Float.BYTES, threads, l3);
                 this.rowsPerTask = pickRowsPerTaskFor1DWithDz(width, slabDepth, Float.BYTES, threads, l3);
-                maxSlabElems = width * rowsPerTask * slabDepth;
-
-                cacheSlab = new float[maxSlabElems];
-                if (cacheOptPool == null) {
-                    cacheOptPool = Executors.newFixedThreadPool(threads, r -> {
-                        Thread t = new Thread(r);
-                        t.setDaemon(true);
-                        return t;
-                    });
-                }
-                this.cacheOptKernels = ThreadLocal.withInitial(this::createKernel);
-                this.slabsPerThread = ThreadLocal.withInitial(() -> new float[maxSlabElems]);
             } else {
                 // === 3D-Indexing ===
                 // Zuerst sinnvolle Z-Slab-Tiefe für den L3-Anteil pro Thread wählen …
                 this.slabDepth = pickSlabDepthForL3(width, height, depth, Float.BYTES, threads);
                 // … dann Y-Blockgröße (Zeilen pro Task) passend zur Z-Tiefe und L3 wählen
                 this.rowsPerTask = pickRowsPerTaskFor1DWithDz(width, slabDepth, Float.BYTES, threads, l3);
+            }
+
+            // Morton: würfelförmige, L2-große Kacheln (auch in X geblockt)
+            this.tileEdge = pickMortonTileEdge(Float.BYTES);
 
-                // Puffergrößen auf Basis der lokalen Tile-Maße:
-                this.maxSlabElems = width * rowsPerTask * slabDepth;
-                this.cacheSlab = new float[maxSlabElems];
+            // Puffergrößen auf Basis der lokalen Tile-Maße:
+            this.maxSlabElems = params.getTileTraversal() == NoiseBackendBuilder.TileTraversal.MORTON
+                    ? Math.min(width, tileEdge) * Math.min(height, tileEdge) * Math.min(depth, tileEdge)
+                    : width * rowsPerTask * slabDepth;
+            this.cacheSlab = new float[maxSlabElems];
 
-                if (cacheOptPool == null) {
-                    cacheOptPool = Executors.newFixedThreadPool(threads, r -> {
-                        Thread t = new Thread(r);
-                        t.setDaemon(true);
-                        return t;
-                    });
+            this.cacheOptKernels = ThreadLocal.withInitial(this::createKernel);
+            this.slabsPerThread = ThreadLocal.withInitial(() -> new float[maxSlabElems]);
+
+            final int levels = plannedLodLevels();
+            if (is3D) {
+                this.tilePlans = new TilePlan[levels];
+                for (int l = 0; l < levels; l++) {
+                    final int[] dims = lodDims(l);
+                    tilePlans[l] = planTiles(dims[0], dims[1], dims[2]);
+                }
+            } else {
+                this.rowsPerTask2D = new int[levels];
+                for (int l = 0; l < levels; l++) {
+                    rowsPerTask2D[l] = Math.max(8, pickRowsPerTaskL3Aware(lodDims(l)[0], Float.BYTES, threads, l3));
                 }
-                this.cacheOptKernels = ThreadLocal.withInitial(this::createKernel);
-                this.slabsPerThread = ThreadLocal.withInitial(() -> new float[maxSlabElems]);
             }
-
             this.kernel = createKernel();
             return this.kernel;
         }
 
+        @Override
+        public void generate(float x0, float y0, float z0, float frequency, BooleanSupplier cancelled) {
+            this.cancelled = cancelled;
+            try {
+                super.generate(x0, y0, z0, frequency, cancelled);
+            } finally {
+                this.cancelled = NOT_CANCELLED;
+            }
+        }
+
+        @Override
+        public void generate(float x0, float y0, float frequency, BooleanSupplier cancelled) {
+            this.cancelled = cancelled;
+            try {
+                super.generate(x0, y0, frequency, cancelled);
+            } finally {
+                this.cancelled = NOT_CANCELLED;
+            }
+        }
+
+        @Override
+        protected void checkCancelled() {
+            if (cancelled.getAsBoolean()) throw new NoiseGenerationCancelledException();
+        }
 
         @Override
         public void generate3DNoise1DIndexed(float x0, float y0, float z0, float frequency) {
-            final int lod = params.getLodLevel();
+            generate3DTiled(x0, y0, z0, frequency, false);
+        }
+
+        @Override
+        public void generate3DNoise3DIndexed(float x0, float y0, float z0, float frequency) {
+            generate3DTiled(x0, y0, z0, frequency, true);
+        }
+
+        private void generate3DTiled(float x0, float y0, float z0, float frequency, boolean range3D) {
+            final int lod = lodLevel();
             final var lodMode = params.getLodMode();
             final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lod, lodMode);
 
             final int W = lp.widthLOD(), H = lp.heightLOD(), D = lp.depthLOD();
-            final float BX = lp.baseX(), BY = lp.baseY(), BZ = lp.baseZ(), FQ = lp.frequencyLOD();
 
             final int L = params.isVectorize() ? HardwareUtil.getVectorLaneLength() : 1;
-            final int Wv = params.isVectorize() ? (W + L - 1) / L : W;
 
-            final int slabDepthNow = Math.max(1, Math.min(slabDepth, D));
-            final int rowsPerTaskNow = Math.max(1, Math.min(rowsPerTask, H));
-            final int plane = W * H;
+            final TileGrid grid = new TileGrid(W, H, D, L, lp.baseX(), lp.baseY(), lp.baseZ(), lp.frequencyLOD(), range3D);
+            final TilePlan plan = tilePlans[lod];
 
             if (params.getParallelismMode().equals(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)) {
                 kernel.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
 
-                for (int zStart = 0; zStart < D; zStart += slabDepthNow) {
-                    final int dz = Math.min(slabDepthNow, D - zStart);
-
-                    for (int yStart = 0; yStart < H; yStart += rowsPerTaskNow) {
-                        final int rows = Math.min(rowsPerTaskNow, H - yStart);
-
-                        // Slab vorbereiten
-                        final int need = W * rows * dz;
-                        if (cacheSlab == null || cacheSlab.length < need) cacheSlab = new float[need];
-                        Arrays.fill(cacheSlab, 0f);
-
-                        kernel.setExplicit(true);
-                        kernel.bindOutput(cacheSlab);
-                        kernel.setParameters(
-                                BX,
-                                BY + yStart * FQ,
-                                BZ + zStart * FQ,
-                                W, rows, dz,
-                                FQ,
-                                0, params.getSeed()
-                        );
-
-                        final int elems = Wv * rows * dz;
-                        kernel.execute(Range.create(elems, 1));
-                        kernel.get(cacheSlab);
-
-                        final int rowStride = W * rows;
-                        for (int z = 0; z < dz; z++) {
-                            final int src = z * rowStride;
-                            final int dst = (zStart + z) * plane + yStart * W;
-                            System.arraycopy(cacheSlab, src, result, dst, rowStride);
-                        }
-                    }
+                for (int i = 0; i < plan.count(); i++) {
+                    cacheSlab = computeTile(kernel, cacheSlab, grid, plan, i);
                 }
+            } else if (params.getParallelismMode() == NoiseBackendBuilder.CPUParallelismMode.FORK_JOIN) {
+                executor.invoke(new TileRangeTask(grid, plan, 0, plan.count()));
             } else {
-                List<Future<?>> futures = new ArrayList<>(1024);
-
-                for (int zStart = 0; zStart < D; zStart += slabDepthNow) {
-                    final int dz = Math.min(slabDepthNow, D - zStart);
-
-                    for (int yStart = 0; yStart < H; yStart += rowsPerTaskNow) {
-                        final int rows = Math.min(rowsPerTaskNow, H - yStart);
-
-                        final int fz = zStart, fy = yStart;
-
-                        futures.add(cacheOptPool.submit(() -> {
-                            AbstractSimplexNoiseKernel k = cacheOptKernels.get();
-                            float[] slab = slabsPerThread.get();
-
-                            final int need = W * rows * dz;
-                            if (slab.length < need) {
-                                slab = new float[need];
-                                slabsPerThread.set(slab);
-                            }
-                            k.bindOutput(slab);
-
-                            k.setParameters(
-                                    BX,
-                                    BY + fy * FQ,
-                                    BZ + fz * FQ,
-                                    W, rows, dz,
-                                    FQ,
-                                    0, params.getSeed()
-                            );
-
-                            k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
-                            k.execute(Range.create(Wv * rows * dz, 1));
-
-                            final int rowStride = W * rows;
-                            for (int z = 0; z < dz; z++) {
-                                final int src = z * rowStride;
-                                final int dst = (fz + z) * plane + fy * W;
-                                System.arraycopy(slab, src, result, dst, rowStride);
-                            }
-                        }));
-                    }
-                }
-
-                for (Future<?> ftr : futures) {
-                    try {
-                        ftr.get();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException(e);
-                    } catch (ExecutionException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+                // Kacheln werden in Plan-Reihenfolge vergeben: benachbarte Tasks teilen Gitter-Hashes und Cache-Lines
+                executor.invokeAll(plan.count(), tile -> {
+                    AbstractSimplexNoiseKernel k = cacheOptKernels.get();
+                    k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+
+                    float[] slab = slabsPerThread.get();
+                    float[] used = computeTile(k, slab, grid, plan, tile);
+                    if (used != slab) slabsPerThread.set(used);
+                });
             }
         }
 
-        @Override
-        public void generate3DNoise3DIndexed(float x0, float y0, float z0, float frequency) {
-            final int lod = params.getLodLevel();
-            final var lodMode = params.getLodMode();
-            final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lod, lodMode);
+        /**
+         * Teilt einen Bereich des Kachelplans rekursiv, bis eine einzelne Kachel übrig bleibt. Da der Plan
+         * Z-Slabs vor Y-Blöcken (bzw. Morton-Order) ablegt, trennt der Split zuerst entlang Z und dann entlang Y;
+         * freie Worker stehlen die jeweils größte noch offene Hälfte.
+         */
+        private final class TileRangeTask extends RecursiveAction {
+            private final TileGrid grid;
+            private final TilePlan plan;
+            private final int from, to;
+
+            private TileRangeTask(TileGrid grid, TilePlan plan, int from, int to) {
+                this.grid = grid;
+                this.plan = plan;
+                this.from = from;
+                this.to = to;
+            }
 
-            final int W = lp.widthLOD(), H = lp.heightLOD(), D = lp.depthLOD();
-            final float BX = lp.baseX(), BY = lp.baseY(), BZ = lp.baseZ(), FQ = lp.frequencyLOD();
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    final int mid = (from + to) >>> 1;
+                    final TileRangeTask lower = new TileRangeTask(grid, plan, from, mid), upper = new TileRangeTask(grid, plan, mid, to);
+                    if (inForkJoinPool()) {
+                        invokeAll(lower, upper);
+                    } else {
+                        // Executor heruntergefahren: auf dem Aufrufer-Thread, ohne in den Common-Pool zu forken
+                        lower.compute();
+                        upper.compute();
+                    }
+                    return;
+                }
+                AbstractSimplexNoiseKernel k = cacheOptKernels.get();
+                k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
 
-            final boolean vec = params.isVectorize();
-            final int L = vec ? HardwareUtil.getVectorLaneLength() : 1;
-            final int Wv = vec ? (W + L - 1) / L : W;
+                float[] slab = slabsPerThread.get();
+                float[] used = computeTile(k, slab, grid, plan, from);
+                if (used != slab) slabsPerThread.set(used);
+            }
+        }
 
-            final int slabDepthNow = Math.max(1, Math.min(slabDepth, D));
-            final int rowsPerTaskNow = Math.max(1, Math.min(rowsPerTask, H));
-            final int plane = W * H;
+        /**
+         * Kachelplan für die LOD-Dimensionen {@code W×H×D} und die eingestellte Traversierung.
+         */
+        private TilePlan planTiles(int W, int H, int D) {
+            if (params.getTileTraversal() == NoiseBackendBuilder.TileTraversal.MORTON) {
+                return TilePlan.morton(W, H, D, tileEdge);
+            }
+            final int dz = Math.max(1, Math.min(slabDepth, D));
+            final int rows = Math.max(1, Math.min(rowsPerTask, H));
+            return TilePlan.rowMajor(W, H, D, rows, dz);
+        }
 
-            if (params.getParallelismMode().equals(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)) {
-                kernel.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+        /**
+         * Berechnet Kachel {@code i} des Plans. Im Direct-Output-Modus schreibt der Kernel über baseIndex und
+         * Strides direkt in {@code result}, sonst in den Slab, der danach zeilenweise nach {@code result} kopiert wird.
+         *
+         * @return den verwendeten Slab (ggf. neu allokiert, wenn der übergebene zu klein war)
+         */
+        private float[] computeTile(AbstractSimplexNoiseKernel k, float[] slab, TileGrid g, TilePlan plan, int i) {
+            checkCancelled();
+            final int xStart = plan.x(i), yStart = plan.y(i), zStart = plan.z(i);
+            final int tw = plan.w(i), rows = plan.h(i), dz = plan.d(i);
+            final int twv = (tw + g.L() - 1) / g.L();
+            final int plane = g.W() * g.H();
+            final boolean direct = params.isDirectOutput();
+
+            if (direct) {
+                k.bindOutput(result);
+            } else {
+                final int need = tw * rows * dz;
+                if (slab == null || slab.length < need) slab = new float[need];
+                Arrays.fill(slab, 0, need, 0f);
+                k.bindOutput(slab);
+            }
 
-                for (int zStart = 0; zStart < D; zStart += slabDepthNow) {
-                    final int dz = Math.min(slabDepthNow, D - zStart);
-
-                    for (int yStart = 0; yStart < H; yStart += rowsPerTaskNow) {
-                        final int rows = Math.min(rowsPerTaskNow, H - yStart);
-
-                        final int need = W * rows * dz;
-                        if (cacheSlab == null || cacheSlab.length < need) cacheSlab = new float[need];
-                        Arrays.fill(cacheSlab, 0f);
-
-                        kernel.bindOutput(cacheSlab);
-                        kernel.setParameters(
-                                BX,
-                                BY + yStart * FQ,
-                                BZ + zStart * FQ,
-                                W, rows, dz,
-                                FQ,
-                                0, params.getSeed()
-                        );
-
-                        final Range r3 = Range.create3D(Wv, rows, dz, 1, 1, 1);
-                        kernel.execute(r3);
-                        kernel.get(cacheSlab);
-
-                        final int rowStride = W * rows;
-                        for (int z = 0; z < dz; z++) {
-                            final int src = z * rowStride;
-                            final int dst = (zStart + z) * plane + yStart * W;
-                            System.arraycopy(cacheSlab, src, result, dst, rowStride);
-                        }
-                    }
-                }
+            k.setParameters(
+                    g.BX(), g.BY(), g.BZ(),
+                    tw, rows, dz,
+                    g.FQ(),
+                    direct ? zStart * plane + yStart * g.W() + xStart : 0,
+                    params.getSeed()
+            );
+            k.setTileOffset(xStart, yStart, zStart);
+            if (direct) k.setOutputStrides(g.W(), plane);
+
+            if (g.range3D()) {
+                k.execute(Range.create3D(twv, rows, dz, 1, 1, 1));
             } else {
-                final List<Future<?>> futures = new ArrayList<>(1024);
-
-                for (int zStart = 0; zStart < D; zStart += slabDepthNow) {
-                    final int dz = Math.min(slabDepthNow, D - zStart);
-
-                    for (int yStart = 0; yStart < H; yStart += rowsPerTaskNow) {
-                        final int rows = Math.min(rowsPerTaskNow, H - yStart);
-
-                        final int fz = zStart, fy = yStart;
-
-                        futures.add(cacheOptPool.submit(() -> {
-                            AbstractSimplexNoiseKernel k = cacheOptKernels.get();
-                            float[] slab = slabsPerThread.get();
-
-                            final int need = W * rows * dz;
-                            if (need > slab.length) {
-                                slab = new float[need];
-                                slabsPerThread.set(slab);
-                            }
-
-                            k.bindOutput(slab);
-                            k.setParameters(
-                                    BX,
-                                    BY + fy * FQ,
-                                    BZ + fz * FQ,
-                                    W, rows, dz,
-                                    FQ,
-                                    0, params.getSeed()
-                            );
-
-                            k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
-                            final Range r3 = Range.create3D(Wv, rows, dz, 1, 1, 1);
-                            k.execute(r3);
-
-                            final int rowStride = W * rows;
-                            for (int z = 0; z < dz; z++) {
-                                final int src = z * rowStride;
-                                final int dst = (fz + z) * plane + fy * W;
-                                System.arraycopy(slab, src, result, dst, rowStride);
-                            }
-                        }));
-                    }
-                }
+                k.execute(Range.create(twv * rows * dz, 1));
+            }
 
-                for (Future<?> f : futures) {
-                    try {
-                        f.get();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException(e);
-                    } catch (ExecutionException e) {
-                        throw new RuntimeException(e);
+            if (!direct) {
+                if (tw == g.W()) {
+                    final int rowStride = tw * rows;
+                    for (int z = 0; z < dz; z++) {
+                        final int dst = (zStart + z) * plane + yStart * g.W();
+                        System.arraycopy(slab, z * rowStride, result, dst, rowStride);
+                    }
+                } else {
+                    int src = 0;
+                    for (int z = 0; z < dz; z++) {
+                        for (int y = 0; y < rows; y++, src += tw) {
+                            final int dst = (zStart + z) * plane + (yStart + y) * g.W() + xStart;
+                            System.arraycopy(slab, src, result, dst, tw);
+                        }
                     }
                 }
             }
+            return slab;
         }
 
         @Override
         public void generate2DNoise1DIndexed(float x0, float y0, float frequency) {
-            final int lod = params.getLodLevel();
+            generate2DTiled(x0, y0, frequency, false);
+        }
+
+        @Override
+        public void generate2DNoise2DIndexed(float x0, float y0, float frequency) {
+            generate2DTiled(x0, y0, frequency, true);
+        }
+
+        private void generate2DTiled(float x0, float y0, float frequency, boolean range2D) {
+            final int lod = lodLevel();
             final var lodMode = params.getLodMode();
             final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lod, lodMode);
 
@@ -471,79 +738,169 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
             final int L = vec ? HardwareUtil.getVectorLaneLength() : 1;
             final int Wv = vec ? (W + L - 1) / L : W;
 
-            final int threads = threads();
-            final long l3 = HardwareUtil.readCaches().l3.sizeBytes();
-            final int rowsPerTask2D = Math.max(8, pickRowsPerTaskL3Aware(W, Float.BYTES, threads, l3));
+            final int rowsPerTask2D = this.rowsPerTask2D[lod];
+            final boolean direct = params.isDirectOutput();
 
             kernel.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
 
-            int maxRows = Math.min(rowsPerTask2D, D);
-            final int needCap = W * maxRows;
-            if (cacheSlab == null || cacheSlab.length < needCap) cacheSlab = new float[needCap];
+            if (direct) {
+                kernel.bindOutput(result);
+            } else {
+                int maxRows = Math.min(rowsPerTask2D, D);
+                final int needCap = W * maxRows;
+                if (cacheSlab == null || cacheSlab.length < needCap) cacheSlab = new float[needCap];
+            }
 
             for (int zStart = 0; zStart < D; zStart += rowsPerTask2D) {
+                checkCancelled();
                 final int rows = Math.min(rowsPerTask2D, D - zStart);
 
-                Arrays.fill(cacheSlab, 0f);
-                kernel.setExplicit(true);
-                kernel.bindOutput(cacheSlab);
+                if (!direct) {
+                    Arrays.fill(cacheSlab, 0f);
+                    kernel.bindOutput(cacheSlab);
+                }
                 kernel.setParameters(
-                        BX, 0f, BZ + zStart * FQ,
+                        BX, 0f, BZ,
                         W, 1, rows,
                         FQ,
-                        0,
+                        direct ? zStart * W : 0,
                         params.getSeed()
                 );
+                kernel.setTileOffset(0, 0, zStart);
 
-                final int elems = Wv * rows;
-                kernel.execute(Range.create(elems, 1));
-                kernel.get(cacheSlab);
+                if (range2D) {
+                    kernel.execute(Range.create2D(Wv, rows, 1, 1));
+                } else {
+                    kernel.execute(Range.create(Wv * rows, 1));
+                }
 
-                System.arraycopy(cacheSlab, 0, result, zStart * W, rows * W);
+                if (!direct) {
+                    System.arraycopy(cacheSlab, 0, result, zStart * W, rows * W);
+                }
             }
         }
 
-        @Override
-        public void generate2DNoise2DIndexed(float x0, float y0, float frequency) {
-            final int lod = params.getLodLevel();
-            final var lodMode = params.getLodMode();
-            final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lod, lodMode);
+        /**
+         * Starts a resumable 3D generation into {@link #getResult()} that is advanced with
+         * {@link GenerationJob#advance(long)}. Produces the same values as
+         * {@link #generate(float, float, float, float)}. The backend must not generate anything else until the job
+         * is done.
+         *
+         * @throws IllegalStateException if the backend interpolates, jobs only run the exact kernel
+         */
+        public GenerationJob startJob(float x0, float y0, float z0, float frequency) {
+            checkNotInterpolating();
+            final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency,
+                    lodLevel(), params.getLodMode());
+            return new GenerationJob(lp.widthLOD(), lp.heightLOD(), lp.depthLOD(), lp.baseX(), lp.baseY(), lp.baseZ(), lp.frequencyLOD());
+        }
 
-            final int W = lp.widthLOD(), D = lp.depthLOD();
-            final float BX = lp.baseX(), BZ = lp.baseZ(), FQ = lp.frequencyLOD();
+        /**
+         * 2D variant of {@link #startJob(float, float, float, float)}.
+         */
+        public GenerationJob startJob(float x0, float y0, float frequency) {
+            checkNotInterpolating();
+            final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency,
+                    lodLevel(), params.getLodMode());
+            return new GenerationJob(lp.widthLOD(), 1, lp.depthLOD(), lp.baseX(), 0f, lp.baseZ(), lp.frequencyLOD());
+        }
 
-            final boolean vec = params.isVectorize();
-            final int L = vec ? HardwareUtil.getVectorLaneLength() : 1;
-            final int Wv = vec ? (W + L - 1) / L : W;
+        private void checkNotInterpolating() {
+            if (params.isInterpolating()) {
+                throw new IllegalStateException("Generation jobs do not support interpolation, use generate()");
+            }
+        }
 
-            final int threads = threads();
-            final long l3 = HardwareUtil.readCaches().l3.sizeBytes();
-            final int rowsPerTask2D = Math.max(8, pickRowsPerTaskL3Aware(W, Float.BYTES, threads, l3));
+        /**
+         * Generation that runs on the calling thread in slices of at most a given time. The volume is split into
+         * z-slabs of one plane and y-blocks of about {@value #JOB_TILE_SAMPLES} samples; the cursor remembers the
+         * next tile, so a slice never costs much more than the budget plus one tile.
+         */
+        public final class GenerationJob {
+            private final int W, H, D;
+            private final float BX, BY, BZ, FQ;
+            private final int rows, yBlocks;
+            private final int tiles;
+            private int cursor;
+
+            private GenerationJob(int W, int H, int D, float BX, float BY, float BZ, float FQ) {
+                this.W = W;
+                this.H = H;
+                this.D = D;
+                this.BX = BX;
+                this.BY = BY;
+                this.BZ = BZ;
+                this.FQ = FQ;
+                // 2D: eine Kachel = mehrere Z-Zeilen, 3D: Y-Block innerhalb einer Z-Ebene
+                this.rows = Math.max(1, Math.min(is3D ? H : D, JOB_TILE_SAMPLES / Math.max(1, W)));
+                this.yBlocks = is3D ? (H + rows - 1) / rows : 1;
+                this.tiles = is3D ? D * yBlocks : (D + rows - 1) / rows;
+            }
 
-            kernel.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+            /**
+             * Computes tiles until {@code budgetNanos} have passed, but at least one.
+             *
+             * @return true once the whole field is generated
+             */
+            public boolean advance(long budgetNanos) {
+                final long start = System.nanoTime();
+                while (cursor < tiles) {
+                    computeJobTile(cursor++);
+                    if (System.nanoTime() - start >= budgetNanos) break;
+                }
+                return isDone();
+            }
 
-            int maxRows = Math.min(rowsPerTask2D, D);
-            final int needCap = W * maxRows;
-            if (cacheSlab == null || cacheSlab.length < needCap) cacheSlab = new float[needCap];
+            private void computeJobTile(int t) {
+                final AbstractSimplexNoiseKernel k = kernel;
+                k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+                k.bindOutput(result);
+                final int L = params.isVectorize() ? HardwareUtil.getVectorLaneLength() : 1;
+                final int Wv = (W + L - 1) / L;
+                if (is3D) {
+                    final int z = t / yBlocks, yStart = (t % yBlocks) * rows;
+                    final int h = Math.min(rows, H - yStart);
+                    k.setParameters(BX, BY, BZ, W, h, 1, FQ, z * W * H + yStart * W, params.getSeed());
+                    k.setTileOffset(0, yStart, z);
+                    k.setOutputStrides(W, W * H);
+                    k.execute(use1DIndexing ? Range.create(Wv * h, 1) : Range.create3D(Wv, h, 1, 1, 1, 1));
+                } else {
+                    final int zStart = t * rows;
+                    final int d = Math.min(rows, D - zStart);
+                    k.setParameters(BX, 0f, BZ, W, 1, d, FQ, zStart * W, params.getSeed());
+                    k.setTileOffset(0, 0, zStart);
+                    k.execute(use1DIndexing ? Range.create(Wv * d, 1) : Range.create2D(Wv, d, 1, 1));
+                }
+            }
 
-            for (int zStart = 0; zStart < D; zStart += rowsPerTask2D) {
-                final int rows = Math.min(rowsPerTask2D, D - zStart);
+            public boolean isDone() {
+                return cursor >= tiles;
+            }
 
-                Arrays.fill(cacheSlab, 0f);
-                kernel.bindOutput(cacheSlab);
-                kernel.setParameters(
-                        BX, 0f, BZ + zStart * FQ,
-                        W, 1, rows,
-                        FQ,
-                        0,
-                        params.getSeed()
-                );
+            /**
+             * Z-slab of the next tile; equals the depth once the job is done.
+             */
+            public int zSlab() {
+                if (isDone()) return D;
+                return is3D ? cursor / yBlocks : cursor * rows;
+            }
 
-                final Range r2 = Range.create2D(Wv, rows, 1, 1);
-                kernel.execute(r2);
-                kernel.get(cacheSlab);
+            /**
+             * First row of the next tile's y-block (always 0 for 2D).
+             */
+            public int yBlock() {
+                return is3D && !isDone() ? (cursor % yBlocks) * rows : 0;
+            }
 
-                System.arraycopy(cacheSlab, 0, result, zStart * W, rows * W);
+            /**
+             * Share of finished tiles in [0, 1].
+             */
+            public float progress() {
+                return tiles == 0 ? 1f : (float) cursor / tiles;
+            }
+
+            public float[] getResult() {
+                return result;
             }
         }
 
@@ -553,7 +910,120 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
         }
     }
 
+    /**
+     * Per-Call Konstanten einer getilten 3D-Generierung (LOD-Dimensionen, Vektorlänge, Basis, Frequenz).
+     */
+    protected record TileGrid(int W, int H, int D, int L, float BX, float BY, float BZ, float FQ, boolean range3D) {
+    }
+
+    /**
+     * Vorberechnete Kachelliste eines W x H x D Rasters in Abarbeitungsreihenfolge.
+     * Pro Kachel werden (x, y, z, w, h, d) hintereinander abgelegt.
+     */
+    protected static final class TilePlan {
+        private final int W, H, D;
+        private final int[] tiles;
+
+        private TilePlan(int W, int H, int D, int[] tiles) {
+            this.W = W;
+            this.H = H;
+            this.D = D;
+            this.tiles = tiles;
+        }
+
+        /**
+         * Z-Slabs außen, Y-Blöcke innen; jede Kachel über die volle Breite.
+         */
+        static TilePlan rowMajor(int W, int H, int D, int rows, int dz) {
+            final int ny = (H + rows - 1) / rows, nz = (D + dz - 1) / dz;
+            final int[] tiles = new int[ny * nz * 6];
+            int o = 0;
+            for (int zStart = 0; zStart < D; zStart += dz) {
+                for (int yStart = 0; yStart < H; yStart += rows) {
+                    tiles[o++] = 0;
+                    tiles[o++] = yStart;
+                    tiles[o++] = zStart;
+                    tiles[o++] = W;
+                    tiles[o++] = Math.min(rows, H - yStart);
+                    tiles[o++] = Math.min(dz, D - zStart);
+                }
+            }
+            return new TilePlan(W, H, D, tiles);
+        }
+
+        /**
+         * Würfelkacheln der Kante {@code edge}, sortiert nach dem Morton-Code ihrer Kachelkoordinaten.
+         */
+        static TilePlan morton(int W, int H, int D, int edge) {
+            final int nx = (W + edge - 1) / edge, ny = (H + edge - 1) / edge, nz = (D + edge - 1) / edge;
+            final int n = nx * ny * nz;
+
+            // (Morton-Code << 32 | lineare Kachelnummer) sortieren
+            final long[] keys = new long[n];
+            int t = 0;
+            for (int tz = 0; tz < nz; tz++) {
+                for (int ty = 0; ty < ny; ty++) {
+                    for (int tx = 0; tx < nx; tx++, t++) {
+                        keys[t] = ((long) morton3(tx, ty, tz) << 32) | t;
+                    }
+                }
+            }
+            Arrays.sort(keys);
+
+            final int[] tiles = new int[n * 6];
+            int o = 0;
+            for (long key : keys) {
+                final int lin = (int) key;
+                final int tx = lin % nx, ty = (lin / nx) % ny, tz = lin / (nx * ny);
+                final int xStart = tx * edge, yStart = ty * edge, zStart = tz * edge;
+                tiles[o++] = xStart;
+                tiles[o++] = yStart;
+                tiles[o++] = zStart;
+                tiles[o++] = Math.min(edge, W - xStart);
+                tiles[o++] = Math.min(edge, H - yStart);
+                tiles[o++] = Math.min(edge, D - zStart);
+            }
+            return new TilePlan(W, H, D, tiles);
+        }
+
+        /**
+         * Verschränkt die unteren 10 Bit von x, y, z zu einem 30-Bit Morton-Code.
+         */
+        static int morton3(int x, int y, int z) {
+            return spreadBits(x) | (spreadBits(y) << 1) | (spreadBits(z) << 2);
+        }
+
+        private static int spreadBits(int v) {
+            v &= 0x3FF;
+            v = (v | (v << 16)) & 0x030000FF;
+            v = (v | (v << 8)) & 0x0300F00F;
+            v = (v | (v << 4)) & 0x030C30C3;
+            v = (v | (v << 2)) & 0x09249249;
+            return v;
+        }
+
+        int count() {
+            return tiles.length / 6;
+        }
+
+        int x(int i) { return tiles[i * 6]; }
+
+        int y(int i) { return tiles[i * 6 + 1]; }
+
+        int z(int i) { return tiles[i * 6 + 2]; }
+
+        int w(int i) { return tiles[i * 6 + 3]; }
+
+        int h(int i) { return tiles[i * 6 + 4]; }
+
+        int d(int i) { return tiles[i * 6 + 5]; }
+    }
+
     public static class Simple extends CPUJavaAparapiNoiseBackend {
+        protected ThreadLocal<AbstractSimplexNoiseKernel> slabKernels;
+
+        private int[] slabDepths;
+
         public Simple(NoiseBackendBuilder.CPUNoiseBackendBuilder params, float[] result, int width, int height, int depth) {
             super(params, result, width, height, depth);
         }
@@ -564,26 +1034,44 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
 
         @Override
         protected AbstractSimplexNoiseKernel setup() {
-            if (use1DIndexing) {
-                this.local1D = 0;
-                this.slabDepth = params.getParallelismMode().equals(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)
-                        ? depth
-                        : Math.min(32, depth); // kleiner Z-Block für JTP
-            } else {
-                // === 3D-Indexing ===
-                // Für SEQ: ganzes Volumen; für JTP: L3-bewusste Z-Slabs
-                this.slabDepth = params.getParallelismMode().equals(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)
-                        ? depth
-                        : pickSlabDepthForL3(width, height, depth, Float.BYTES, threads());
-                // rowsPerTask nicht nötig in Simple (wir kacheln nur in Z)
+            if (use1DIndexing) this.local1D = 0;
+            // Z-Slab-Tiefe je LOD-Level vorberechnen, damit generateLod() nicht neu planen muss
+            this.slabDepths = new int[plannedLodLevels()];
+            for (int l = 0; l < slabDepths.length; l++) {
+                final int[] dims = lodDims(l);
+                slabDepths[l] = pickSlabDepth(dims[0], dims[1], dims[2]);
             }
+            this.slabDepth = slabDepths[params.getLodLevel()];
+            this.slabKernels = ThreadLocal.withInitial(this::createKernel);
             this.kernel = createKernel();
             return this.kernel;
         }
 
+        private int pickSlabDepth(int W, int H, int D) {
+            if (params.getParallelismMode().equals(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)) {
+                return D;
+            }
+            // Z-Slabs werden parallel auf dem NoiseExecutor gerechnet; ~4 Slabs pro Worker zum Ausbalancieren
+            final int balancedDepth = Math.max(1, (D + 4 * executor.parallelism() - 1) / (4 * executor.parallelism()));
+            // 3D-Indexing: L3-bewusste Z-Slabs; rowsPerTask nicht nötig in Simple (wir kacheln nur in Z)
+            return use1DIndexing
+                    ? Math.min(32, balancedDepth)
+                    : Math.min(pickSlabDepthForL3(W, H, D, Float.BYTES, threads()), balancedDepth);
+        }
+
+        /**
+         * Kernel des aktuellen Worker-Threads, sequentiell und an {@code result} gebunden.
+         */
+        private AbstractSimplexNoiseKernel slabKernel() {
+            AbstractSimplexNoiseKernel k = slabKernels.get();
+            k.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+            k.bindOutput(result);
+            return k;
+        }
+
         @Override
         public void generate3DNoise1DIndexed(float x0, float y0, float z0, float frequency) {
-            final int lod = params.getLodLevel();
+            final int lod = lodLevel();
             final var lodMode = params.getLodMode();
             final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lod, lodMode);
 
@@ -602,25 +1090,28 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
                 final int global = Wv * H * D;
                 kernel.execute(Range.create(global, 1));
             } else {
-                kernel.setExecutionMode(Kernel.EXECUTION_MODE.JTP);
-                for (int zStart = 0; zStart < D; zStart += slabDepth) {
-                    final int dz = Math.min(slabDepth, D - zStart);
-                    final int global = Wv * H * dz;
-
-                    kernel.setParameters(
-                            BX, BY, BZ + zStart * FQ,
+                final int slab = slabDepths[lod];
+                final int slabs = (D + slab - 1) / slab;
+                executor.invokeAll(slabs, s -> {
+                    final int zStart = s * slab;
+                    final int dz = Math.min(slab, D - zStart);
+                    final AbstractSimplexNoiseKernel k = slabKernel();
+
+                    k.setParameters(
+                            BX, BY, BZ,
                             W, H, dz,
                             FQ,
                             zStart * plane, params.getSeed()
                     );
-                    kernel.execute(Range.create(global));
-                }
+                    k.setTileOffset(0, 0, zStart);
+                    k.execute(Range.create(Wv * H * dz, 1));
+                });
             }
         }
 
         @Override
         public void generate3DNoise3DIndexed(float x0, float y0, float z0, float frequency) {
-            final int lod = params.getLodLevel();
+            final int lod = lodLevel();
             final var lodMode = params.getLodMode();
             final LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lod, lodMode);
 
@@ -639,25 +1130,29 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
                 final Range r3 = Range.create3D(Wv, H, D, 1, 1, 1);
                 kernel.execute(r3);
             } else {
-                kernel.setExecutionMode(Kernel.EXECUTION_MODE.JTP);
                 final int plane = W * H;
-                for (int zStart = 0; zStart < D; zStart += slabDepth) {
-                    final int dz = Math.min(slabDepth, D - zStart);
-                    kernel.setParameters(
-                            BX, BY, BZ + zStart * FQ,
+                final int slab = slabDepths[lod];
+                final int slabs = (D + slab - 1) / slab;
+                executor.invokeAll(slabs, s -> {
+                    final int zStart = s * slab;
+                    final int dz = Math.min(slab, D - zStart);
+                    final AbstractSimplexNoiseKernel k = slabKernel();
+
+                    k.setParameters(
+                            BX, BY, BZ,
                             W, H, dz,
                             FQ,
                             zStart * plane, params.getSeed()
                     );
-                    final Range r3 = Range.create3D(Wv, H, dz);
-                    kernel.execute(r3);
-                }
+                    k.setTileOffset(0, 0, zStart);
+                    k.execute(Range.create3D(Wv, H, dz, 1, 1, 1));
+                });
             }
         }
 
         @Override
         public void generate2DNoise1DIndexed(float x0, float y0, float frequency) {
-            final int lod = params.getLodLevel();
+            final int lod = lodLevel();
             final var lodMode = params.getLodMode();
             final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lod, lodMode);
 
@@ -676,24 +1171,27 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
                 final int global = Wv * D;
                 kernel.execute(Range.create(global, 1));
             } else {
-                kernel.setExecutionMode(Kernel.EXECUTION_MODE.JTP);
                 final int dzBlock = Math.min(64, D);
-                for (int zStart = 0; zStart < D; zStart += dzBlock) {
+                final int blocks = (D + dzBlock - 1) / dzBlock;
+                executor.invokeAll(blocks, b -> {
+                    final int zStart = b * dzBlock;
                     final int dz = Math.min(dzBlock, D - zStart);
-                    kernel.setParameters(BX, 0f, BZ + zStart * FQ,
+                    final AbstractSimplexNoiseKernel k = slabKernel();
+
+                    k.setParameters(BX, 0f, BZ,
                             W, 1, dz,
                             FQ,
                             zStart * W,
                             params.getSeed());
-                    final int global = Wv * dz;
-                    kernel.execute(Range.create(global));
-                }
+                    k.setTileOffset(0, 0, zStart);
+                    k.execute(Range.create(Wv * dz, 1));
+                });
             }
         }
 
         @Override
         public void generate2DNoise2DIndexed(float x0, float y0, float frequency) {
-            final int lod = params.getLodLevel();
+            final int lod = lodLevel();
             final var lodMode = params.getLodMode();
             final LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lod, lodMode);
 
@@ -712,18 +1210,21 @@ public abstract class CPUJavaAparapiNoiseBackend extends AparapiNoiseBackend<Abs
                 final Range r2 = Range.create2D(Wv, D, 1, 1);
                 kernel.execute(r2);
             } else {
-                kernel.setExecutionMode(Kernel.EXECUTION_MODE.JTP);
                 final int dzBlock = Math.min(64, D);
-                for (int zStart = 0; zStart < D; zStart += dzBlock) {
+                final int blocks = (D + dzBlock - 1) / dzBlock;
+                executor.invokeAll(blocks, b -> {
+                    final int zStart = b * dzBlock;
                     final int dz = Math.min(dzBlock, D - zStart);
-                    kernel.setParameters(BX, 0f, BZ + zStart * FQ,
+                    final AbstractSimplexNoiseKernel k = slabKernel();
+
+                    k.setParameters(BX, 0f, BZ,
                             W, 1, dz,
                             FQ,
                             zStart * W,
                             params.getSeed());
-                    final Range r2 = Range.create2D(Wv, dz);
-                    kernel.execute(r2);
-                }
+                    k.setTileOffset(0, 0, zStart);
+                    k.execute(Range.create2D(Wv, dz, 1, 1));
+                });
             }
         }
 
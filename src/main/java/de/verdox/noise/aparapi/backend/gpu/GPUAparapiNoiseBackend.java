@@ -16,6 +16,7 @@ import java.util.List;
 
 public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNoiseKernel> extends AparapiNoiseBackend<KERNEL> {
     protected final NoiseBackendBuilder.GPUNoiseBackendBuilder params;
+    protected CPUScalarSimplexNoiseKernel.MultiChunk batchKernel;
 
     public GPUAparapiNoiseBackend(OpenCLDevice preferredDevice, NoiseBackendBuilder.GPUNoiseBackendBuilder params, float[] result, int width, int height, int depth) {
         super(preferredDevice, params.getNoiseCalculationMode(), result, width, height, depth);
@@ -27,6 +28,11 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
         this.params = params;
     }
 
+    @Override
+    protected NoiseBackendBuilder<?> builder() {
+        return params;
+    }
+
     @Override
     public void logSetup() {
         OpenCLDevice dev = (OpenCLDevice) preferredDevice;
@@ -73,12 +79,71 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
         System.out.println("================================");
     }
 
+    /**
+     * Alle Chunks eines Batches in einem einzigen Launch: ein {@link CPUScalarSimplexNoiseKernel.MultiChunk}-Kernel
+     * bekommt die LOD-Basen aller Chunks und schreibt direkt nach {@code out}.
+     */
+    @Override
+    public void generateBatch(float[] origins, int count, float frequency, float[] out, int stride) {
+        checkBatch(origins, count, out, stride);
+        if (count == 0) return;
+
+        final int lod = lodLevel();
+        final var lodMode = params.getLodMode();
+        final float[] bases = new float[count * 3];
+        int W = 0, H = 1, D = 0;
+        float FQ = 0;
+        for (int c = 0; c < count; c++) {
+            if (is3D) {
+                LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, origins[c * 3], origins[c * 3 + 1], origins[c * 3 + 2], frequency, lod, lodMode);
+                bases[c * 3] = lp.baseX();
+                bases[c * 3 + 1] = lp.baseY();
+                bases[c * 3 + 2] = lp.baseZ();
+                W = lp.widthLOD(); H = lp.heightLOD(); D = lp.depthLOD(); FQ = lp.frequencyLOD();
+            } else {
+                LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, origins[c * 3], origins[c * 3 + 2], frequency, lod, lodMode);
+                bases[c * 3] = lp.baseX();
+                bases[c * 3 + 2] = lp.baseZ();
+                W = lp.widthLOD(); D = lp.depthLOD(); FQ = lp.frequencyLOD();
+            }
+        }
+        if (stride < W * H * D) {
+            throw new IllegalArgumentException("stride " + stride + " is smaller than a chunk (" + W * H * D + ")");
+        }
+
+        if (batchKernel == null) {
+            batchKernel = is3D
+                    ? new CPUScalarSimplexNoiseKernel.MultiChunk.Noise3D(calculationMode)
+                    : new CPUScalarSimplexNoiseKernel.MultiChunk.Noise2D(calculationMode);
+        }
+        final CPUScalarSimplexNoiseKernel.MultiChunk k = batchKernel;
+        k.setExplicit(true);
+        k.bindOutput(out);
+        k.setParameters(0f, 0f, 0f, W, H, D, FQ, 0, params.getSeed());
+        k.setChunks(bases, count, stride);
+        k.put(bases);
+        k.execute(preferredDevice.createRange(count * W * H * D));
+        k.get(out);
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (batchKernel != null) {
+            batchKernel.dispose();
+            batchKernel = null;
+        }
+    }
+
     /**
      * The simple way. Passes one big buffer to the gpu and lets it calculate the rest.
      */
     public static class Simple extends GPUAparapiNoiseBackend<CPUScalarSimplexNoiseKernel.Simple> {
         protected OpenCLTuner.Plan plan;
         protected Range range;
+        // je LOD-Level, im setup() vorberechnet; plan/range sind die des konfigurierten Levels
+        protected OpenCLTuner.Plan[] plans;
+        protected Range[] ranges;
 
         public Simple(OpenCLDevice preferredDevice, NoiseBackendBuilder.GPUNoiseBackendBuilder params, float[] result, int width, int height, int depth) {
             super(preferredDevice, params, result, width, height, depth);
@@ -90,57 +155,59 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
 
         @Override
         protected CPUScalarSimplexNoiseKernel.Simple setup() {
-            // LOD ist fix → Range einmalig mit LOD-Dimensionen planen
-            final int lod = params.getLodLevel();
-            final var lodMode = params.getLodMode();
-
-            if (params.is3DMode()) {
-                LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, 0f, 0f, 0f, 1f, lod, lodMode);
-                plan  = OpenCLTuner.plan((OpenCLDevice) preferredDevice,
-                        lp.widthLOD(), lp.heightLOD(), lp.depthLOD(),
-                        /*prefer3D*/ !use1DIndexing,
-                        /*align*/ true);
-            } else {
-                LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, 0f, 0f, 1f, lod, lodMode);
-                plan  = OpenCLTuner.plan2D((OpenCLDevice) preferredDevice,
-                        lp.widthLOD(), lp.depthLOD(),
-                        /*prefer2D*/ !use1DIndexing,
-                        /*align*/ true);
+            // Plan & Range für jedes LOD-Level einmalig planen; gleiche Dimensionen teilen sich den Plan
+            final OpenCLDevice dev = (OpenCLDevice) preferredDevice;
+            plans = new OpenCLTuner.Plan[plannedLodLevels()];
+            ranges = new Range[plans.length];
+            int[] prev = null;
+            for (int l = 0; l < plans.length; l++) {
+                final int[] dims = lodDims(l);
+                if (prev != null && Arrays.equals(prev, dims)) {
+                    plans[l] = plans[l - 1];
+                    ranges[l] = ranges[l - 1];
+                    continue;
+                }
+                plans[l] = params.is3DMode()
+                        ? OpenCLTuner.plan(dev, dims[0], dims[1], dims[2], /*prefer3D*/ !use1DIndexing, /*align*/ true)
+                        : OpenCLTuner.plan2D(dev, dims[0], dims[2], /*prefer2D*/ !use1DIndexing, /*align*/ true);
+                ranges[l] = plans[l].toRange();
+                prev = dims;
             }
-            range = plan.toRange();
+            plan = plans[params.getLodLevel()];
+            range = ranges[params.getLodLevel()];
             this.kernel = createKernel();
             return this.kernel;
         }
 
         @Override
         public void generate3DNoise1DIndexed(float x0, float y0, float z0, float frequency) {
-            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, params.getLodLevel(), params.getLodMode());
+            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel(), params.getLodMode());
             kernel.setExplicit(true);
             kernel.bindOutput(result);
             kernel.setParameters(lp.baseX(), lp.baseY(), lp.baseZ(),
                     lp.widthLOD(), lp.heightLOD(), lp.depthLOD(),
                     lp.frequencyLOD(),
                     0, params.getSeed());
-            kernel.execute(range); // Range wurde im setup() mit LOD-Dims geplant
+            kernel.execute(ranges[lodLevel()]); // Range wurde im setup() mit LOD-Dims geplant
             kernel.get(result);
         }
 
         @Override
         public void generate3DNoise3DIndexed(float x0, float y0, float z0, float frequency) {
-            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, params.getLodLevel(), params.getLodMode());
+            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel(), params.getLodMode());
             kernel.setExplicit(true);
             kernel.bindOutput(result);
             kernel.setParameters(lp.baseX(), lp.baseY(), lp.baseZ(),
                     lp.widthLOD(), lp.heightLOD(), lp.depthLOD(),
                     lp.frequencyLOD(),
                     0, params.getSeed());
-            kernel.execute(range);
+            kernel.execute(ranges[lodLevel()]);
             kernel.get(result);
         }
 
         @Override
         public void generate2DNoise1DIndexed(float x0, float y0, float frequency) {
-            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, params.getLodLevel(), params.getLodMode());
+            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lodLevel(), params.getLodMode());
             kernel.setExplicit(true);
             kernel.bindOutput(result);
             kernel.setParameters(
@@ -152,13 +219,13 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
                     /*baseIndex*/ 0,
                     params.getSeed()
             );
-            kernel.execute(range);
+            kernel.execute(ranges[lodLevel()]);
             kernel.get(result);
         }
 
         @Override
         public void generate2DNoise2DIndexed(float x0, float y0, float frequency) {
-            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, params.getLodLevel(), params.getLodMode());
+            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lodLevel(), params.getLodMode());
             kernel.setExplicit(true);
             kernel.bindOutput(result);
             kernel.setParameters(
@@ -170,7 +237,7 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
                     0,
                     params.getSeed()
             );
-            kernel.execute(range);
+            kernel.execute(ranges[lodLevel()]);
             kernel.get(result);
         }
 
@@ -190,7 +257,8 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
 
     public static class Batched extends GPUAparapiNoiseBackend<CPUScalarSimplexNoiseKernel.Batched> {
         public static final int TILE = 256;
-        private final List<Tile> tiles = new ArrayList<>();
+        // Tiles je LOD-Level, im setup() vorberechnet
+        private final List<List<Tile>> tilesByLod = new ArrayList<>();
 
         public Batched(OpenCLDevice preferredDevice, NoiseBackendBuilder.GPUNoiseBackendBuilder params, float[] result, int width, int height, int depth) {
             super(preferredDevice, params, result, width, height, depth);
@@ -207,15 +275,21 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
             kernel.setExplicit(true);
             kernel.bindOutput(result); // write-only → kein put()
 
-            // Tiles anhand der LOD-Dimensionen erzeugen
-            final int lod = params.getLodLevel();
-            final var lodMode = params.getLodMode();
-
-            tiles.clear();
+            // Tiles für jedes LOD-Level anhand der LOD-Dimensionen erzeugen
+            tilesByLod.clear();
+            for (int l = 0; l < plannedLodLevels(); l++) {
+                tilesByLod.add(planTiles(lodDims(l)));
+            }
+            return this.kernel;
+        }
 
+        /**
+         * Zerlegt ein Volumen mit den LOD-Dimensionen {@code dims} in Tiles mit fertig geplanten Ranges.
+         */
+        private List<Tile> planTiles(int[] dims) {
+            final List<Tile> tiles = new ArrayList<>();
             if (params.is3DMode()) {
-                LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(width, height, depth, 0f, 0f, 0f, 1f, lod, lodMode);
-                final int W = lp.widthLOD(), H = lp.heightLOD(), D = lp.depthLOD();
+                final int W = dims[0], H = dims[1], D = dims[2];
 
                 for (int zBase = 0; zBase < D; zBase += TILE) {
                     int td = Math.min(TILE, D - zBase);
@@ -234,8 +308,7 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
                     }
                 }
             } else {
-                LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(width, depth, 0f, 0f, 1f, lod, lodMode);
-                final int W = lp.widthLOD(), D = lp.depthLOD();
+                final int W = dims[0], D = dims[2];
 
                 for (int zBase = 0; zBase < D; zBase += TILE) {
                     int td = Math.min(TILE, D - zBase);
@@ -251,7 +324,7 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
                     }
                 }
             }
-            return this.kernel;
+            return tiles;
         }
 
         @Override
@@ -267,19 +340,16 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
 
         @Override
         public void generate3DNoise1DIndexed(float x0, float y0, float z0, float frequency) {
-            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, params.getLodLevel(), params.getLodMode());
+            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel(), params.getLodMode());
             // globalWidth/-Height für den Batched-Kernel gemäß LOD-Dims
             if (kernel instanceof CPUScalarSimplexNoiseKernel.Batched k) {
                 k.globalWidth = lp.widthLOD();
                 k.globalHeight = lp.heightLOD();
             }
 
-            for (Tile t : tiles) {
-                float bx = lp.baseX() + t.bx * lp.frequencyLOD();
-                float by = lp.baseY() + t.by * lp.frequencyLOD();
-                float bz = lp.baseZ() + t.bz * lp.frequencyLOD();
-
-                kernel.setParameters(bx, by, bz, t.tw, t.th, t.td, lp.frequencyLOD(), t.baseIndex, params.getSeed());
+            for (Tile t : tilesByLod.get(lodLevel())) {
+                kernel.setParameters(lp.baseX(), lp.baseY(), lp.baseZ(), t.tw, t.th, t.td, lp.frequencyLOD(), t.baseIndex, params.getSeed());
+                kernel.setTileOffset(t.bx, t.by, t.bz);
                 kernel.execute(t.range);
             }
             kernel.get(result);
@@ -287,18 +357,15 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
 
         @Override
         public void generate3DNoise3DIndexed(float x0, float y0, float z0, float frequency) {
-            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, params.getLodLevel(), params.getLodMode());
+            final var lp = LODUtil.computeLOD3D(width, height, depth, x0, y0, z0, frequency, lodLevel(), params.getLodMode());
             if (kernel instanceof CPUScalarSimplexNoiseKernel.Batched k) {
                 k.globalWidth = lp.widthLOD();
                 k.globalHeight = lp.heightLOD();
             }
 
-            for (Tile t : tiles) {
-                float bx = lp.baseX() + t.bx * lp.frequencyLOD();
-                float by = lp.baseY() + t.by * lp.frequencyLOD();
-                float bz = lp.baseZ() + t.bz * lp.frequencyLOD();
-
-                kernel.setParameters(bx, by, bz, t.tw, t.th, t.td, lp.frequencyLOD(), t.baseIndex, params.getSeed());
+            for (Tile t : tilesByLod.get(lodLevel())) {
+                kernel.setParameters(lp.baseX(), lp.baseY(), lp.baseZ(), t.tw, t.th, t.td, lp.frequencyLOD(), t.baseIndex, params.getSeed());
+                kernel.setTileOffset(t.bx, t.by, t.bz);
                 kernel.execute(t.range);
             }
             kernel.get(result);
@@ -306,21 +373,19 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
 
         @Override
         public void generate2DNoise1DIndexed(float x0, float y0, float frequency) {
-            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, params.getLodLevel(), params.getLodMode());
-
-            for (Tile t : tiles) {
-                float bx = lp.baseX() + t.bx * lp.frequencyLOD();
-                float bz = lp.baseZ() + t.bz * lp.frequencyLOD();
+            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lodLevel(), params.getLodMode());
 
+            for (Tile t : tilesByLod.get(lodLevel())) {
                 kernel.setParameters(
-                        bx,
+                        lp.baseX(),
                         0f,
-                        bz,
+                        lp.baseZ(),
                         t.tw, /*height*/ t.th, /*depth*/ t.td,  // th ist 1
                         lp.frequencyLOD(),
                         t.baseIndex,
                         params.getSeed()
                 );
+                kernel.setTileOffset(t.bx, 0, t.bz);
                 kernel.execute(t.range);
             }
             kernel.get(result);
@@ -328,21 +393,19 @@ public abstract class GPUAparapiNoiseBackend<KERNEL extends CPUScalarSimplexNois
 
         @Override
         public void generate2DNoise2DIndexed(float x0, float y0, float frequency) {
-            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, params.getLodLevel(), params.getLodMode());
-
-            for (Tile t : tiles) {
-                float bx = lp.baseX() + t.bx * lp.frequencyLOD();
-                float bz = lp.baseZ() + t.bz * lp.frequencyLOD();
+            final var lp = LODUtil.computeLOD2D(width, depth, x0, y0, frequency, lodLevel(), params.getLodMode());
 
+            for (Tile t : tilesByLod.get(lodLevel())) {
                 kernel.setParameters(
-                        bx,
+                        lp.baseX(),
                         0f,
-                        bz,
+                        lp.baseZ(),
                         t.tw, /*height*/ t.th, /*depth*/ t.td,
                         lp.frequencyLOD(),
                         t.baseIndex,
                         params.getSeed()
                 );
+                kernel.setTileOffset(t.bx, 0, t.bz);
                 kernel.execute(t.range);
             }
             kernel.get(result);
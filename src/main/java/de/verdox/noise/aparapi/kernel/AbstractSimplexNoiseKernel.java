@@ -17,6 +17,12 @@ public abstract class AbstractSimplexNoiseKernel extends Kernel {
 
     public float baseX, baseY, baseZ, frequency;
     public int gridWidth, gridHeight, gridDepth, baseIndex;
+    // Ziel-Strides (in Elementen) für y bzw. z; setParameters() setzt sie dicht gepackt
+    public int rowStride, planeStride;
+    // Sample-Offset der Kachel im Gesamtraster; Koordinate = base + (offset + lokal) * frequency
+    public int offsetX, offsetY, offsetZ;
+    // Sample-Schrittweite (nur Simple-Kernel); Koordinate = base + (offset + lokal * step) * frequency
+    public int stepX = 1, stepY = 1, stepZ = 1;
 
     public final int noiseCalcMode;
 
@@ -100,9 +106,42 @@ public abstract class AbstractSimplexNoiseKernel extends Kernel {
         this.baseX = x0; this.baseY = y0; this.baseZ = z0;
         this.gridWidth = width; this.gridHeight = height; this.gridDepth = depth;
         this.frequency = frequency; this.baseIndex = baseIndex;
+        this.rowStride = width; this.planeStride = width * height;
+        this.offsetX = 0; this.offsetY = 0; this.offsetZ = 0;
+        this.stepX = 1; this.stepY = 1; this.stepZ = 1;
         this.setSeed(seed);
     }
 
+    /**
+     * Setzt den ganzzahligen Sample-Offset einer Kachel. Die Koordinaten werden so unabhängig von der Kachelung
+     * bitgleich berechnet. Muss nach setParameters() gerufen werden.
+     */
+    public void setTileOffset(int offsetX, int offsetY, int offsetZ) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+    }
+
+    /**
+     * Berechnet nur jedes {@code step}-te Sample des Rasters (pro Achse), dicht gepackt in die Ausgabe. Der
+     * Sample-Index bleibt ganzzahlig, die Werte sind daher bitgleich zu den entsprechenden Samples des vollen
+     * Rasters. Muss nach setParameters() gerufen werden.
+     */
+    public void setSampleStep(int stepX, int stepY, int stepZ) {
+        this.stepX = stepX;
+        this.stepY = stepY;
+        this.stepZ = stepZ;
+    }
+
+    /**
+     * Überschreibt die dicht gepackten Strides aus {@link #setParameters}, damit eine Kachel
+     * über baseIndex direkt in ein größeres Feld geschrieben werden kann. Muss nach setParameters() gerufen werden.
+     */
+    public void setOutputStrides(int rowStride, int planeStride) {
+        this.rowStride = rowStride;
+        this.planeStride = planeStride;
+    }
+
     // ===================== Seeding =====================
 
     public void setSeed(long newSeed) {
@@ -45,9 +45,9 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
 
                 int idx = baseIndex + x + y * globalWidth + z * globalWidth * globalHeight; // x-major
 
-                float xin = (baseX + x) * frequency;
-                float yin = (baseY + y) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x) * frequency;
+                float yin = baseY + (offsetY + y) * frequency;
+                float zin = baseZ + (offsetZ + z) * frequency;
 
                 calculate3DNoise(idx, xin, yin, zin);
             }
@@ -69,9 +69,9 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
 
                 int idx = baseIndex + x + y * globalWidth + z * globalWidth * globalHeight; // x-major
 
-                float xin = (baseX + x) * frequency;
-                float yin = (baseY + y) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x) * frequency;
+                float yin = baseY + (offsetY + y) * frequency;
+                float zin = baseZ + (offsetZ + z) * frequency;
 
                 calculate3DNoise(idx, xin, yin, zin);
             }
@@ -95,8 +95,8 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
 
                 int idx = baseIndex + x + z * globalWidth; // x-major (Zeilen = depth)
 
-                float xin = (baseX + x) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x) * frequency;
+                float zin = baseZ + (offsetZ + z) * frequency;
 
                 calculate2DNoise(idx, xin, zin);
             }
@@ -117,8 +117,8 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
 
                 int idx = baseIndex + x + z * globalWidth;
 
-                float xin = (baseX + x) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x) * frequency;
+                float zin = baseZ + (offsetZ + z) * frequency;
 
                 calculate2DNoise(idx, xin, zin);
             }
@@ -144,11 +144,11 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 int y = (i / gridWidth) % gridHeight;
                 int z = i / (gridWidth * gridHeight);
 
-                int idx = baseIndex + i;
+                int idx = baseIndex + x + y * rowStride + z * planeStride;
 
-                float xin = (baseX + x) * frequency;
-                float yin = (baseY + y) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x * stepX) * frequency;
+                float yin = baseY + (offsetY + y * stepY) * frequency;
+                float zin = baseZ + (offsetZ + z * stepZ) * frequency;
 
                 calculate3DNoise(idx, xin, yin, zin);
             }
@@ -165,12 +165,11 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 int y = getGlobalId(1);
                 int z = getGlobalId(2);
 
-                int li = (z * gridHeight + y) * gridWidth + x; // lokal, dicht gepackt
-                int idx = baseIndex + li;
+                int idx = baseIndex + x + y * rowStride + z * planeStride; // dicht gepackt, außer Strides wurden gesetzt
 
-                float xin = (baseX + x) * frequency;
-                float yin = (baseY + y) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x * stepX) * frequency;
+                float yin = baseY + (offsetY + y * stepY) * frequency;
+                float zin = baseZ + (offsetZ + z * stepZ) * frequency;
 
                 calculate3DNoise(idx, xin, yin, zin);
             }
@@ -192,11 +191,10 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 int x = i % gridWidth;
                 int z = i / gridWidth;
 
-                int li = z * gridWidth + x; // lokal: x-major
-                int idx = baseIndex + li;
+                int idx = baseIndex + x + z * planeStride; // lokal: x-major
 
-                float xin = (baseX + x) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x * stepX) * frequency;
+                float zin = baseZ + (offsetZ + z * stepZ) * frequency;
 
                 calculate2DNoise(idx, xin, zin);
             }
@@ -215,11 +213,86 @@ public abstract class CPUScalarSimplexNoiseKernel extends AbstractSimplexNoiseKe
 
                 if (x >= gridWidth || z >= gridDepth) return;
 
-                int li = z * gridWidth + x; // lokal: x-major
-                int idx = baseIndex + li;
+                int idx = baseIndex + x + z * planeStride; // lokal: x-major
 
-                float xin = (baseX + x) * frequency;
-                float zin = (baseZ + z) * frequency;
+                float xin = baseX + (offsetX + x * stepX) * frequency;
+                float zin = baseZ + (offsetZ + z * stepZ) * frequency;
+
+                calculate2DNoise(idx, xin, zin);
+            }
+        }
+    }
+
+    // ==================== MultiChunk ====================
+    /**
+     * Mehrere gleich große Chunks in einem Launch (1D-Grid). Chunk c liegt dicht gepackt ab {@code c * chunkStride},
+     * seine LOD-Basis steht in {@code chunkBase[3c..3c+2]}; baseX/Y/Z werden nicht benutzt.
+     */
+    public abstract static class MultiChunk extends CPUScalarSimplexNoiseKernel {
+        public float[] chunkBase = {0, 0, 0};
+        public int chunkCount, chunkStride;
+
+        public MultiChunk(NoiseBackendBuilder.NoiseCalculationMode noiseCalculationMode) {
+            super(noiseCalculationMode);
+        }
+
+        /**
+         * Muss nach setParameters() gerufen werden; gridWidth/Height/Depth beschreiben einen einzelnen Chunk.
+         */
+        public void setChunks(float[] chunkBase, int chunkCount, int chunkStride) {
+            this.chunkBase = chunkBase;
+            this.chunkCount = chunkCount;
+            this.chunkStride = chunkStride;
+        }
+
+        public static class Noise3D extends MultiChunk {
+            public Noise3D(NoiseBackendBuilder.NoiseCalculationMode noiseCalculationMode) {
+                super(noiseCalculationMode);
+            }
+
+            @Override
+            public void run() {
+                int i = getGlobalId(0);
+                int n = gridWidth * gridHeight * gridDepth;
+                int c = i / n;
+                if (c >= chunkCount) return; // gepaddete Range
+
+                int r = i - c * n;
+                int x = r % gridWidth;
+                int y = (r / gridWidth) % gridHeight;
+                int z = r / (gridWidth * gridHeight);
+
+                int idx = baseIndex + c * chunkStride + x + y * rowStride + z * planeStride;
+
+                float xin = chunkBase[c * 3] + (offsetX + x) * frequency;
+                float yin = chunkBase[c * 3 + 1] + (offsetY + y) * frequency;
+                float zin = chunkBase[c * 3 + 2] + (offsetZ + z) * frequency;
+
+                calculate3DNoise(idx, xin, yin, zin);
+            }
+        }
+
+        /** 2D (x,z): gridHeight ist 1 */
+        public static class Noise2D extends MultiChunk {
+            public Noise2D(NoiseBackendBuilder.NoiseCalculationMode noiseCalculationMode) {
+                super(noiseCalculationMode);
+            }
+
+            @Override
+            public void run() {
+                int i = getGlobalId(0);
+                int n = gridWidth * gridDepth;
+                int c = i / n;
+                if (c >= chunkCount) return;
+
+                int r = i - c * n;
+                int x = r % gridWidth;
+                int z = r / gridWidth;
+
+                int idx = baseIndex + c * chunkStride + x + z * planeStride;
+
+                float xin = chunkBase[c * 3] + (offsetX + x) * frequency;
+                float zin = chunkBase[c * 3 + 2] + (offsetZ + z) * frequency;
 
                 calculate2DNoise(idx, xin, zin);
             }
@@ -46,6 +46,8 @@ public abstract class CPUVectorSimplexNoiseKernel extends AbstractSimplexNoiseKe
     protected FloatVector V_Y0;
     protected FloatVector V_Z0;
     protected FloatVector V_LANE;
+    // Lane-Offsets in X, mit stepX skaliert
+    protected FloatVector V_LANE_X;
     protected IntVector  I_SEED;  // neu: Seed für Hash
 
     public CPUVectorSimplexNoiseKernel(NoiseBackendBuilder.NoiseCalculationMode noiseCalculationMode) {
@@ -62,6 +64,13 @@ public abstract class CPUVectorSimplexNoiseKernel extends AbstractSimplexNoiseKe
         V_Y0   = FloatVector.broadcast(SF, baseY);
         V_Z0   = FloatVector.broadcast(SF, baseZ);
         I_SEED = IntVector.broadcast(SI, (int) seed); // neu
+        V_LANE_X = V_LANE;
+    }
+
+    @Override
+    public void setSampleStep(int stepX, int stepY, int stepZ) {
+        super.setSampleStep(stepX, stepY, stepZ);
+        V_LANE_X = V_LANE.mul((float) stepX);
     }
 
     // ========================= Simple (vektorisiert) =========================
@@ -95,11 +104,11 @@ public abstract class CPUVectorSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 final int x = xb * L;
 
                 // Basisindex der Zeile (x-major)
-                final int base = baseIndex + (z * H + y) * W;
+                final int base = baseIndex + z * planeStride + y * rowStride;
 
-                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) x).add(V_LANE).mul(V_FREQ));
-                final FloatVector vYin = V_Y0.add(FloatVector.broadcast(SF, (float) y).mul(V_FREQ));
-                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) z).mul(V_FREQ));
+                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) (offsetX + x * stepX)).add(V_LANE_X).mul(V_FREQ));
+                final FloatVector vYin = V_Y0.add(FloatVector.broadcast(SF, (float) (offsetY + y * stepY)).mul(V_FREQ));
+                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) (offsetZ + z * stepZ)).mul(V_FREQ));
 
                 // Skew / Unskew (3D)
                 final FloatVector s = vXin.add(vYin).add(vZin).mul(V_1_3);
@@ -234,11 +243,11 @@ public abstract class CPUVectorSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 final int x = xb * L;
                 if (x >= W) return;
 
-                final int base = baseIndex + (z * H + y) * W;
+                final int base = baseIndex + z * planeStride + y * rowStride;
 
-                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) x).add(V_LANE).mul(V_FREQ));
-                final FloatVector vYin = V_Y0.add(FloatVector.broadcast(SF, (float) y).mul(V_FREQ));
-                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) z).mul(V_FREQ));
+                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) (offsetX + x * stepX)).add(V_LANE_X).mul(V_FREQ));
+                final FloatVector vYin = V_Y0.add(FloatVector.broadcast(SF, (float) (offsetY + y * stepY)).mul(V_FREQ));
+                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) (offsetZ + z * stepZ)).mul(V_FREQ));
 
                 final FloatVector s  = vXin.add(vYin).add(vZin).mul(V_1_3);
                 final FloatVector xiS = vXin.add(s);
@@ -373,10 +382,10 @@ public abstract class CPUVectorSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 final int xb = gid - z * Wv;
                 final int x  = xb * L;
 
-                final int base = baseIndex + z * W;
+                final int base = baseIndex + z * planeStride;
 
-                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) x).add(V_LANE).mul(V_FREQ));
-                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) z).mul(V_FREQ));
+                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) (offsetX + x * stepX)).add(V_LANE_X).mul(V_FREQ));
+                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) (offsetZ + z * stepZ)).mul(V_FREQ));
 
                 // 2D Skew/Unskew (X,Z)
                 final FloatVector s  = vXin.add(vZin).mul(V_F2);
@@ -461,10 +470,10 @@ public abstract class CPUVectorSimplexNoiseKernel extends AbstractSimplexNoiseKe
                 final int x = xb * L;
                 if (x >= W) return;
 
-                final int base = baseIndex + z * W;
+                final int base = baseIndex + z * planeStride;
 
-                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) x).add(V_LANE).mul(V_FREQ));
-                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) z).mul(V_FREQ));
+                final FloatVector vXin = V_X0.add(FloatVector.broadcast(SF, (float) (offsetX + x * stepX)).add(V_LANE_X).mul(V_FREQ));
+                final FloatVector vZin = V_Z0.add(FloatVector.broadcast(SF, (float) (offsetZ + z * stepZ)).mul(V_FREQ));
 
                 // 2D Skew/Unskew
                 final FloatVector s  = vXin.add(vZin).mul(V_F2);
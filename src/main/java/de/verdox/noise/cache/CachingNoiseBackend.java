@@ -0,0 +1,85 @@
+package de.verdox.noise.cache;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseKey;
+
+/**
+ * Puts a {@link ChunkCache} ({@link OffHeapChunkCache}, {@link SharedMemoryChunkCache}) in front of another
+ * backend. A hit copies the cached chunk into the result array, a miss generates with the wrapped backend and
+ * stores the result. Both backends share the same result array, so the wrapper can be used wherever the wrapped
+ * backend was used before.
+ */
+public class CachingNoiseBackend extends NoiseBackend {
+    private final NoiseBackend delegate;
+    private final NoiseBackendBuilder<?> config;
+    private final ChunkCache cache;
+    private final int fieldId;
+
+    /**
+     * @param delegate backend that computes misses
+     * @param config   builder {@code delegate} was built from; provides seed, size and LOD for the cache keys
+     * @param cache    may be shared between several backends
+     * @param fieldId  distinguishes noise layers with otherwise equal settings in a shared cache
+     */
+    public CachingNoiseBackend(NoiseBackend delegate, NoiseBackendBuilder<?> config, ChunkCache cache, int fieldId) {
+        super(delegate.getResult(), config.getSize(), config.is3DMode() ? config.getSize() : 1, config.getSize(), config.is3DMode());
+        if (delegate.is3D != config.is3DMode()) {
+            throw new IllegalArgumentException("Backend and builder disagree on 2D/3D");
+        }
+        this.delegate = delegate;
+        this.config = config;
+        this.cache = cache;
+        this.fieldId = fieldId;
+    }
+
+    @Override
+    public void generate(float x0, float y0, float z0, float frequency) {
+        lookup(NoiseKey.of(config, x0, y0, z0, frequency));
+    }
+
+    @Override
+    public void generate(float x0, float y0, float frequency) {
+        lookup(NoiseKey.of(config, x0, y0, frequency));
+    }
+
+    private void lookup(NoiseKey noise) {
+        OffHeapChunkCache.Key key = new OffHeapChunkCache.Key(fieldId, noise);
+        float[] out = delegate.getResult();
+        result = out;
+        if (cache.get(key, out) >= 0) return;
+
+        if (noise.is3D()) {
+            delegate.generate(noise.x0(), noise.y0(), noise.z0(), noise.frequency());
+        } else {
+            delegate.generate(noise.x0(), noise.z0(), noise.frequency());
+        }
+        cache.put(key, delegate.getResult(), noise.sampleCount());
+    }
+
+    @Override
+    public int sampleCount() {
+        return delegate.sampleCount();
+    }
+
+    public NoiseBackend getDelegate() {
+        return delegate;
+    }
+
+    public ChunkCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Disposes the wrapped backend; the cache stays open because it may be shared.
+     */
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public void logSetup() {
+        delegate.logSetup();
+    }
+}
@@ -0,0 +1,20 @@
+package de.verdox.noise.cache;
+
+/**
+ * Storage for generated chunks used by {@link CachingNoiseBackend}.
+ */
+public interface ChunkCache {
+    /**
+     * Copies the cached value into {@code dst}.
+     *
+     * @return the number of copied floats, or -1 if the key is not cached
+     */
+    int get(OffHeapChunkCache.Key key, float[] dst);
+
+    /**
+     * Stores the first {@code length} floats of {@code src}.
+     *
+     * @return false if the value was not cached
+     */
+    boolean put(OffHeapChunkCache.Key key, float[] src, int length);
+}
@@ -0,0 +1,260 @@
+package de.verdox.noise.cache;
+
+import de.verdox.noise.NoiseKey;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, concurrent cache for generated chunks whose values live off-heap.
+ * <p>
+ * The byte budget is allocated once as a single {@link MemorySegment} and cut into fixed-size slots of
+ * {@code maxValueFloats} floats, so cached chunks never show up in the Java heap and eviction is just returning a
+ * slot. Values larger than a slot are not cached.
+ * <p>
+ * Keys are spread over independently locked segments. Each segment evicts with a segmented LRU: new entries start in
+ * a probation list and move to a protected list (80% of the segment) on their second hit, so a single pass over many
+ * chunks, e.g. a fast flight, cannot flush the chunks that are revisited all the time.
+ */
+public class OffHeapChunkCache implements ChunkCache, AutoCloseable {
+    private static final int MAX_SEGMENTS = 16;
+    // kleinere Segmente machen die LRU-Reihenfolge zu ungenau
+    private static final int MIN_SLOTS_PER_SEGMENT = 64;
+    private static final double PROTECTED_FRACTION = 0.8;
+
+    private final Arena arena = Arena.ofShared();
+    private final MemorySegment slab;
+    private final long slotBytes;
+    private final int maxValueFloats;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacityBytes  off-heap budget for all cached values
+     * @param maxValueFloats largest chunk that can be cached, e.g. {@code size * size * size}
+     */
+    public OffHeapChunkCache(long capacityBytes, int maxValueFloats) {
+        if (maxValueFloats < 1) {
+            throw new IllegalArgumentException("maxValueFloats must be >= 1");
+        }
+        this.maxValueFloats = maxValueFloats;
+        this.slotBytes = (long) maxValueFloats * Float.BYTES;
+        final long slots = capacityBytes / slotBytes;
+        if (slots < 1) {
+            throw new IllegalArgumentException("capacityBytes is smaller than a single value of " + slotBytes + " bytes");
+        }
+        if (slots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many slots: " + slots);
+        }
+
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2L * MIN_SLOTS_PER_SEGMENT <= slots) segmentCount *= 2;
+        this.segments = new Segment[segmentCount];
+        final int perSegment = (int) (slots / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(i * perSegment, perSegment);
+        }
+        this.slab = arena.allocate(slotBytes * perSegment * segmentCount, Float.BYTES);
+    }
+
+    /**
+     * Copies the cached value into {@code dst}.
+     *
+     * @return the number of copied floats, or -1 if the key is not cached
+     */
+    @Override
+    public int get(Key key, float[] dst) {
+        Segment s = segmentFor(key);
+        s.lock.lock();
+        try {
+            Entry e = s.touch(key);
+            if (e == null) {
+                misses.increment();
+                return -1;
+            }
+            // Kopie unter dem Lock: der Slot könnte sonst neu vergeben werden
+            MemorySegment.copy(slab, ValueLayout.JAVA_FLOAT, e.slot * slotBytes, dst, 0, e.length);
+            hits.increment();
+            return e.length;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the first {@code length} floats of {@code src}, replacing a previous value of the key.
+     *
+     * @return false if the value is larger than a slot and was not cached
+     */
+    @Override
+    public boolean put(Key key, float[] src, int length) {
+        if (length > maxValueFloats) return false;
+        Segment s = segmentFor(key);
+        s.lock.lock();
+        try {
+            Entry e = s.touch(key);
+            if (e == null) {
+                e = new Entry(s.acquireSlot());
+                s.probation.put(key, e);
+            }
+            e.length = length;
+            MemorySegment.copy(src, 0, slab, ValueLayout.JAVA_FLOAT, e.slot * slotBytes, length);
+            return true;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    public boolean contains(Key key) {
+        Segment s = segmentFor(key);
+        s.lock.lock();
+        try {
+            return s.probation.containsKey(key) || s.protectedLru.containsKey(key);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a single key, e.g. after the chunk was edited.
+     */
+    public void invalidate(Key key) {
+        Segment s = segmentFor(key);
+        s.lock.lock();
+        try {
+            Entry e = s.probation.remove(key);
+            if (e == null) e = s.protectedLru.remove(key);
+            if (e != null) s.free[s.freeCount++] = e.slot;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment s : segments) {
+            s.lock.lock();
+            try {
+                s.probation.values().forEach(e -> s.free[s.freeCount++] = e.slot);
+                s.protectedLru.values().forEach(e -> s.free[s.freeCount++] = e.slot);
+                s.probation.clear();
+                s.protectedLru.clear();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    public Stats stats() {
+        long entries = 0;
+        for (Segment s : segments) {
+            s.lock.lock();
+            try {
+                entries += s.probation.size() + s.protectedLru.size();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries, entries * slotBytes, slab.byteSize());
+    }
+
+    /**
+     * Frees the off-heap memory. The cache must not be used afterward.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    /**
+     * Cache key: the request plus an id of the field, so several noise layers with equal settings can share one
+     * cache.
+     */
+    public record Key(int fieldId, NoiseKey noise) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, long entries, long usedBytes, long capacityBytes) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private static final class Entry {
+        private final int slot;
+        private int length;
+
+        private Entry(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Einfügereihenfolge = LRU-Reihenfolge; Zugriff verschiebt ans Ende
+        private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Key, Entry> protectedLru = new LinkedHashMap<>();
+        private final int protectedCapacity;
+        private final int[] free;
+        private int freeCount;
+
+        private Segment(int firstSlot, int slots) {
+            this.protectedCapacity = Math.max(0, Math.min(slots - 1, (int) (slots * PROTECTED_FRACTION)));
+            this.free = new int[slots];
+            for (int i = 0; i < slots; i++) {
+                free[i] = firstSlot + slots - 1 - i;
+            }
+            this.freeCount = slots;
+        }
+
+        /**
+         * Sucht den Key und vermerkt den Zugriff: Probation-Treffer werden befördert, Protected-Treffer ans Ende
+         * verschoben. Läuft Protected über, rutscht dessen ältester Eintrag zurück in Probation.
+         */
+        private Entry touch(Key key) {
+            Entry e = protectedLru.remove(key);
+            if (e != null) {
+                protectedLru.put(key, e);
+                return e;
+            }
+            e = probation.remove(key);
+            if (e == null) return null;
+            if (protectedCapacity == 0) {
+                probation.put(key, e);
+                return e;
+            }
+            protectedLru.put(key, e);
+            if (protectedLru.size() > protectedCapacity) {
+                Iterator<Map.Entry<Key, Entry>> it = protectedLru.entrySet().iterator();
+                Map.Entry<Key, Entry> eldest = it.next();
+                it.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+            }
+            return e;
+        }
+
+        private int acquireSlot() {
+            if (freeCount > 0) return free[--freeCount];
+            LinkedHashMap<Key, Entry> victims = probation.isEmpty() ? protectedLru : probation;
+            Iterator<Entry> it = victims.values().iterator();
+            Entry victim = it.next();
+            it.remove();
+            evictions.increment();
+            return victim.slot;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package de.verdox.noise.cache;
+
+import de.verdox.noise.NoiseKey;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Chunk cache shared by several JVMs on one host through a memory-mapped file, e.g. in {@code /dev/shm}.
+ * <p>
+ * The file holds an open-addressing table of fixed-size entries, each with its own data slot. There are no locks:
+ * <ul>
+ *     <li>A writer claims an empty entry by CAS on its key, or takes over an occupied one by moving the entry's
+ *     sequence number from even to odd with a CAS. It then writes the data and publishes it by storing the next even
+ *     sequence number. Writers that lose a CAS simply skip caching; the cache is best effort.</li>
+ *     <li>Readers are seqlock readers: they read the sequence number, the key and the data, and accept the data only
+ *     if the sequence number was even and did not change in the meantime. A locked entry is retried a few times and
+ *     then treated as a miss.</li>
+ * </ul>
+ * Keys are 128-bit hashes of {@code (fieldId, NoiseKey)} that are stable across processes. When all
+ * {@value #MAX_PROBES} entries of a probe sequence are taken, the home entry is overwritten.
+ * <p>
+ * A process that dies while it holds an entry would leave the sequence number odd forever. The sequence word therefore
+ * also carries the PID of the locking process. A lock whose owner is no longer alive counts as abandoned; the next
+ * writer takes it over with a CAS and rewrites it ({@link #reclaimedLocks()}). Locks of live processes are never taken
+ * over, however long they are held, so a stalled writer cannot overwrite an entry that another writer has since
+ * published. If the PID of a crashed writer has already been reused, its locks stay until {@link #reset()}, which
+ * empties the whole table for manual recovery.
+ * <p>
+ * All processes have to open the file with the same layout (entries, value size); a mismatch is rejected.
+ */
+public class SharedMemoryChunkCache implements ChunkCache, AutoCloseable {
+    private static final int MAGIC = 0x4E53484D; // "NSHM"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 64;
+    private static final int ENTRY_BYTES = 32;
+    private static final int PAGE = 4096;
+    static final int MAX_PROBES = 8;
+    private static final int MAX_READ_RETRIES = 4;
+
+    // Eintrag: key1 (long) | key2 (long) | seq (long) | length (int) | frei (int)
+    private static final long OFF_KEY1 = 0, OFF_KEY2 = 8, OFF_SEQ = 16, OFF_LENGTH = 24;
+    // seq-Wort: Zähler in den unteren 32 Bit (ungerade = gesperrt), PID des sperrenden Prozesses in den oberen 32 Bit
+    private static final long COUNTER_MASK = 0xFFFFFFFFL;
+    private static final long PID = ProcessHandle.current().pid() & COUNTER_MASK;
+
+    private static final VarHandle LONG = MethodHandles.memorySegmentViewVarHandle(ValueLayout.JAVA_LONG);
+    private static final VarHandle INT = MethodHandles.memorySegmentViewVarHandle(ValueLayout.JAVA_INT);
+
+    private final Arena arena = Arena.ofShared();
+    private final MemorySegment map;
+    private final int entries;
+    private final int maxValueFloats;
+    private final long slotBytes;
+    private final long dataStart;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder tornReads = new LongAdder();
+    private final LongAdder skippedWrites = new LongAdder();
+    private final LongAdder reclaimedLocks = new LongAdder();
+
+    /**
+     * Opens or creates the shared file.
+     *
+     * @param file           e.g. {@code /dev/shm/noise-<seed>.cache}
+     * @param entries        number of cached chunks, rounded up to a power of two
+     * @param maxValueFloats largest chunk that can be cached
+     */
+    public SharedMemoryChunkCache(Path file, int entries, int maxValueFloats) throws IOException {
+        if (entries < 1 || entries > 1 << 24) {
+            throw new IllegalArgumentException("entries must be in [1, 2^24]");
+        }
+        if (maxValueFloats < 1) {
+            throw new IllegalArgumentException("maxValueFloats must be >= 1");
+        }
+        this.entries = entries == 1 ? 1 : Integer.highestOneBit(entries - 1) << 1;
+        this.maxValueFloats = maxValueFloats;
+        this.slotBytes = (long) maxValueFloats * Float.BYTES;
+        this.dataStart = roundUp(HEADER_BYTES + (long) this.entries * ENTRY_BYTES, PAGE);
+        final long fileBytes = dataStart + this.entries * slotBytes;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = ch.lock()) {
+            // Initialisierung unter Datei-Lock, damit gleichzeitig startende Prozesse sich nicht überschreiben
+            final boolean fresh = ch.size() == 0;
+            if (!fresh && ch.size() != fileBytes) {
+                throw new IllegalStateException("Shared cache " + file + " has a different layout (size " + ch.size() + ")");
+            }
+            this.map = ch.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes, arena);
+            if (fresh) {
+                map.set(ValueLayout.JAVA_INT, 4, VERSION);
+                map.set(ValueLayout.JAVA_INT, 8, this.entries);
+                map.set(ValueLayout.JAVA_INT, 12, maxValueFloats);
+                INT.setRelease(map, 0L, MAGIC);
+            } else if ((int) INT.getAcquire(map, 0L) != MAGIC || map.get(ValueLayout.JAVA_INT, 4) != VERSION
+                    || map.get(ValueLayout.JAVA_INT, 8) != this.entries || map.get(ValueLayout.JAVA_INT, 12) != maxValueFloats) {
+                arena.close();
+                throw new IllegalStateException("Shared cache " + file + " has a different layout");
+            }
+        } catch (IOException | RuntimeException e) {
+            if (arena.scope().isAlive()) arena.close();
+            throw e;
+        }
+    }
+
+    public int entries() {
+        return entries;
+    }
+
+    @Override
+    public int get(OffHeapChunkCache.Key key, float[] dst) {
+        final long k1 = key1(key), k2 = key2(key);
+        for (int p = 0; p < MAX_PROBES; p++) {
+            final long e = entryOffset(k1, p);
+            for (int attempt = 0; attempt < MAX_READ_RETRIES; attempt++) {
+                final long s1 = (long) LONG.getAcquire(map, e + OFF_SEQ);
+                final long found = (long) LONG.getAcquire(map, e + OFF_KEY1);
+                if (found == 0) {
+                    misses.increment();
+                    return -1; // leerer Eintrag beendet die Sondierung
+                }
+                if (locked(s1)) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (found != k1 || (long) LONG.getAcquire(map, e + OFF_KEY2) != k2) break;
+
+                final int length = (int) INT.getAcquire(map, e + OFF_LENGTH);
+                if (length < 0 || length > maxValueFloats || length > dst.length) break;
+                MemorySegment.copy(map, ValueLayout.JAVA_FLOAT, dataOffset(e), dst, 0, length);
+                VarHandle.acquireFence();
+                if ((long) LONG.getVolatile(map, e + OFF_SEQ) == s1) {
+                    hits.increment();
+                    return length;
+                }
+                tornReads.increment();
+            }
+        }
+        misses.increment();
+        return -1;
+    }
+
+    /**
+     * Lends the cached value to {@code reader} as a read-only view into the shared mapping, without copying.
+     * A concurrent writer may change the data while the reader runs; if that happened the method returns false and
+     * whatever the reader computed has to be discarded.
+     *
+     * @return true if the key was found and the view stayed consistent while {@code reader} ran
+     */
+    public boolean read(OffHeapChunkCache.Key key, Consumer<MemorySegment> reader) {
+        final long k1 = key1(key), k2 = key2(key);
+        for (int p = 0; p < MAX_PROBES; p++) {
+            final long e = entryOffset(k1, p);
+            final long s1 = (long) LONG.getAcquire(map, e + OFF_SEQ);
+            final long found = (long) LONG.getAcquire(map, e + OFF_KEY1);
+            if (found == 0) break;
+            if (locked(s1) || found != k1 || (long) LONG.getAcquire(map, e + OFF_KEY2) != k2) continue;
+
+            final int length = (int) INT.getAcquire(map, e + OFF_LENGTH);
+            if (length < 0 || length > maxValueFloats) continue;
+            reader.accept(map.asSlice(dataOffset(e), (long) length * Float.BYTES).asReadOnly());
+            VarHandle.acquireFence();
+            if ((long) LONG.getVolatile(map, e + OFF_SEQ) == s1) {
+                hits.increment();
+                return true;
+            }
+            tornReads.increment();
+            return false;
+        }
+        misses.increment();
+        return false;
+    }
+
+    @Override
+    public boolean put(OffHeapChunkCache.Key key, float[] src, int length) {
+        if (length > maxValueFloats) return false;
+        final long k1 = key1(key), k2 = key2(key);
+
+        long target = -1;
+        for (int p = 0; p < MAX_PROBES && target < 0; p++) {
+            final long e = entryOffset(k1, p);
+            final long found = (long) LONG.getAcquire(map, e + OFF_KEY1);
+            if (found == 0) {
+                // Leeren Eintrag beanspruchen; key1 wird erst nach erfolgreichem Seq-CAS gesetzt
+                final long lock = tryLock(e);
+                if (lock != 0) {
+                    if ((long) LONG.getAcquire(map, e + OFF_KEY1) == 0) {
+                        return writeEntry(e, lock, k1, k2, src, length);
+                    }
+                    unlock(e, lock);
+                }
+                // jemand anderes war schneller: weiter sondieren
+            } else if (found == k1 && (long) LONG.getAcquire(map, e + OFF_KEY2) == k2) {
+                target = e; // vorhandenen Wert überschreiben
+            }
+        }
+        if (target < 0) target = entryOffset(k1, 0); // Tabelle in dieser Sequenz voll: Heimat-Eintrag verdrängen
+
+        final long lock = tryLock(target);
+        if (lock == 0) {
+            skippedWrites.increment();
+            return false;
+        }
+        return writeEntry(target, lock, k1, k2, src, length);
+    }
+
+    /**
+     * Sperrt einen freien Eintrag oder übernimmt die Sperre eines toten Prozesses per CAS auf das seq-Wort.
+     *
+     * @return das gesperrte seq-Wort, 0 wenn der Eintrag belegt ist oder der CAS verloren wurde
+     */
+    private long tryLock(long e) {
+        final long w = (long) LONG.getAcquire(map, e + OFF_SEQ);
+        final boolean abandoned = locked(w);
+        if (abandoned && ownerAlive(w)) return 0;
+        // frei: gerade -> ungerade; verwaist: über die alte Sperre hinweg, damit sich das Wort in jedem Fall ändert
+        final long lock = (PID << 32) | ((w + (abandoned ? 2 : 1)) & COUNTER_MASK);
+        if (!LONG.compareAndSet(map, e + OFF_SEQ, w, lock)) return 0;
+        if (abandoned) reclaimedLocks.increment();
+        return lock;
+    }
+
+    /**
+     * Gibt eine Sperre mit dem nächsten geraden Zähler frei; false nur nach einem {@link #reset()} dazwischen.
+     */
+    private boolean unlock(long e, long lock) {
+        return LONG.compareAndSet(map, e + OFF_SEQ, lock, (lock + 1) & COUNTER_MASK);
+    }
+
+    /**
+     * Schreibt einen per {@link #tryLock} gesperrten Eintrag und veröffentlicht ihn.
+     */
+    private boolean writeEntry(long e, long lock, long k1, long k2, float[] src, int length) {
+        MemorySegment.copy(src, 0, map, ValueLayout.JAVA_FLOAT, dataOffset(e), length);
+        INT.setRelease(map, e + OFF_LENGTH, length);
+        LONG.setRelease(map, e + OFF_KEY2, k2);
+        LONG.setRelease(map, e + OFF_KEY1, k1);
+        if (unlock(e, lock)) return true;
+        skippedWrites.increment();
+        return false;
+    }
+
+    private static boolean locked(long word) {
+        return (word & 1) != 0;
+    }
+
+    /**
+     * Ob der Prozess, der das Sperr-Wort geschrieben hat, noch läuft. Der eigene Prozess zählt immer als lebendig,
+     * eine Sperre eines eigenen, nur hängenden Threads wird also nie übernommen.
+     */
+    private static boolean ownerAlive(long word) {
+        final long pid = word >>> 32;
+        return pid == PID || ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    /**
+     * Empties every entry, including entries left locked by a crashed writer. Meant for recovery and maintenance:
+     * entries other processes write at the same time may be lost, readers see the change like any other write.
+     */
+    public void reset() {
+        for (int i = 0; i < entries; i++) {
+            final long e = HEADER_BYTES + (long) i * ENTRY_BYTES;
+            final long w = (long) LONG.getAcquire(map, e + OFF_SEQ);
+            // ungerade Sperr-Wort setzen, leeren, mit neuem geraden Zähler freigeben
+            final long lock = (PID << 32) | ((w + (locked(w) ? 2 : 1)) & COUNTER_MASK);
+            LONG.setRelease(map, e + OFF_SEQ, lock);
+            LONG.setRelease(map, e + OFF_KEY1, 0L);
+            LONG.setRelease(map, e + OFF_KEY2, 0L);
+            INT.setRelease(map, e + OFF_LENGTH, 0);
+            LONG.setRelease(map, e + OFF_SEQ, (lock + 1) & COUNTER_MASK);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Reads that overlapped a concurrent write and were retried or rejected.
+     */
+    public long tornReads() {
+        return tornReads.sum();
+    }
+
+    /**
+     * Writes that were dropped because another process was writing the same entry.
+     */
+    public long skippedWrites() {
+        return skippedWrites.sum();
+    }
+
+    /**
+     * Abandoned locks this process took over.
+     */
+    public long reclaimedLocks() {
+        return reclaimedLocks.sum();
+    }
+
+    /**
+     * Unmaps the file in this process; the shared data stays for the other processes.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long entryOffset(long k1, int probe) {
+        final int idx = (int) ((mixIndex(k1) + probe) & (entries - 1));
+        return HEADER_BYTES + (long) idx * ENTRY_BYTES;
+    }
+
+    private long dataOffset(long entryOffset) {
+        final long idx = (entryOffset - HEADER_BYTES) / ENTRY_BYTES;
+        return dataStart + idx * slotBytes;
+    }
+
+    private static long mixIndex(long k) {
+        return (k ^ (k >>> 32)) & 0x7FFFFFFFL;
+    }
+
+    private static long roundUp(long n, long m) {
+        return ((n + m - 1) / m) * m;
+    }
+
+    // ===================== prozessübergreifend stabile Schlüssel =====================
+
+    static long key1(OffHeapChunkCache.Key key) {
+        long h = hash(key, 0x9E3779B97F4A7C15L);
+        return h == 0 ? 1 : h; // 0 markiert leere Einträge
+    }
+
+    static long key2(OffHeapChunkCache.Key key) {
+        return hash(key, 0xC2B2AE3D27D4EB4FL);
+    }
+
+    private static long hash(OffHeapChunkCache.Key key, long seed) {
+        NoiseKey n = key.noise();
+        long h = seed;
+        h = mix(h, key.fieldId());
+        h = mix(h, n.seed());
+        h = mix(h, Float.floatToIntBits(n.x0()));
+        h = mix(h, Float.floatToIntBits(n.y0()));
+        h = mix(h, Float.floatToIntBits(n.z0()));
+        h = mix(h, Float.floatToIntBits(n.frequency()));
+        h = mix(h, n.lodLevel());
+        h = mix(h, n.lodMode().ordinal());
+        h = mix(h, n.width());
+        h = mix(h, n.height());
+        h = mix(h, n.depth());
+        h = mix(h, n.is3D() ? 3 : 2);
+        h = mix(h, n.calculationMode().ordinal());
+        h = mix(h, n.vectorize() ? 1 : 0);
+        h = mix(h, n.cellWidth());
+        h = mix(h, n.cellHeight());
+        h = mix(h, n.cellDepth());
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        h ^= v * 0xFF51AFD7ED558CCDL;
+        h = Long.rotateLeft(h, 31) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
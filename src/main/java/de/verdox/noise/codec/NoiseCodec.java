@@ -0,0 +1,641 @@
+package de.verdox.noise.codec;
+
+import de.verdox.noise.NoiseKey;
+import de.verdox.util.LODUtil;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Lossy, compact codec for noise fields (x fastest, then y, then z; 2D fields have height 1).
+ * <p>
+ * Values are quantized to multiples of {@code step} (error at most {@code step / 2}), the quantized field is replaced
+ * by the residuals of a predictor, and the zigzag-coded residuals go through an entropy stage. Noise is smooth, so
+ * the residuals are small and need only a few bits each.
+ * <p>
+ * All predictors are finite differences along a set of axes; {@link Predictor#LORENZO} differences along all three
+ * and is exact for fields that are locally linear. Quantization, differencing, zigzag and bit-width detection run on
+ * the Vector API; only the bit packing itself and the prefix sum along x while decoding are scalar.
+ * <p>
+ * Data is written in slabs of whole z-planes, so a field can be encoded or decoded while it is produced or consumed
+ * (see {@link Encoder} and {@link Decoder}).
+ */
+public class NoiseCodec {
+    private static final VectorSpecies<Float> SF = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> SI = IntVector.SPECIES_PREFERRED;
+
+    private static final int MAGIC = 0x4E534331; // "NSC1"
+    private static final int VERSION = 1;
+    private static final int BLOCK = 128;
+    // Slab-Größe von encode(): ~256 KiB Floats
+    private static final int SLAB_TARGET_VALUES = 64 * 1024;
+    // größtes Array, das die JVM sicher anlegt
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Axes the quantized field is differenced along before entropy coding.
+     */
+    public enum Predictor {
+        /** Raw quantized values */
+        NONE(false, false, false),
+        /** Previous sample in x */
+        LEFT(true, false, false),
+        /** Previous row: y in 3D, z in 2D */
+        TOP(false, true, false),
+        /** Previous z-plane */
+        SLICE(false, false, true),
+        /** Left and top: left + top - topLeft */
+        PLANAR(true, true, false),
+        /** Differences along x, y and z */
+        LORENZO(true, true, true);
+
+        private final boolean x, row, z;
+
+        Predictor(boolean x, boolean row, boolean z) {
+            this.x = x;
+            this.row = row;
+            this.z = z;
+        }
+    }
+
+    public enum Entropy {
+        /** LEB128 per residual */
+        VARINT,
+        /** Blocks of 128 residuals packed with the block's largest bit width */
+        BITPACK
+    }
+
+    private final float step;
+    private final Predictor predictor;
+    private final Entropy entropy;
+
+    /**
+     * @param step      quantization step, e.g. {@code 1f / 4096}
+     * @param predictor predictor applied to the quantized values
+     * @param entropy   coding of the residuals
+     */
+    public NoiseCodec(float step, Predictor predictor, Entropy entropy) {
+        if (!(step > 0) || Float.isInfinite(step)) {
+            throw new IllegalArgumentException("step must be > 0");
+        }
+        this.step = step;
+        this.predictor = predictor;
+        this.entropy = entropy;
+    }
+
+    public float step() {
+        return step;
+    }
+
+    public Predictor predictor() {
+        return predictor;
+    }
+
+    public Entropy entropy() {
+        return entropy;
+    }
+
+    /**
+     * Encodes a whole field.
+     */
+    public byte[] encode(float[] field, int width, int height, int depth) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(field.length / 2 + 64);
+        try (Encoder encoder = newEncoder(bytes, width, height, depth)) {
+            final int plane = width * height;
+            final int planesPerSlab = Math.max(1, SLAB_TARGET_VALUES / plane);
+            for (int z = 0; z < depth; z += planesPerSlab) {
+                encoder.writeSlab(field, z * plane, Math.min(planesPerSlab, depth - z));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the result of a generate call; the dimensions are the LOD dimensions of {@code key}.
+     */
+    public byte[] encode(float[] result, NoiseKey key) {
+        if (key.is3D()) {
+            LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(key.width(), key.height(), key.depth(), key.x0(), key.y0(), key.z0(), key.frequency(), key.lodLevel(), key.lodMode());
+            return encode(result, lp.widthLOD(), lp.heightLOD(), lp.depthLOD());
+        }
+        LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(key.width(), key.depth(), key.x0(), key.z0(), key.frequency(), key.lodLevel(), key.lodMode());
+        return encode(result, lp.widthLOD(), 1, lp.depthLOD());
+    }
+
+    /**
+     * Decodes a field written by any codec configuration; the configuration is read from the stream header.
+     */
+    public static float[] decode(byte[] data) {
+        try (Decoder decoder = newDecoder(new ByteArrayInputStream(data))) {
+            final long samples = (long) decoder.width() * decoder.height() * decoder.depth();
+            // jede Entropie-Stufe braucht mindestens ein Byte pro BLOCK Samples
+            if (samples > (long) data.length * BLOCK) {
+                throw new IOException("Corrupt field header");
+            }
+            float[] field = new float[(int) samples];
+            int offset = 0, planes;
+            while ((planes = decoder.readSlab(field, offset)) > 0) {
+                offset += planes * decoder.width() * decoder.height();
+            }
+            return field;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts a stream of a {@code width x height x depth} field; the header is written immediately.
+     */
+    public Encoder newEncoder(OutputStream out, int width, int height, int depth) throws IOException {
+        return new Encoder(out, width, height, depth);
+    }
+
+    /**
+     * Reads the header of a stream written by {@link Encoder}.
+     */
+    public static Decoder newDecoder(InputStream in) throws IOException {
+        return new Decoder(in);
+    }
+
+    /**
+     * Writes a field slab by slab. Slabs consist of whole z-planes and have to be written in order; the previous
+     * plane is kept for the z predictor.
+     */
+    public final class Encoder implements AutoCloseable {
+        private final DataOutputStream out;
+        private final int width, height, depth, plane;
+        private final int[] prevPlane;
+        private final ByteSink sink = new ByteSink();
+        private int[] q = new int[0];
+        private int written;
+
+        private Encoder(OutputStream out, int width, int height, int depth) throws IOException {
+            if (width < 1 || height < 1 || depth < 1) {
+                throw new IllegalArgumentException("Dimensions must be >= 1");
+            }
+            if ((long) width * height * depth > MAX_ARRAY) {
+                throw new IllegalArgumentException("Field has more than " + MAX_ARRAY + " samples");
+            }
+            this.out = new DataOutputStream(out);
+            this.width = width;
+            this.height = height;
+            this.depth = depth;
+            this.plane = width * height;
+            this.prevPlane = new int[plane];
+
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeByte(predictor.ordinal());
+            this.out.writeByte(entropy.ordinal());
+            this.out.writeByte(0);
+            this.out.writeInt(width);
+            this.out.writeInt(height);
+            this.out.writeInt(depth);
+            this.out.writeFloat(step);
+        }
+
+        /**
+         * Encodes {@code planes} z-planes starting at {@code src[offset]}.
+         */
+        public void writeSlab(float[] src, int offset, int planes) throws IOException {
+            if (planes < 1 || written + planes > depth) {
+                throw new IllegalArgumentException("Slab exceeds the field depth");
+            }
+            final long samples = (long) planes * plane;
+            if (offset < 0 || offset + samples > src.length) {
+                throw new IllegalArgumentException("Slab exceeds the source array");
+            }
+            if (maxPayload(entropy, samples) > MAX_ARRAY) {
+                throw new IllegalArgumentException("Slab of " + planes + " planes is too large, write fewer planes");
+            }
+            final int n = (int) samples;
+            if (q.length < n) q = new int[n];
+
+            quantize(src, offset, q, n, 1f / step);
+            if (predictor.x) diffX(q, n, width);
+            if (rowAxisIsY() && predictor.row) diffRows(q, planes, width, height);
+            if (predictor.z || (!rowAxisIsY() && predictor.row)) diffZ(q, planes, plane, prevPlane);
+
+            sink.reset();
+            zigzag(q, n);
+            if (entropy == Entropy.BITPACK) bitpack(q, n, sink);
+            else varint(q, n, sink);
+
+            out.writeInt(planes);
+            out.writeInt(sink.size);
+            out.write(sink.buf, 0, sink.size);
+            written += planes;
+        }
+
+        private boolean rowAxisIsY() {
+            return height > 1;
+        }
+
+        /**
+         * Flushes the stream; does not close the underlying stream if the field is incomplete.
+         */
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads a field slab by slab in the order it was written.
+     */
+    public static final class Decoder implements AutoCloseable {
+        private final DataInputStream in;
+        private final Predictor predictor;
+        private final Entropy entropy;
+        private final int width, height, depth, plane;
+        private final float step;
+        private final int[] prevPlane;
+        private int[] q = new int[0];
+        private byte[] payload = new byte[0];
+        private int read;
+
+        private Decoder(InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            if (this.in.readInt() != MAGIC) {
+                throw new IOException("Not a noise codec stream");
+            }
+            int version = this.in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported codec version " + version);
+            }
+            int predictor = this.in.readUnsignedByte();
+            if (predictor >= Predictor.values().length) {
+                throw new IOException("Unsupported predictor " + predictor);
+            }
+            int entropy = this.in.readUnsignedByte();
+            if (entropy >= Entropy.values().length) {
+                throw new IOException("Unsupported entropy coder " + entropy);
+            }
+            this.predictor = Predictor.values()[predictor];
+            this.entropy = Entropy.values()[entropy];
+            this.in.readUnsignedByte();
+            this.width = this.in.readInt();
+            this.height = this.in.readInt();
+            this.depth = this.in.readInt();
+            this.step = this.in.readFloat();
+            if (width < 1 || height < 1 || depth < 1 || (long) width * height * depth > MAX_ARRAY) {
+                throw new IOException("Corrupt field header");
+            }
+            this.plane = width * height;
+            this.prevPlane = new int[plane];
+        }
+
+        public int width() {
+            return width;
+        }
+
+        public int height() {
+            return height;
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        /**
+         * Decodes the next slab into {@code dst[offset]} onward.
+         *
+         * @return the number of decoded z-planes, 0 once the field is complete
+         */
+        public int readSlab(float[] dst, int offset) throws IOException {
+            if (read == depth) return 0;
+            final int planes = in.readInt();
+            final int size = in.readInt();
+            if (planes < 1 || read + planes > depth) {
+                throw new IOException("Corrupt slab header");
+            }
+            // passt dank Header-Prüfung in ein int
+            final int n = planes * plane;
+            if (size < minPayload(entropy, n) || size > maxPayload(entropy, n)) {
+                throw new IOException("Corrupt slab header");
+            }
+            if (offset < 0 || (long) offset + n > dst.length) {
+                throw new IllegalArgumentException("Slab exceeds the destination array");
+            }
+            readPayload(size);
+
+            if (q.length < n) q = new int[n];
+            if (entropy == Entropy.BITPACK) unbitpack(payload, size, q, n);
+            else unvarint(payload, size, q, n);
+            unzigzag(q, n);
+
+            final boolean rowAxisIsY = height > 1;
+            if (predictor.z || (!rowAxisIsY && predictor.row)) undiffZ(q, planes, plane, prevPlane);
+            if (rowAxisIsY && predictor.row) undiffRows(q, planes, width, height);
+            if (predictor.x) undiffX(q, n, width);
+            dequantize(q, dst, offset, n, step);
+
+            read += planes;
+            return planes;
+        }
+
+        /**
+         * Liest {@code size} Bytes. Der Puffer wächst nur mit tatsächlich gelesenen Daten, ein kaputtes {@code size}
+         * in einem kurzen Stream legt also kein riesiges Array an.
+         */
+        private void readPayload(int size) throws IOException {
+            int pos = 0;
+            while (pos < size) {
+                if (pos == payload.length) {
+                    payload = Arrays.copyOf(payload, (int) Math.min(size, Math.max(4096L, payload.length * 2L)));
+                }
+                int r = in.read(payload, pos, Math.min(size, payload.length) - pos);
+                if (r < 0) throw new EOFException("Truncated slab");
+                pos += r;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // ===================== Quantisierung =====================
+
+    /**
+     * q = floor(v / step + 0.5); Vektor- und Skalarpfad rechnen bitgleich.
+     */
+    static void quantize(float[] src, int offset, int[] q, int n, float invStep) {
+        final FloatVector vInv = FloatVector.broadcast(SF, invStep);
+        final FloatVector vHalf = FloatVector.broadcast(SF, 0.5f);
+        int i = 0;
+        for (int bound = SF.loopBound(n); i < bound; i += SF.length()) {
+            FloatVector t = FloatVector.fromArray(SF, src, offset + i).mul(vInv).add(vHalf);
+            IntVector r = (IntVector) t.convert(VectorOperators.F2I, 0);
+            r = r.sub(1, t.lt((FloatVector) r.convert(VectorOperators.I2F, 0)).cast(SI));
+            r.intoArray(q, i);
+        }
+        for (; i < n; i++) {
+            float t = src[offset + i] * invStep + 0.5f;
+            int r = (int) t;
+            if (t < r) r--;
+            q[i] = r;
+        }
+    }
+
+    static void dequantize(int[] q, float[] dst, int offset, int n, float step) {
+        final FloatVector vStep = FloatVector.broadcast(SF, step);
+        int i = 0;
+        for (int bound = SI.loopBound(n); i < bound; i += SI.length()) {
+            ((FloatVector) IntVector.fromArray(SI, q, i).convert(VectorOperators.I2F, 0)).mul(vStep).intoArray(dst, offset + i);
+        }
+        for (; i < n; i++) {
+            dst[offset + i] = q[i] * step;
+        }
+    }
+
+    // ===================== Prädiktoren =====================
+
+    /**
+     * q[x] -= q[x-1] in jeder Zeile, von hinten nach vorne, damit die Nachbarn noch unverändert gelesen werden.
+     */
+    static void diffX(int[] q, int n, int width) {
+        final int L = SI.length();
+        for (int row = 0; row < n; row += width) {
+            int x = width - L;
+            for (; x >= 1; x -= L) {
+                IntVector cur = IntVector.fromArray(SI, q, row + x);
+                IntVector left = IntVector.fromArray(SI, q, row + x - 1);
+                cur.sub(left).intoArray(q, row + x);
+            }
+            for (x = x + L - 1; x >= 1; x--) {
+                q[row + x] -= q[row + x - 1];
+            }
+        }
+    }
+
+    static void undiffX(int[] q, int n, int width) {
+        for (int row = 0; row < n; row += width) {
+            int acc = q[row];
+            for (int x = 1; x < width; x++) {
+                acc += q[row + x];
+                q[row + x] = acc;
+            }
+        }
+    }
+
+    /**
+     * Zeile y -= Zeile y-1 innerhalb jeder z-Ebene.
+     */
+    static void diffRows(int[] q, int planes, int width, int height) {
+        final int plane = width * height;
+        for (int z = 0; z < planes; z++) {
+            for (int y = height - 1; y >= 1; y--) {
+                subRow(q, z * plane + y * width, q, z * plane + (y - 1) * width, width);
+            }
+        }
+    }
+
+    static void undiffRows(int[] q, int planes, int width, int height) {
+        final int plane = width * height;
+        for (int z = 0; z < planes; z++) {
+            for (int y = 1; y < height; y++) {
+                addRow(q, z * plane + y * width, q, z * plane + (y - 1) * width, width);
+            }
+        }
+    }
+
+    /**
+     * Ebene z -= Ebene z-1; die erste Ebene des Slabs gegen die letzte des vorigen Slabs ({@code prev}).
+     * Danach hält {@code prev} die letzte Ebene dieses Slabs vor dem Differenzieren.
+     */
+    static void diffZ(int[] q, int planes, int plane, int[] prev) {
+        final int[] last = Arrays.copyOfRange(q, (planes - 1) * plane, planes * plane);
+        for (int z = planes - 1; z >= 1; z--) {
+            subRow(q, z * plane, q, (z - 1) * plane, plane);
+        }
+        subRow(q, 0, prev, 0, plane);
+        System.arraycopy(last, 0, prev, 0, plane);
+    }
+
+    static void undiffZ(int[] q, int planes, int plane, int[] prev) {
+        addRow(q, 0, prev, 0, plane);
+        for (int z = 1; z < planes; z++) {
+            addRow(q, z * plane, q, (z - 1) * plane, plane);
+        }
+        System.arraycopy(q, (planes - 1) * plane, prev, 0, plane);
+    }
+
+    private static void subRow(int[] dst, int d, int[] src, int s, int len) {
+        int i = 0;
+        for (int bound = SI.loopBound(len); i < bound; i += SI.length()) {
+            IntVector.fromArray(SI, dst, d + i).sub(IntVector.fromArray(SI, src, s + i)).intoArray(dst, d + i);
+        }
+        for (; i < len; i++) dst[d + i] -= src[s + i];
+    }
+
+    private static void addRow(int[] dst, int d, int[] src, int s, int len) {
+        int i = 0;
+        for (int bound = SI.loopBound(len); i < bound; i += SI.length()) {
+            IntVector.fromArray(SI, dst, d + i).add(IntVector.fromArray(SI, src, s + i)).intoArray(dst, d + i);
+        }
+        for (; i < len; i++) dst[d + i] += src[s + i];
+    }
+
+    // ===================== Entropie-Stufe =====================
+
+    static void zigzag(int[] q, int n) {
+        int i = 0;
+        for (int bound = SI.loopBound(n); i < bound; i += SI.length()) {
+            IntVector v = IntVector.fromArray(SI, q, i);
+            v.lanewise(VectorOperators.LSHL, 1).lanewise(VectorOperators.XOR, v.lanewise(VectorOperators.ASHR, 31)).intoArray(q, i);
+        }
+        for (; i < n; i++) q[i] = (q[i] << 1) ^ (q[i] >> 31);
+    }
+
+    static void unzigzag(int[] q, int n) {
+        int i = 0;
+        for (int bound = SI.loopBound(n); i < bound; i += SI.length()) {
+            IntVector v = IntVector.fromArray(SI, q, i);
+            v.lanewise(VectorOperators.LSHR, 1).lanewise(VectorOperators.XOR, v.and(1).neg()).intoArray(q, i);
+        }
+        for (; i < n; i++) q[i] = (q[i] >>> 1) ^ -(q[i] & 1);
+    }
+
+    private static int blockBits(int[] q, int from, int to) {
+        IntVector acc = IntVector.zero(SI);
+        int i = from;
+        for (int bound = from + SI.loopBound(to - from); i < bound; i += SI.length()) {
+            acc = acc.or(IntVector.fromArray(SI, q, i));
+        }
+        int or = acc.reduceLanes(VectorOperators.OR);
+        for (; i < to; i++) or |= q[i];
+        return 32 - Integer.numberOfLeadingZeros(or);
+    }
+
+    /**
+     * Kleinste Nutzlast für n Residuen: ein Byte pro Residuum (VARINT) bzw. pro Block (BITPACK).
+     */
+    static long minPayload(Entropy entropy, long n) {
+        return entropy == Entropy.BITPACK ? (n + BLOCK - 1) / BLOCK : n;
+    }
+
+    /**
+     * Größte Nutzlast für n Residuen: fünf Bytes pro Residuum (VARINT) bzw. 32 Bit plus Breiten-Byte je Block.
+     */
+    static long maxPayload(Entropy entropy, long n) {
+        return entropy == Entropy.BITPACK ? (n + BLOCK - 1) / BLOCK + n * 4 : n * 5;
+    }
+
+    static void bitpack(int[] q, int n, ByteSink sink) {
+        for (int from = 0; from < n; from += BLOCK) {
+            final int to = Math.min(n, from + BLOCK);
+            final int bits = blockBits(q, from, to);
+            sink.ensure(1 + ((to - from) * bits + 7) / 8);
+            final byte[] buf = sink.buf;
+            int pos = sink.size;
+            buf[pos++] = (byte) bits;
+            if (bits > 0) {
+                long acc = 0;
+                int filled = 0;
+                for (int i = from; i < to; i++) {
+                    acc |= (q[i] & 0xFFFFFFFFL) << filled;
+                    filled += bits;
+                    while (filled >= 8) {
+                        buf[pos++] = (byte) acc;
+                        acc >>>= 8;
+                        filled -= 8;
+                    }
+                }
+                if (filled > 0) buf[pos++] = (byte) acc;
+            }
+            sink.size = pos;
+        }
+    }
+
+    static void unbitpack(byte[] buf, int size, int[] q, int n) throws IOException {
+        int pos = 0;
+        for (int from = 0; from < n; from += BLOCK) {
+            final int to = Math.min(n, from + BLOCK);
+            if (pos >= size) throw new EOFException("Truncated bit-packed block");
+            final int bits = buf[pos++];
+            if (bits < 0 || bits > 32 || pos + ((to - from) * bits + 7) / 8 > size) {
+                throw new IOException("Corrupt bit-packed block");
+            }
+            if (bits == 0) {
+                Arrays.fill(q, from, to, 0);
+                continue;
+            }
+            final long mask = bits == 32 ? 0xFFFFFFFFL : (1L << bits) - 1;
+            long acc = 0;
+            int filled = 0;
+            for (int i = from; i < to; i++) {
+                while (filled < bits) {
+                    acc |= (buf[pos++] & 0xFFL) << filled;
+                    filled += 8;
+                }
+                q[i] = (int) (acc & mask);
+                acc >>>= bits;
+                filled -= bits;
+            }
+        }
+    }
+
+    static void varint(int[] q, int n, ByteSink sink) {
+        sink.ensure(n * 5);
+        final byte[] buf = sink.buf;
+        int pos = sink.size;
+        for (int i = 0; i < n; i++) {
+            int v = q[i];
+            while ((v & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+        sink.size = pos;
+    }
+
+    static void unvarint(byte[] buf, int size, int[] q, int n) throws IOException {
+        int pos = 0;
+        for (int i = 0; i < n; i++) {
+            int v = 0, shift = 0;
+            byte b;
+            do {
+                if (pos >= size || shift > 28) throw new IOException("Corrupt varint");
+                b = buf[pos++];
+                v |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            q[i] = v;
+        }
+    }
+
+    /**
+     * Wachsender Byte-Puffer für die Nutzdaten eines Slabs.
+     */
+    static final class ByteSink {
+        private byte[] buf = new byte[4096];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        void ensure(int more) {
+            if (size + more > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + more));
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.util.LODUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Nested clipmap rings around a viewpoint. Level {@code l} is a {@link SlidingNoiseField} of the same size whose
+ * sample spacing is {@code 2^l} times the spacing of level 0, as in {@link LODUtil.LODMode#TILE_PYRAMID}; it is
+ * centered on the viewpoint in its own sample units.
+ * <p>
+ * {@link #setViewpoint} only records the new targets. {@link #update(long)} then scrolls the levels toroidally within
+ * a sample budget, so a camera step costs a few narrow strips per level. Levels whose window the viewpoint is about
+ * to leave go first, after that finer levels before coarser ones. Levels that did not fit into the budget keep their
+ * old origin and stay pending for the next call.
+ * <p>
+ * Not thread-safe.
+ */
+public class ClipmapNoiseField {
+    private final SlidingNoiseField[] levels;
+    private final int[] targetX, targetY, targetZ;
+    private final boolean[] pending;
+    private final boolean is3D;
+    private long generatedSamples;
+
+    private ClipmapNoiseField(NoiseBackend backend, boolean is3D, float anchorX, float anchorY, float anchorZ, float frequency,
+                              int size, int sizeY, int levelCount) {
+        if (levelCount < 1 || levelCount > 16) {
+            throw new IllegalArgumentException("levelCount must be in [1, 16]");
+        }
+        this.is3D = is3D;
+        this.levels = new SlidingNoiseField[levelCount];
+        for (int l = 0; l < levelCount; l++) {
+            if (is3D) {
+                LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(size, sizeY, size, anchorX, anchorY, anchorZ, frequency, l, LODUtil.LODMode.TILE_PYRAMID);
+                levels[l] = SlidingNoiseField.of3D(backend, lp.baseX(), lp.baseY(), lp.baseZ(), lp.frequencyLOD(), size, sizeY, size);
+            } else {
+                LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(size, size, anchorX, anchorZ, frequency, l, LODUtil.LODMode.TILE_PYRAMID);
+                levels[l] = SlidingNoiseField.of2D(backend, lp.baseX(), lp.baseZ(), lp.frequencyLOD(), size, size);
+            }
+        }
+        this.targetX = new int[levelCount];
+        this.targetY = new int[levelCount];
+        this.targetZ = new int[levelCount];
+        this.pending = new boolean[levelCount];
+    }
+
+    /**
+     * @param size       edge length of every level in x and z, a power of two
+     * @param sizeY      height of every level, a power of two
+     * @param levelCount number of rings; level {@code l} spans {@code 2^l} times the extent of level 0 per axis, i.e.
+     *                   {@code 8^l} times its volume
+     */
+    public static ClipmapNoiseField of3D(NoiseBackend backend, float anchorX, float anchorY, float anchorZ, float frequency,
+                                         int size, int sizeY, int levelCount) {
+        return new ClipmapNoiseField(backend, true, anchorX, anchorY, anchorZ, frequency, size, sizeY, levelCount);
+    }
+
+    /**
+     * @param size       edge length of every level, a power of two
+     * @param levelCount number of rings; level {@code l} spans {@code 2^l} times the extent of level 0 per axis, i.e.
+     *                   {@code 4^l} times its area
+     */
+    public static ClipmapNoiseField of2D(NoiseBackend backend, float anchorX, float anchorZ, float frequency, int size, int levelCount) {
+        return new ClipmapNoiseField(backend, false, anchorX, 0f, anchorZ, frequency, size, 1, levelCount);
+    }
+
+    /**
+     * Centers all levels on the viewpoint, given in level-0 samples. Nothing is generated until {@link #update}.
+     */
+    public void setViewpoint(int x, int y, int z) {
+        for (int l = 0; l < levels.length; l++) {
+            SlidingNoiseField f = levels[l];
+            // arithmetischer Shift = floor-Division, auch für negative Koordinaten
+            targetX[l] = (x >> l) - f.sizeX() / 2;
+            targetY[l] = is3D ? (y >> l) - f.sizeY() / 2 : 0;
+            targetZ[l] = (z >> l) - f.sizeZ() / 2;
+            pending[l] = f.costOfMoveTo(targetX[l], targetY[l], targetZ[l]) > 0;
+        }
+    }
+
+    /**
+     * 2D variant of {@link #setViewpoint(int, int, int)}.
+     */
+    public void setViewpoint(int x, int z) {
+        setViewpoint(x, 0, z);
+    }
+
+    /**
+     * Brings pending levels to their targets in priority order until {@code sampleBudget} would be exceeded. The
+     * first pending level is always updated, so every call makes progress.
+     *
+     * @return the number of levels that are still pending
+     */
+    public int update(long sampleBudget) {
+        List<Integer> order = new ArrayList<>(levels.length);
+        for (int l = 0; l < levels.length; l++) {
+            if (pending[l]) order.add(l);
+        }
+        order.sort(Comparator.comparing((Integer l) -> !isUrgent(l)).thenComparingInt(l -> l));
+
+        long spent = 0;
+        int left = 0;
+        for (int l : order) {
+            SlidingNoiseField f = levels[l];
+            long cost = f.costOfMoveTo(targetX[l], targetY[l], targetZ[l]);
+            if (spent > 0 && spent + cost > sampleBudget) {
+                left++;
+                continue;
+            }
+            f.moveTo(targetX[l], targetY[l], targetZ[l]);
+            pending[l] = false;
+            spent += cost;
+        }
+        generatedSamples += spent;
+        return left;
+    }
+
+    /**
+     * Updates all pending levels.
+     */
+    public void update() {
+        update(Long.MAX_VALUE);
+    }
+
+    /**
+     * Der Viewpoint liegt näher als ein Viertel der Fensterbreite am Rand des aktuellen Fensters.
+     */
+    private boolean isUrgent(int l) {
+        SlidingNoiseField f = levels[l];
+        return nearEdge(targetX[l], f.originX(), f.sizeX())
+                || (is3D && nearEdge(targetY[l], f.originY(), f.sizeY()))
+                || nearEdge(targetZ[l], f.originZ(), f.sizeZ());
+    }
+
+    private static boolean nearEdge(int target, int origin, int size) {
+        // target ist die gewünschte Fensterposition; der Viewpoint liegt bei target + size/2
+        final int local = target + size / 2 - origin;
+        return local < size / 4 || local >= size - size / 4;
+    }
+
+    public boolean isPending(int level) {
+        return pending[level];
+    }
+
+    public SlidingNoiseField level(int level) {
+        return levels[level];
+    }
+
+    public int levelCount() {
+        return levels.length;
+    }
+
+    /**
+     * Samples generated by {@link #update} over all levels.
+     */
+    public long generatedSamples() {
+        return generatedSamples;
+    }
+}
@@ -0,0 +1,586 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Fractal (fBm) sum of simplex octaves over a fixed-size region. Octave {@code i} samples the grid of octave 0 scaled
+ * by {@code lacunarity^i} and is weighted with {@code gain^i}:
+ * {@code sum_i gain^i * noise(lacunarity^i * (x0 + x * frequency), ...)}.
+ * <p>
+ * With {@link #withOctaveCulling(boolean) octave culling} octaves whose features are shorter than two samples are
+ * skipped: their sample spacing {@code frequency * lacunarity^i} is above {@value #NYQUIST_SPACING} lattice units, so
+ * they would only add aliasing. For a {@code TILE_PYRAMID} LOD level pass the LOD frequency
+ * ({@code frequency * 2^level}); coarse levels then evaluate fewer octaves. {@link #withCullingFade(float)} fades
+ * octaves out over a number of octaves below the limit instead of cutting them off.
+ * <p>
+ * {@link #classify} only decides {@code density + noise > threshold} and stops evaluating a voxel once the octaves
+ * still missing cannot change the answer; {@link #classifyBricks} first decides whole bricks from {@link #bounds} and
+ * only generates the bricks the surface passes through.
+ * <p>
+ * {@link #withAdaptiveResolution(float)} evaluates slowly varying low octaves on coarser grids and interpolates them.
+ * <p>
+ * Octaves are generated with {@link NoiseBackend#generateRegion}. Not thread-safe.
+ */
+public class FractalNoise {
+    /**
+     * Largest sample spacing (in lattice units) at which an octave is still evaluated; simplex features are about one
+     * lattice unit long, so larger spacings sample them with less than two samples.
+     */
+    public static final float NYQUIST_SPACING = 0.5f;
+    /**
+     * Bound on {@code |noise|} of a single octave. Sampled maxima of the 3D and 2D kernels stay below 1.0 for both
+     * calculation modes; the bound adds 5 % headroom.
+     */
+    public static final float OCTAVE_BOUND = 1.05f;
+
+    private final NoiseBackend backend;
+    private final boolean is3D;
+    private final int width, height, depth;
+    private final int octaves;
+    private final float[] data;
+    private float[] scratch = new float[0];
+    private float lacunarity = 2f;
+    private float gain = 0.5f;
+    private boolean octaveCulling;
+    private float cullingFade;
+    private float maxCellSpacing;
+    private float[] nodes = new float[0], nodeRows = new float[0];
+    private long generatedSamples;
+
+    private FractalNoise(NoiseBackend backend, boolean is3D, int width, int height, int depth, int octaves) {
+        if (backend.is3D != is3D) {
+            throw new IllegalArgumentException("Backend is " + (backend.is3D ? "3D" : "2D"));
+        }
+        if (width < 1 || height < 1 || depth < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (octaves < 1 || octaves > 31) {
+            throw new IllegalArgumentException("octaves must be in [1, 31]");
+        }
+        this.backend = backend;
+        this.is3D = is3D;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.octaves = octaves;
+        this.data = new float[width * height * depth];
+    }
+
+    public static FractalNoise of3D(NoiseBackend backend, int width, int height, int depth, int octaves) {
+        return new FractalNoise(backend, true, width, height, depth, octaves);
+    }
+
+    public static FractalNoise of2D(NoiseBackend backend, int width, int depth, int octaves) {
+        return new FractalNoise(backend, false, width, 1, depth, octaves);
+    }
+
+    /**
+     * Frequency factor between two octaves, default 2.
+     */
+    public FractalNoise withLacunarity(float lacunarity) {
+        if (!(lacunarity > 1f)) {
+            throw new IllegalArgumentException("lacunarity must be > 1");
+        }
+        this.lacunarity = lacunarity;
+        return this;
+    }
+
+    /**
+     * Amplitude factor between two octaves, default 0.5.
+     */
+    public FractalNoise withGain(float gain) {
+        if (!(gain > 0f)) {
+            throw new IllegalArgumentException("gain must be > 0");
+        }
+        this.gain = gain;
+        return this;
+    }
+
+    /**
+     * Skips octaves whose sample spacing exceeds {@link #NYQUIST_SPACING}. Off by default.
+     */
+    public FractalNoise withOctaveCulling(boolean octaveCulling) {
+        this.octaveCulling = octaveCulling;
+        return this;
+    }
+
+    /**
+     * Fades culled octaves out over {@code octaves} octaves below the limit instead of a hard cut; 0 (default) cuts.
+     */
+    public FractalNoise withCullingFade(float octaves) {
+        if (!(octaves >= 0f)) {
+            throw new IllegalArgumentException("fade must be >= 0");
+        }
+        this.cullingFade = octaves;
+        return this;
+    }
+
+    /**
+     * Evaluates every octave on its own grid: cells of {@code 2^k} samples per axis, with the largest {@code k} that
+     * keeps a cell at most {@code maxCellSpacing} lattice units wide, interpolated trilinearly (2D: bilinearly) to
+     * full resolution before it is added. Low octaves then cost a fraction of a full pass and only the finest ones run
+     * at full resolution. 0 (default) evaluates every octave at full resolution; smaller spacings trade speed for
+     * accuracy, about 0.1 is a sensible start. Only used by {@code generate}; {@code classify} stays exact.
+     */
+    public FractalNoise withAdaptiveResolution(float maxCellSpacing) {
+        if (!(maxCellSpacing >= 0f)) {
+            throw new IllegalArgumentException("maxCellSpacing must be >= 0");
+        }
+        this.maxCellSpacing = maxCellSpacing;
+        return this;
+    }
+
+    /**
+     * Generates the 3D region with octave 0 anchored at {@code (x0, y0, z0)} into {@link #data()}.
+     */
+    public void generate(float x0, float y0, float z0, float frequency) {
+        if (!is3D) throw new IllegalStateException("2D field");
+        accumulate(x0, y0, z0, frequency);
+    }
+
+    /**
+     * 2D variant of {@link #generate(float, float, float, float)}.
+     */
+    public void generate(float x0, float z0, float frequency) {
+        if (is3D) throw new IllegalStateException("3D field");
+        accumulate(x0, 0f, z0, frequency);
+    }
+
+    private void accumulate(float x0, float y0, float z0, float frequency) {
+        final int n = data.length;
+        boolean first = true;
+        for (int o = 0; o < octaves; o++) {
+            final float w = octaveWeight(frequency, o);
+            if (w == 0f) continue;
+            final float scale = octaveScale(o);
+            final float[] target = first ? data : scratch(n);
+            final int cell = octaveCell(frequency, o);
+            if (cell == 1) {
+                backend.generateRegion(x0 * scale, y0 * scale, z0 * scale, frequency * scale,
+                        0, 0, 0, width, height, depth, target, 0, width, width * height);
+                generatedSamples += n;
+            } else {
+                generateUpsampled(x0 * scale, y0 * scale, z0 * scale, frequency * scale, cell, target);
+            }
+            if (first) {
+                if (w != 1f) {
+                    for (int i = 0; i < n; i++) data[i] *= w;
+                }
+                first = false;
+            } else {
+                for (int i = 0; i < n; i++) data[i] += w * target[i];
+            }
+        }
+        if (first) Arrays.fill(data, 0f);
+    }
+
+    /**
+     * Cell size in samples octave {@code octave} is evaluated on at sample spacing {@code frequency}; 1 means full
+     * resolution.
+     */
+    public int octaveCell(float frequency, int octave) {
+        if (maxCellSpacing == 0f) return 1;
+        final double spacing = (double) frequency * Math.pow(lacunarity, octave);
+        final int maxCell = Integer.highestOneBit(Math.max(width, Math.max(height, depth)));
+        int cell = 1;
+        while (cell < maxCell && spacing * (cell << 1) <= maxCellSpacing) cell <<= 1;
+        return cell;
+    }
+
+    /**
+     * Erzeugt eine Oktave auf dem Eckraster mit Zellgröße {@code cell} und interpoliert sie nach {@code out}: erst
+     * jede Eckzeile auf volle Breite, dann pro Ausgabezeile ein Y/Z-Lerp zwischen vier solchen Zeilen.
+     */
+    private void generateUpsampled(float x0, float y0, float z0, float frequency, int cell, float[] out) {
+        final int cy = is3D ? cell : 1;
+        final int gx = (width + cell - 2) / cell + 1, gy = (height + cy - 2) / cy + 1, gz = (depth + cell - 2) / cell + 1;
+        if (nodes.length < gx * gy * gz) nodes = new float[gx * gy * gz];
+        backend.generateRegion(x0, y0, z0, frequency, 0, 0, 0, cell, cy, cell, gx, gy, gz, nodes, 0, gx, gx * gy);
+        generatedSamples += (long) gx * gy * gz;
+
+        final float inv = 1f / cell;
+        if (nodeRows.length < gy * gz * width) nodeRows = new float[gy * gz * width];
+        for (int r = 0; r < gy * gz; r++) {
+            final int src = r * gx, dst = r * width;
+            for (int x = 0; x < width; x++) {
+                final int i = x / cell, t = x - i * cell;
+                final float a = nodes[src + i];
+                nodeRows[dst + x] = t == 0 ? a : Math.fma(nodes[src + i + 1] - a, t * inv, a);
+            }
+        }
+        final float invY = 1f / cy;
+        for (int z = 0; z < depth; z++) {
+            final int kz = z / cell, tz = z - kz * cell;
+            final float fz = tz * inv;
+            for (int y = 0; y < height; y++) {
+                final int ky = y / cy, ty = y - ky * cy;
+                final float fy = ty * invY;
+                final int r00 = (kz * gy + ky) * width;
+                final int r10 = ty == 0 ? r00 : r00 + width;
+                final int r01 = tz == 0 ? r00 : r00 + gy * width;
+                final int r11 = tz == 0 ? r10 : r10 + gy * width;
+                final int dst = (z * height + y) * width;
+                for (int x = 0; x < width; x++) {
+                    final float a = Math.fma(nodeRows[r10 + x] - nodeRows[r00 + x], fy, nodeRows[r00 + x]);
+                    final float b = Math.fma(nodeRows[r11 + x] - nodeRows[r01 + x], fy, nodeRows[r01 + x]);
+                    out[dst + x] = Math.fma(b - a, fz, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Classifies every voxel of the 3D region as solid ({@code density + fbm > threshold}) or air. Octaves are added
+     * from low to high frequency; after each octave a voxel is settled once its partial sum is further than
+     * {@link #remainingAmplitude} from the threshold. The next octave is only generated for runs of rows that still
+     * contain an unsettled voxel, and evaluation ends as soon as every voxel is settled.
+     *
+     * @param density   per-voxel density in the layout of {@link #data()}, or {@code null} for 0
+     * @param exactBand voxels whose final value may lie within this distance of the threshold are evaluated with all
+     *                  octaves and report their exact value; 0 only evaluates what the classification needs
+     */
+    public ThresholdMask classify(float x0, float y0, float z0, float frequency, float[] density, float threshold, float exactBand) {
+        if (!is3D) throw new IllegalStateException("2D field");
+        return classifyRegion(x0, y0, z0, frequency, density, threshold, exactBand);
+    }
+
+    /**
+     * 2D variant of {@link #classify(float, float, float, float, float[], float, float)}.
+     */
+    public ThresholdMask classify(float x0, float z0, float frequency, float[] density, float threshold, float exactBand) {
+        if (is3D) throw new IllegalStateException("3D field");
+        return classifyRegion(x0, 0f, z0, frequency, density, threshold, exactBand);
+    }
+
+    private ThresholdMask classifyRegion(float x0, float y0, float z0, float frequency, float[] density, float threshold, float exactBand) {
+        final int n = data.length;
+        if (density != null && density.length != n) {
+            throw new IllegalArgumentException("density must have " + n + " values");
+        }
+        if (!(exactBand >= 0f)) {
+            throw new IllegalArgumentException("exactBand must be >= 0");
+        }
+        final float[] sum = density != null ? density.clone() : new float[n];
+        final BitSet open = new BitSet(n);
+        open.set(0, n);
+        final int rows = height * depth;
+        final boolean[] activeRows = new boolean[rows];
+        Arrays.fill(activeRows, true);
+        // Voxel, die bis zur letzten aktiven Oktave offen bleiben, haben am Ende ihren exakten Wert
+        final BitSet exact = new BitSet(n);
+        int last = -1;
+        for (int o = 0; o < octaves; o++) {
+            if (octaveWeight(frequency, o) != 0f) last = o;
+        }
+        long evaluated = 0;
+
+        for (int o = 0; o < octaves && !open.isEmpty(); o++) {
+            final float w = octaveWeight(frequency, o);
+            if (w == 0f) continue;
+            final float scale = octaveScale(o);
+            final float margin = remainingAmplitude(frequency, o + 1) + exactBand;
+
+            for (int z = 0; z < depth; z++) {
+                int y = 0;
+                while (y < height) {
+                    if (!activeRows[z * height + y]) { y++; continue; }
+                    int end = y + 1;
+                    while (end < height && activeRows[z * height + end]) end++;
+                    // zusammenhängende offene Zeilen in einem Region-Aufruf
+                    final int run = end - y, count = run * width;
+                    final float[] octave = scratch(count);
+                    backend.generateRegion(x0 * scale, y0 * scale, z0 * scale, frequency * scale,
+                            0, y, z, width, run, 1, octave, 0, width, count);
+                    evaluated += count;
+
+                    for (int r = 0; r < run; r++) {
+                        final int row = z * height + y + r, base = row * width;
+                        boolean rowOpen = false;
+                        for (int i = open.nextSetBit(base); i >= 0 && i < base + width; i = open.nextSetBit(i + 1)) {
+                            final float v = sum[i] += w * octave[r * width + i - base];
+                            if (o == last) exact.set(i);
+                            if (v - margin > threshold || v + margin < threshold) open.clear(i);
+                            else rowOpen = true;
+                        }
+                        activeRows[row] = rowOpen;
+                    }
+                    y = end;
+                }
+            }
+        }
+        generatedSamples += evaluated;
+
+        final BitSet solid = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            if (sum[i] > threshold) solid.set(i);
+        }
+        if (last < 0) exact.set(0, n);
+        return new ThresholdMask(solid, exact, sum, evaluated);
+    }
+
+    /**
+     * Conservative bounds {@code {min, max}} of the fBm over the sample box
+     * {@code [offX, offX + w) x [offY, offY + h) x [offZ, offZ + d)} of the region anchored at {@code (x0, y0, z0)},
+     * from the corner samples of each octave (see {@link NoiseBounds}). Octaves that are much coarser than the box
+     * cost 8 samples (4 in 2D), the others are not sampled and count with their full amplitude.
+     */
+    public float[] bounds(float x0, float y0, float z0, float frequency, int offX, int offY, int offZ, int w, int h, int d) {
+        if (w < 1 || h < 1 || d < 1 || (!is3D && h != 1)) {
+            throw new IllegalArgumentException("Invalid box " + w + "x" + h + "x" + d);
+        }
+        if (!is3D) y0 = 0f;
+        final int cx = w > 1 ? 2 : 1, cy = h > 1 ? 2 : 1, cz = d > 1 ? 2 : 1;
+        final float[] corners = new float[8];
+        float lo = 0f, hi = 0f;
+        for (int o = 0; o < octaves; o++) {
+            final float wt = octaveWeight(frequency, o);
+            if (wt == 0f) continue;
+            final float scale = octaveScale(o);
+            final float halfDiagonal = halfDiagonal(w - 1, h - 1, d - 1, frequency * scale);
+            float cMin = -OCTAVE_BOUND, cMax = OCTAVE_BOUND;
+            if (NoiseBounds.worthSampling(halfDiagonal)) {
+                backend.generateRegion(x0 * scale, y0 * scale, z0 * scale, frequency * scale,
+                        offX, offY, offZ, Math.max(1, w - 1), Math.max(1, h - 1), Math.max(1, d - 1), cx, cy, cz,
+                        corners, 0, cx, cx * cy);
+                generatedSamples += cx * cy * cz;
+                cMin = Float.MAX_VALUE; cMax = -Float.MAX_VALUE;
+                for (int i = 0; i < cx * cy * cz; i++) {
+                    cMin = Math.min(cMin, corners[i]);
+                    cMax = Math.max(cMax, corners[i]);
+                }
+            }
+            lo += wt * NoiseBounds.lower(cMin, halfDiagonal);
+            hi += wt * NoiseBounds.upper(cMax, halfDiagonal);
+        }
+        return new float[]{lo, hi};
+    }
+
+    /**
+     * Like {@link #classify(float, float, float, float, float[], float, float)}, but decides whole bricks of
+     * {@code brickSize}³ samples first: each octave is sampled once on the brick corners, and a brick whose
+     * {@link #bounds} together with the density range lie entirely above or below the threshold is marked solid or
+     * air without generating it. Only the remaining (mixed) bricks are generated with all octaves; their voxels are
+     * exact.
+     */
+    public ThresholdMask classifyBricks(float x0, float y0, float z0, float frequency, float[] density, float threshold, int brickSize) {
+        if (!is3D) throw new IllegalStateException("2D field");
+        return classifyBrickRegion(x0, y0, z0, frequency, density, threshold, brickSize);
+    }
+
+    /**
+     * 2D variant of {@link #classifyBricks(float, float, float, float, float[], float, int)} with square bricks.
+     */
+    public ThresholdMask classifyBricks(float x0, float z0, float frequency, float[] density, float threshold, int brickSize) {
+        if (is3D) throw new IllegalStateException("3D field");
+        return classifyBrickRegion(x0, 0f, z0, frequency, density, threshold, brickSize);
+    }
+
+    private ThresholdMask classifyBrickRegion(float x0, float y0, float z0, float frequency, float[] density, float threshold, int B) {
+        final int n = data.length;
+        if (density != null && density.length != n) {
+            throw new IllegalArgumentException("density must have " + n + " values");
+        }
+        if (B < 1) {
+            throw new IllegalArgumentException("brickSize must be positive");
+        }
+        final int bx = (width + B - 1) / B, by = is3D ? (height + B - 1) / B : 1, bz = (depth + B - 1) / B;
+        final int bricks = bx * by * bz;
+        final float[] lo = new float[bricks], hi = new float[bricks];
+        long evaluated = 0;
+
+        // Oktavenschranken aus einem gemeinsamen Eckgitter (Bricks teilen sich ihre Ecken)
+        final int gx = bx + 1, gy = is3D ? by + 1 : 1, gz = bz + 1;
+        final float[] grid = new float[gx * gy * gz];
+        for (int o = 0; o < octaves; o++) {
+            final float wt = octaveWeight(frequency, o);
+            if (wt == 0f) continue;
+            final float scale = octaveScale(o);
+            final float halfDiagonal = halfDiagonal(B, is3D ? B : 0, B, frequency * scale);
+            if (!NoiseBounds.worthSampling(halfDiagonal)) {
+                for (int b = 0; b < bricks; b++) {
+                    lo[b] -= wt * OCTAVE_BOUND;
+                    hi[b] += wt * OCTAVE_BOUND;
+                }
+                continue;
+            }
+            backend.generateRegion(x0 * scale, y0 * scale, z0 * scale, frequency * scale,
+                    0, 0, 0, B, is3D ? B : 1, B, gx, gy, gz, grid, 0, gx, gx * gy);
+            evaluated += grid.length;
+            for (int k = 0; k < bz; k++) {
+                for (int j = 0; j < by; j++) {
+                    for (int i = 0; i < bx; i++) {
+                        float cMin = Float.MAX_VALUE, cMax = -Float.MAX_VALUE;
+                        for (int c = 0; c < 8; c++) {
+                            final int cj = is3D ? j + ((c >> 1) & 1) : 0;
+                            final float v = grid[(k + (c >> 2)) * gx * gy + cj * gx + i + (c & 1)];
+                            cMin = Math.min(cMin, v);
+                            cMax = Math.max(cMax, v);
+                        }
+                        final int b = (k * by + j) * bx + i;
+                        lo[b] += wt * NoiseBounds.lower(cMin, halfDiagonal);
+                        hi[b] += wt * NoiseBounds.upper(cMax, halfDiagonal);
+                    }
+                }
+            }
+        }
+
+        final float[] sum = new float[n];
+        final BitSet solid = new BitSet(n);
+        final BitSet exact = new BitSet(n);
+        final int plane = width * height;
+        for (int k = 0; k < bz; k++) {
+            for (int j = 0; j < by; j++) {
+                for (int i = 0; i < bx; i++) {
+                    final int b = (k * by + j) * bx + i;
+                    final int ox = i * B, oy = j * B, oz = k * B;
+                    final int w = Math.min(B, width - ox), h = is3D ? Math.min(B, height - oy) : 1, d = Math.min(B, depth - oz);
+                    float dMin = 0f, dMax = 0f;
+                    if (density != null) {
+                        dMin = Float.MAX_VALUE; dMax = -Float.MAX_VALUE;
+                        for (int z = 0; z < d; z++) {
+                            for (int y = 0; y < h; y++) {
+                                final int row = (oz + z) * plane + (oy + y) * width + ox;
+                                for (int x = 0; x < w; x++) {
+                                    dMin = Math.min(dMin, density[row + x]);
+                                    dMax = Math.max(dMax, density[row + x]);
+                                }
+                            }
+                        }
+                    }
+                    final boolean allSolid = dMin + lo[b] > threshold;
+                    if (allSolid || dMax + hi[b] <= threshold) {
+                        if (allSolid) {
+                            for (int z = 0; z < d; z++) {
+                                for (int y = 0; y < h; y++) {
+                                    final int row = (oz + z) * plane + (oy + y) * width + ox;
+                                    solid.set(row, row + w);
+                                }
+                            }
+                        }
+                        continue;
+                    }
+                    // gemischter Brick: alle Oktaven direkt in sum
+                    for (int o = 0; o < octaves; o++) {
+                        final float wt = octaveWeight(frequency, o);
+                        if (wt == 0f) continue;
+                        final float scale = octaveScale(o);
+                        final float[] octave = scratch(w * h * d);
+                        backend.generateRegion(x0 * scale, y0 * scale, z0 * scale, frequency * scale,
+                                ox, oy, oz, w, h, d, octave, 0, w, w * h);
+                        evaluated += (long) w * h * d;
+                        int src = 0;
+                        for (int z = 0; z < d; z++) {
+                            for (int y = 0; y < h; y++) {
+                                final int row = (oz + z) * plane + (oy + y) * width + ox;
+                                for (int x = 0; x < w; x++) sum[row + x] += wt * octave[src++];
+                            }
+                        }
+                    }
+                    for (int z = 0; z < d; z++) {
+                        for (int y = 0; y < h; y++) {
+                            final int row = (oz + z) * plane + (oy + y) * width + ox;
+                            for (int x = 0; x < w; x++) {
+                                if (density != null) sum[row + x] += density[row + x];
+                                if (sum[row + x] > threshold) solid.set(row + x);
+                            }
+                            exact.set(row, row + w);
+                        }
+                    }
+                }
+            }
+        }
+        generatedSamples += evaluated;
+        return new ThresholdMask(solid, exact, sum, evaluated);
+    }
+
+    private float halfDiagonal(int dx, int dy, int dz, float spacing) {
+        return 0.5f * spacing * (float) Math.sqrt((double) dx * dx + (double) dy * dy + (double) dz * dz);
+    }
+
+    private float[] scratch(int n) {
+        if (scratch.length < n) scratch = new float[n];
+        return scratch;
+    }
+
+    /**
+     * {@code lacunarity^octave}.
+     */
+    public float octaveScale(int octave) {
+        return (float) Math.pow(lacunarity, octave);
+    }
+
+    /**
+     * {@code gain^octave}, the weight of an octave without culling.
+     */
+    public float amplitude(int octave) {
+        return (float) Math.pow(gain, octave);
+    }
+
+    /**
+     * Weight octave {@code octave} gets at sample spacing {@code frequency}: its amplitude, reduced or zeroed by
+     * culling.
+     */
+    public float octaveWeight(float frequency, int octave) {
+        final float amplitude = amplitude(octave);
+        if (!octaveCulling) return amplitude;
+        final double spacing = (double) frequency * Math.pow(lacunarity, octave);
+        if (spacing > NYQUIST_SPACING) return 0f;
+        if (cullingFade == 0f) return amplitude;
+        // Abstand zur Grenze in Oktaven; innerhalb der Fade-Breite linear ausblenden
+        final double below = Math.log(NYQUIST_SPACING / spacing) / Math.log(lacunarity);
+        return below >= cullingFade ? amplitude : (float) (amplitude * below / cullingFade);
+    }
+
+    /**
+     * Bound on {@code |sum|} of the weighted octaves {@code fromOctave..octaves-1} at sample spacing
+     * {@code frequency}.
+     */
+    public float remainingAmplitude(float frequency, int fromOctave) {
+        float remaining = 0f;
+        for (int o = fromOctave; o < octaves; o++) {
+            remaining += octaveWeight(frequency, o);
+        }
+        return remaining * OCTAVE_BOUND;
+    }
+
+    /**
+     * Number of octaves with a non-zero weight at sample spacing {@code frequency}.
+     */
+    public int activeOctaves(float frequency) {
+        int active = 0;
+        for (int o = 0; o < octaves; o++) {
+            if (octaveWeight(frequency, o) != 0f) active++;
+        }
+        return active;
+    }
+
+    public int octaves() {
+        return octaves;
+    }
+
+    public float[] data() {
+        return data;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Samples generated so far over all octaves.
+     */
+    public long generatedSamples() {
+        return generatedSamples;
+    }
+}
@@ -0,0 +1,54 @@
+package de.verdox.noise.field;
+
+/**
+ * Value bounds of one simplex octave over an axis-aligned box, derived from samples at the corners of the box: every
+ * point of the box is at most half the box diagonal away from a corner, and the noise changes by at most
+ * {@code SLOPE * distance + JUMP} over that distance. The result is clamped to {@link FractalNoise#OCTAVE_BOUND}.
+ * <p>
+ * The constants are sampled maxima of the 3D and 2D kernels in both calculation modes plus headroom: the slope stays
+ * below 7.4 per lattice unit, and the 3D kernel has seams at simplex borders that jump by up to 0.006.
+ */
+public final class NoiseBounds {
+    /**
+     * Bound on the slope of one octave, per lattice unit.
+     */
+    public static final float SLOPE = 8f;
+    /**
+     * Bound on the jump across a simplex seam.
+     */
+    public static final float JUMP = 0.01f;
+
+    private NoiseBounds() {
+    }
+
+    /**
+     * How far the noise inside a box can deviate from its nearest corner sample.
+     *
+     * @param halfDiagonal half the box diagonal in lattice units
+     */
+    public static float spread(float halfDiagonal) {
+        return SLOPE * halfDiagonal + JUMP;
+    }
+
+    /**
+     * Lower bound of the noise inside a box whose smallest corner sample is {@code cornerMin}.
+     */
+    public static float lower(float cornerMin, float halfDiagonal) {
+        return Math.max(-FractalNoise.OCTAVE_BOUND, cornerMin - spread(halfDiagonal));
+    }
+
+    /**
+     * Upper bound of the noise inside a box whose largest corner sample is {@code cornerMax}.
+     */
+    public static float upper(float cornerMax, float halfDiagonal) {
+        return Math.min(FractalNoise.OCTAVE_BOUND, cornerMax + spread(halfDiagonal));
+    }
+
+    /**
+     * Whether corner samples can tighten the bound at all; boxes much larger than a lattice cell get
+     * {@code ±OCTAVE_BOUND} anyway.
+     */
+    public static boolean worthSampling(float halfDiagonal) {
+        return spread(halfDiagonal) < 2 * FractalNoise.OCTAVE_BOUND;
+    }
+}
@@ -0,0 +1,166 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseField;
+
+import java.util.function.Consumer;
+
+/**
+ * Generates a field coarse-to-fine. The first pass computes every {@code coarseScale}-th sample per axis; every
+ * further pass halves the spacing and computes only the samples that are new on that level, so all passes together
+ * cost exactly one full-resolution pass. After each pass {@link #refine()} returns a compact preview of all samples
+ * at the current spacing, which can be published while the rest is still missing.
+ * <p>
+ * Passes use the sample steps of {@link NoiseBackend#generateRegion}; sample indices stay integer, so the finished
+ * field is bit-identical to a single full-resolution region with the same anchor. Sizes and {@code coarseScale} must
+ * be powers of two. Not thread-safe.
+ */
+public class ProgressiveNoiseField {
+    private final NoiseBackend backend;
+    private final boolean is3D;
+    private final float x0, y0, z0, frequency;
+    private final int width, height, depth;
+    private final int coarseScale;
+    private final float[] data;
+    private float[] scratch = new float[0];
+    private int scale;
+    private long generatedSamples;
+
+    private ProgressiveNoiseField(NoiseBackend backend, boolean is3D, float x0, float y0, float z0, float frequency,
+                                  int width, int height, int depth, int coarseScale) {
+        if (backend.is3D != is3D) {
+            throw new IllegalArgumentException("Backend is " + (backend.is3D ? "3D" : "2D"));
+        }
+        for (int n : new int[]{width, height, depth, coarseScale}) {
+            if (n < 1 || Integer.bitCount(n) != 1) {
+                throw new IllegalArgumentException(n + " is not a power of two");
+            }
+        }
+        this.backend = backend;
+        this.is3D = is3D;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.z0 = z0;
+        this.frequency = frequency;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.coarseScale = coarseScale;
+        this.data = new float[width * height * depth];
+    }
+
+    public static ProgressiveNoiseField of3D(NoiseBackend backend, float x0, float y0, float z0, float frequency,
+                                             int width, int height, int depth, int coarseScale) {
+        return new ProgressiveNoiseField(backend, true, x0, y0, z0, frequency, width, height, depth, coarseScale);
+    }
+
+    public static ProgressiveNoiseField of2D(NoiseBackend backend, float x0, float z0, float frequency,
+                                             int width, int depth, int coarseScale) {
+        return new ProgressiveNoiseField(backend, false, x0, 0f, z0, frequency, width, 1, depth, coarseScale);
+    }
+
+    /**
+     * Runs the next pass.
+     *
+     * @return all samples at the new spacing, x-major and densely packed ({@code width / scale()} per row)
+     * @throws IllegalStateException if the field is already complete
+     */
+    public NoiseField refine() {
+        if (isComplete()) {
+            throw new IllegalStateException("Field is already complete");
+        }
+        if (scale == 0) {
+            final int s = coarseScale;
+            generateStrided(0, 0, 0, s, is3D ? s : 1, s);
+            scale = s;
+        } else {
+            final int s = scale / 2, s2 = scale;
+            // neu auf Stufe s: Samples mit mindestens einer ungeraden Koordinate (in Einheiten von s), disjunkt zerlegt
+            generateStrided(0, 0, s, s, is3D ? s : 1, s2);                 // z ungerade
+            if (is3D) generateStrided(0, s, 0, s, s2, s2);                  // z gerade, y ungerade
+            generateStrided(s, 0, 0, s2, is3D ? s2 : 1, s2);                // z, y gerade, x ungerade
+            scale = s;
+        }
+        return preview();
+    }
+
+    /**
+     * Runs all remaining passes and hands every preview to {@code publisher}.
+     */
+    public void run(Consumer<NoiseField> publisher) {
+        while (!isComplete()) {
+            publisher.accept(refine());
+        }
+    }
+
+    /**
+     * Generiert das Teilraster {@code offset + i * step} kompakt in den Scratch-Puffer und verteilt es auf
+     * {@link #data}.
+     */
+    private void generateStrided(int ox, int oy, int oz, int sx, int sy, int sz) {
+        final int w = count(width, ox, sx), h = count(height, oy, sy), d = count(depth, oz, sz);
+        final int n = w * h * d;
+        if (n == 0) return;
+        if (scratch.length < n) scratch = new float[n];
+
+        backend.generateRegion(x0, y0, z0, frequency, ox, oy, oz, sx, sy, sz, w, h, d, scratch, 0, w, w * h);
+        generatedSamples += n;
+
+        final int plane = width * height;
+        int src = 0;
+        for (int k = 0; k < d; k++) {
+            for (int j = 0; j < h; j++) {
+                int dst = (oz + k * sz) * plane + (oy + j * sy) * width + ox;
+                for (int i = 0; i < w; i++, dst += sx) {
+                    data[dst] = scratch[src++];
+                }
+            }
+        }
+    }
+
+    private static int count(int size, int offset, int step) {
+        return size > offset ? (size - offset + step - 1) / step : 0;
+    }
+
+    private NoiseField preview() {
+        if (scale == 1) return NoiseField.copyOf(data, data.length);
+        final int sy = is3D ? scale : 1;
+        final int w = count(width, 0, scale), h = count(height, 0, sy), d = count(depth, 0, scale);
+        final float[] compact = new float[w * h * d];
+        int o = 0;
+        for (int k = 0; k < d; k++) {
+            for (int j = 0; j < h; j++) {
+                int src = k * scale * width * height + j * sy * width;
+                for (int i = 0; i < w; i++, src += scale) {
+                    compact[o++] = data[src];
+                }
+            }
+        }
+        return NoiseField.copyOf(compact, compact.length);
+    }
+
+    /**
+     * Spacing of the samples that are complete: {@code coarseScale} after the first pass, 1 when done, 0 before.
+     */
+    public int scale() {
+        return scale;
+    }
+
+    public boolean isComplete() {
+        return scale == 1;
+    }
+
+    /**
+     * Full-resolution data; samples on multiples of {@link #scale()} are valid.
+     */
+    public float[] data() {
+        return data;
+    }
+
+    /**
+     * Samples generated so far; equals the field size once complete.
+     */
+    public long generatedSamples() {
+        return generatedSamples;
+    }
+}
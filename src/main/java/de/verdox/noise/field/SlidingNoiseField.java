@@ -0,0 +1,238 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+
+/**
+ * Toroidal window of samples around a moving viewpoint. Sample {@code (x, y, z)} of the world grid lies at
+ * {@code anchor + x * frequency} and is stored at {@code (x mod sizeX, y mod sizeY, z mod sizeZ)}, so moving the
+ * window leaves all overlapping samples in place. {@link #moveTo} only generates the newly exposed strips through
+ * {@link NoiseBackend#generateRegion}; the cost of a step is proportional to the motion instead of the area.
+ * <p>
+ * Sizes must be powers of two. For 2D fields the y axis has size 1 and z is the row axis, like in the backends.
+ * Not thread-safe.
+ */
+public class SlidingNoiseField {
+    private final NoiseBackend backend;
+    private final boolean is3D;
+    private final float anchorX, anchorY, anchorZ, frequency;
+    private final int sizeX, sizeY, sizeZ;
+    private final int maskX, maskY, maskZ;
+    private final float[] data;
+
+    private int originX, originY, originZ;
+    private boolean filled;
+    private long generatedSamples;
+
+    private SlidingNoiseField(NoiseBackend backend, boolean is3D, float anchorX, float anchorY, float anchorZ, float frequency,
+                              int sizeX, int sizeY, int sizeZ) {
+        if (backend.is3D != is3D) {
+            throw new IllegalArgumentException("Backend is " + (backend.is3D ? "3D" : "2D"));
+        }
+        checkPowerOfTwo(sizeX);
+        checkPowerOfTwo(sizeY);
+        checkPowerOfTwo(sizeZ);
+        this.backend = backend;
+        this.is3D = is3D;
+        this.anchorX = anchorX;
+        this.anchorY = anchorY;
+        this.anchorZ = anchorZ;
+        this.frequency = frequency;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.maskX = sizeX - 1;
+        this.maskY = sizeY - 1;
+        this.maskZ = sizeZ - 1;
+        this.data = new float[sizeX * sizeY * sizeZ];
+    }
+
+    /**
+     * @param backend a 3D backend that supports {@link NoiseBackend#generateRegion}
+     */
+    public static SlidingNoiseField of3D(NoiseBackend backend, float anchorX, float anchorY, float anchorZ, float frequency,
+                                         int sizeX, int sizeY, int sizeZ) {
+        return new SlidingNoiseField(backend, true, anchorX, anchorY, anchorZ, frequency, sizeX, sizeY, sizeZ);
+    }
+
+    /**
+     * @param backend a 2D backend that supports {@link NoiseBackend#generateRegion}
+     */
+    public static SlidingNoiseField of2D(NoiseBackend backend, float anchorX, float anchorZ, float frequency, int sizeX, int sizeZ) {
+        return new SlidingNoiseField(backend, false, anchorX, 0f, anchorZ, frequency, sizeX, 1, sizeZ);
+    }
+
+    /**
+     * Moves the window so that it starts at sample {@code (x, y, z)}. The first call and jumps further than the
+     * window size generate the whole window.
+     */
+    public void moveTo(int x, int y, int z) {
+        if (!is3D) y = 0;
+        if (!filled) {
+            generateWrapped(x, y, z, sizeX, sizeY, sizeZ);
+            filled = true;
+        } else {
+            final int ovX0 = Math.max(originX, x), ovX1 = Math.min(originX, x) + sizeX;
+            final int ovY0 = Math.max(originY, y), ovY1 = Math.min(originY, y) + sizeY;
+            final int ovZ0 = Math.max(originZ, z), ovZ1 = Math.min(originZ, z) + sizeZ;
+            if (ovX1 <= ovX0 || ovY1 <= ovY0 || ovZ1 <= ovZ0) {
+                generateWrapped(x, y, z, sizeX, sizeY, sizeZ);
+            } else {
+                // neu sichtbar = neues Fenster ohne Überlappung, zerlegt in disjunkte Scheiben X, dann Y, dann Z
+                if (x != originX) {
+                    generateWrapped(x < originX ? x : ovX1, y, z, sizeX - (ovX1 - ovX0), sizeY, sizeZ);
+                }
+                if (y != originY) {
+                    generateWrapped(ovX0, y < originY ? y : ovY1, z, ovX1 - ovX0, sizeY - (ovY1 - ovY0), sizeZ);
+                }
+                if (z != originZ) {
+                    generateWrapped(ovX0, ovY0, z < originZ ? z : ovZ1, ovX1 - ovX0, ovY1 - ovY0, sizeZ - (ovZ1 - ovZ0));
+                }
+            }
+        }
+        originX = x;
+        originY = y;
+        originZ = z;
+    }
+
+    /**
+     * Number of samples {@link #moveTo(int, int, int)} would generate for the same target.
+     */
+    public long costOfMoveTo(int x, int y, int z) {
+        if (!is3D) y = 0;
+        final long full = (long) sizeX * sizeY * sizeZ;
+        if (!filled) return full;
+        final long ovX = Math.max(0, Math.min(originX, x) + sizeX - Math.max(originX, x));
+        final long ovY = Math.max(0, Math.min(originY, y) + sizeY - Math.max(originY, y));
+        final long ovZ = Math.max(0, Math.min(originZ, z) + sizeZ - Math.max(originZ, z));
+        return full - ovX * ovY * ovZ;
+    }
+
+    /**
+     * 2D variant of {@link #moveTo(int, int, int)}.
+     */
+    public void moveTo(int x, int z) {
+        moveTo(x, 0, z);
+    }
+
+    public void moveBy(int dx, int dy, int dz) {
+        moveTo(originX + dx, originY + dy, originZ + dz);
+    }
+
+    /**
+     * Generiert die Welt-Box {@code [x, x+w) x [y, y+h) x [z, z+d)}; jede Achse zerfällt im Ring in höchstens zwei
+     * zusammenhängende Stücke.
+     */
+    private void generateWrapped(int x, int y, int z, int w, int h, int d) {
+        final int plane = sizeX * sizeY;
+        for (int pz = z, remZ = d; remZ > 0; ) {
+            final int sz = pz & maskZ, nz = Math.min(remZ, sizeZ - sz);
+            for (int py = y, remY = h; remY > 0; ) {
+                final int sy = py & maskY, ny = Math.min(remY, sizeY - sy);
+                for (int px = x, remX = w; remX > 0; ) {
+                    final int sx = px & maskX, nx = Math.min(remX, sizeX - sx);
+                    backend.generateRegion(anchorX, anchorY, anchorZ, frequency, px, py, pz, nx, ny, nz,
+                            data, sx + sy * sizeX + sz * plane, sizeX, plane);
+                    generatedSamples += (long) nx * ny * nz;
+                    px += nx;
+                    remX -= nx;
+                }
+                py += ny;
+                remY -= ny;
+            }
+            pz += nz;
+            remZ -= nz;
+        }
+    }
+
+    /**
+     * Value of world sample {@code (x, y, z)}, which must lie inside the window.
+     */
+    public float get(int x, int y, int z) {
+        if (x - originX >= sizeX || y - originY >= sizeY || z - originZ >= sizeZ
+                || x < originX || y < originY || z < originZ) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ", " + z + ") is outside of the window");
+        }
+        return data[storageIndex(x, y, z)];
+    }
+
+    /**
+     * 2D variant of {@link #get(int, int, int)}.
+     */
+    public float get(int x, int z) {
+        return get(x, 0, z);
+    }
+
+    /**
+     * Value at position {@code (i, j, k)} relative to the window origin.
+     */
+    public float getLocal(int i, int j, int k) {
+        return get(originX + i, originY + j, originZ + k);
+    }
+
+    /**
+     * Index of world sample {@code (x, y, z)} in {@link #data()}; does not check the window bounds.
+     */
+    public int storageIndex(int x, int y, int z) {
+        return (x & maskX) + ((y & maskY) + (z & maskZ) * sizeY) * sizeX;
+    }
+
+    /**
+     * Ringpuffer-Rohdaten; Zugriff über {@link #storageIndex}.
+     */
+    public float[] data() {
+        return data;
+    }
+
+    /**
+     * Copies the window in x-major order starting at the origin, i.e. without wrap-around.
+     */
+    public void copyTo(float[] dst, int offset) {
+        final int sx = originX & maskX;
+        final int first = sizeX - sx;
+        int o = offset;
+        for (int k = 0; k < sizeZ; k++) {
+            for (int j = 0; j < sizeY; j++, o += sizeX) {
+                final int row = (((originY + j) & maskY) + ((originZ + k) & maskZ) * sizeY) * sizeX;
+                System.arraycopy(data, row + sx, dst, o, first);
+                System.arraycopy(data, row, dst, o + first, sx);
+            }
+        }
+    }
+
+    public int originX() {
+        return originX;
+    }
+
+    public int originY() {
+        return originY;
+    }
+
+    public int originZ() {
+        return originZ;
+    }
+
+    public int sizeX() {
+        return sizeX;
+    }
+
+    public int sizeY() {
+        return sizeY;
+    }
+
+    public int sizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * Samples generated since creation; a one-sample step along x costs {@code sizeY * sizeZ}.
+     */
+    public long generatedSamples() {
+        return generatedSamples;
+    }
+
+    private static void checkPowerOfTwo(int n) {
+        if (n < 1 || Integer.bitCount(n) != 1) {
+            throw new IllegalArgumentException("Size " + n + " is not a power of two");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package de.verdox.noise.field;
+
+import java.util.BitSet;
+
+/**
+ * Result of {@link FractalNoise#classify}: a solid/air flag per voxel plus the exact value of every voxel that was
+ * evaluated with all octaves. Indices follow the layout of {@link FractalNoise#data()}.
+ */
+public final class ThresholdMask {
+    private final BitSet solid;
+    private final BitSet exact;
+    private final float[] values;
+    private final long evaluatedSamples;
+
+    ThresholdMask(BitSet solid, BitSet exact, float[] values, long evaluatedSamples) {
+        this.solid = solid;
+        this.exact = exact;
+        this.values = values;
+        this.evaluatedSamples = evaluatedSamples;
+    }
+
+    public boolean isSolid(int index) {
+        return solid.get(index);
+    }
+
+    /**
+     * Whether {@link #value(int)} is the full {@code density + fbm} of the voxel.
+     */
+    public boolean isExact(int index) {
+        return exact.get(index);
+    }
+
+    /**
+     * {@code density + fbm} of an exact voxel, {@link Float#NaN} for voxels that were settled early.
+     */
+    public float value(int index) {
+        return exact.get(index) ? values[index] : Float.NaN;
+    }
+
+    public int length() {
+        return values.length;
+    }
+
+    public int solidCount() {
+        return solid.cardinality();
+    }
+
+    public int exactCount() {
+        return exact.cardinality();
+    }
+
+    /**
+     * Octave samples generated for the classification; {@code octaves * length()} without early termination.
+     */
+    public long evaluatedSamples() {
+        return evaluatedSamples;
+    }
+}
@@ -0,0 +1,337 @@
+package de.verdox.noise.store;
+
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseKey;
+import de.verdox.util.LODUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persists generated chunks of one configuration in memory-mapped region files.
+ * <p>
+ * A region file holds {@code regionEdge^3} chunks (2D: {@code regionEdge^2}) in fixed-size slots behind a header and
+ * an index of stored lengths. Files are mapped once with {@link FileChannel#map(FileChannel.MapMode, long, long, Arena)};
+ * reads copy straight out of the mapping or hand out a read-only view of it. Every file carries a fingerprint of the
+ * configuration (seed, size, LOD, calculation mode, kernel variant, interpolation cells, frequency); a file with a
+ * different fingerprint is wiped on open.
+ * <p>
+ * Each region file is guarded by a read/write lock: any number of readers, one writer.
+ */
+public class RegionFileStore implements AutoCloseable {
+    private static final int MAGIC = 0x4E535247; // "NSRG"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int PAGE = 4096;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Path directory;
+    private final boolean is3D;
+    private final int regionEdge;
+    private final int chunkFloats;
+    private final float frequency;
+    private final float chunkSpan;
+    private final long fingerprint;
+    private final ConcurrentHashMap<Long, RegionFile> regions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param directory  created if missing; one store per directory
+     * @param config     configuration of the stored chunks
+     * @param frequency  the frequency all chunks of this store are generated with
+     * @param regionEdge chunks per region file and axis
+     */
+    public RegionFileStore(Path directory, NoiseBackendBuilder<?> config, float frequency, int regionEdge) throws IOException {
+        if (regionEdge < 1 || regionEdge > 32) {
+            throw new IllegalArgumentException("regionEdge must be in [1, 32]");
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.is3D = config.is3DMode();
+        this.regionEdge = regionEdge;
+        this.frequency = frequency;
+        NoiseKey key = is3D ? NoiseKey.of(config, 0f, 0f, 0f, frequency) : NoiseKey.of(config, 0f, 0f, frequency);
+        this.chunkFloats = key.sampleCount();
+        int scale = config.getLodMode() == LODUtil.LODMode.TILE_PYRAMID ? 1 << config.getLodLevel() : 1;
+        this.chunkSpan = config.getSize() * frequency * scale;
+        this.fingerprint = fingerprint(key);
+    }
+
+    public boolean is3D() {
+        return is3D;
+    }
+
+    public float frequency() {
+        return frequency;
+    }
+
+    /**
+     * Distance of two neighbouring chunk origins in noise space.
+     */
+    public float chunkSpan() {
+        return chunkSpan;
+    }
+
+    /**
+     * Number of floats stored per chunk.
+     */
+    public int chunkFloats() {
+        return chunkFloats;
+    }
+
+    /**
+     * Copies a stored chunk into {@code dst}; {@code cy} is ignored for 2D stores.
+     *
+     * @return false if the chunk was never stored
+     */
+    public boolean read(int cx, int cy, int cz, float[] dst) {
+        RegionFile region = region(cx, cy, cz);
+        int slot = slot(cx, cy, cz);
+        region.lock.readLock().lock();
+        try {
+            region.checkOpen();
+            if (region.length(slot) != chunkFloats) {
+                misses.increment();
+                return false;
+            }
+            MemorySegment.copy(region.map, FLOAT, region.dataOffset(slot), dst, 0, chunkFloats);
+            hits.increment();
+            return true;
+        } finally {
+            region.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read-only view of a stored chunk inside the mapping, without copying. The view stays valid until the store is
+     * closed and shows later rewrites of the same chunk.
+     *
+     * @return null if the chunk was never stored
+     */
+    public MemorySegment view(int cx, int cy, int cz) {
+        RegionFile region = region(cx, cy, cz);
+        int slot = slot(cx, cy, cz);
+        region.lock.readLock().lock();
+        try {
+            region.checkOpen();
+            if (region.length(slot) != chunkFloats) return null;
+            return region.map.asSlice(region.dataOffset(slot), (long) chunkFloats * Float.BYTES).asReadOnly();
+        } finally {
+            region.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@link #view(int, int, int)} as a {@link FloatBuffer}.
+     */
+    public FloatBuffer viewAsFloatBuffer(int cx, int cy, int cz) {
+        MemorySegment view = view(cx, cy, cz);
+        return view == null ? null : view.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    /**
+     * Stores the first {@link #chunkFloats()} values of {@code src}. The slot is published only after the data is
+     * written.
+     */
+    public void write(int cx, int cy, int cz, float[] src) {
+        if (src.length < chunkFloats) {
+            throw new IllegalArgumentException("src holds less than " + chunkFloats + " values");
+        }
+        RegionFile region = region(cx, cy, cz);
+        int slot = slot(cx, cy, cz);
+        region.lock.writeLock().lock();
+        try {
+            region.checkOpen();
+            MemorySegment.copy(src, 0, region.map, FLOAT, region.dataOffset(slot), chunkFloats);
+            region.map.set(INT, HEADER_BYTES + (long) slot * Integer.BYTES, chunkFloats);
+        } finally {
+            region.lock.writeLock().unlock();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Flushes all mapped region files to disk.
+     */
+    public void force() {
+        for (RegionFile region : regions.values()) {
+            region.lock.readLock().lock();
+            try {
+                if (!region.closed) region.map.force();
+            } finally {
+                region.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Flushes and unmaps all region files. Calls racing with {@code close} either complete before the file is unmapped
+     * or fail with {@link IllegalStateException}, like calls after it.
+     */
+    @Override
+    public void close() {
+        List<RegionFile> open;
+        // gleicher Monitor wie beim Öffnen: danach kann keine neue Region mehr dazukommen
+        synchronized (regions) {
+            if (closed) return;
+            closed = true;
+            open = new ArrayList<>(regions.values());
+            regions.clear();
+        }
+        for (RegionFile region : open) {
+            region.close();
+        }
+    }
+
+    private int slot(int cx, int cy, int cz) {
+        int lx = Math.floorMod(cx, regionEdge), lz = Math.floorMod(cz, regionEdge);
+        int ly = is3D ? Math.floorMod(cy, regionEdge) : 0;
+        return (lz * regionEdge + ly) * regionEdge + lx;
+    }
+
+    private RegionFile region(int cx, int cy, int cz) {
+        if (closed) {
+            throw new IllegalStateException("Store is closed");
+        }
+        int rx = Math.floorDiv(cx, regionEdge), rz = Math.floorDiv(cz, regionEdge);
+        int ry = is3D ? Math.floorDiv(cy, regionEdge) : 0;
+        // 21 Bit pro Achse
+        long key = ((long) (rx & 0x1FFFFF) << 42) | ((long) (ry & 0x1FFFFF) << 21) | (rz & 0x1FFFFF);
+        RegionFile region = regions.get(key);
+        if (region != null) return region;
+        synchronized (regions) {
+            if (closed) {
+                throw new IllegalStateException("Store is closed");
+            }
+            return regions.computeIfAbsent(key, k -> openRegion(rx, ry, rz));
+        }
+    }
+
+    private RegionFile openRegion(int rx, int ry, int rz) {
+        final int slots = is3D ? regionEdge * regionEdge * regionEdge : regionEdge * regionEdge;
+        final long dataStart = roundUp(HEADER_BYTES + (long) slots * Integer.BYTES, PAGE);
+        final long slotBytes = (long) chunkFloats * Float.BYTES;
+        final long fileBytes = dataStart + slots * slotBytes;
+        final Path file = directory.resolve("r." + rx + "." + ry + "." + rz + ".nsr");
+
+        Arena arena = Arena.ofShared();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean fresh = ch.size() != fileBytes;
+            if (ch.size() > fileBytes) ch.truncate(fileBytes);
+            MemorySegment map = ch.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes, arena);
+            if (fresh || map.get(INT, 0) != MAGIC || map.get(INT, 4) != VERSION || map.get(LONG, 8) != fingerprint
+                    || map.get(INT, 16) != chunkFloats || map.get(INT, 20) != regionEdge) {
+                // Neue Datei oder andere Konfiguration: Index leeren, Daten gelten als ungültig
+                map.asSlice(0, dataStart).fill((byte) 0);
+                map.set(INT, 0, MAGIC);
+                map.set(INT, 4, VERSION);
+                map.set(LONG, 8, fingerprint);
+                map.set(INT, 16, chunkFloats);
+                map.set(INT, 20, regionEdge);
+                map.set(INT, 24, is3D ? 3 : 2);
+            }
+            return new RegionFile(arena, map, dataStart, slotBytes);
+        } catch (IOException e) {
+            arena.close();
+            throw new UncheckedIOException("Could not map region file " + file, e);
+        }
+    }
+
+    private static long roundUp(long n, long m) {
+        return ((n + m - 1) / m) * m;
+    }
+
+    /**
+     * Stabil über JVM-Läufe (keine Identity-Hashes), daher von Hand gemischt.
+     */
+    private static long fingerprint(NoiseKey key) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, key.seed());
+        h = mix(h, Float.floatToIntBits(key.frequency()));
+        h = mix(h, key.lodLevel());
+        h = mix(h, key.lodMode().ordinal());
+        h = mix(h, key.width());
+        h = mix(h, key.height());
+        h = mix(h, key.depth());
+        h = mix(h, key.is3D() ? 3 : 2);
+        h = mix(h, key.calculationMode().ordinal());
+        h = mix(h, key.vectorize() ? 1 : 0);
+        h = mix(h, key.cellWidth());
+        h = mix(h, key.cellHeight());
+        h = mix(h, key.cellDepth());
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        h ^= v;
+        h *= 0x100000001b3L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class RegionFile {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // unter lock geschrieben und gelesen
+        private boolean closed;
+        private final Arena arena;
+        private final MemorySegment map;
+        private final long dataStart;
+        private final long slotBytes;
+
+        private RegionFile(Arena arena, MemorySegment map, long dataStart, long slotBytes) {
+            this.arena = arena;
+            this.map = map;
+            this.dataStart = dataStart;
+            this.slotBytes = slotBytes;
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("Store is closed");
+            }
+        }
+
+        private void close() {
+            lock.writeLock().lock();
+            try {
+                map.force();
+                arena.close();
+                closed = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private int length(int slot) {
+            return map.get(INT, HEADER_BYTES + (long) slot * Integer.BYTES);
+        }
+
+        private long dataOffset(int slot) {
+            return dataStart + slot * slotBytes;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.verdox.noise.store;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+
+/**
+ * Read-through layer in front of another backend: chunks found in the {@link RegionFileStore} are copied from the
+ * mapping, all others are generated by the wrapped backend and written to the store.
+ * <p>
+ * Only requests whose origin lies exactly on the store's chunk grid and whose frequency matches the store are
+ * persisted; everything else is passed through. Both backends share the same result array.
+ */
+public class RegionStoreNoiseBackend extends NoiseBackend {
+    private final NoiseBackend delegate;
+    private final RegionFileStore store;
+
+    /**
+     * @param delegate backend that computes chunks missing in the store
+     * @param config   builder {@code delegate} was built from
+     * @param store    store opened with the same configuration
+     */
+    public RegionStoreNoiseBackend(NoiseBackend delegate, NoiseBackendBuilder<?> config, RegionFileStore store) {
+        super(delegate.getResult(), config.getSize(), config.is3DMode() ? config.getSize() : 1, config.getSize(), config.is3DMode());
+        if (delegate.is3D != store.is3D() || delegate.is3D != config.is3DMode()) {
+            throw new IllegalArgumentException("Backend, builder and store disagree on 2D/3D");
+        }
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public void generate(float x0, float y0, float z0, float frequency) {
+        result = delegate.getResult();
+        final int cx = chunkIndex(x0), cy = chunkIndex(y0), cz = chunkIndex(z0);
+        final boolean onGrid = frequency == store.frequency() && cx != Integer.MIN_VALUE && cy != Integer.MIN_VALUE && cz != Integer.MIN_VALUE;
+        if (onGrid && store.read(cx, cy, cz, result)) return;
+
+        delegate.generate(x0, y0, z0, frequency);
+        if (onGrid) store.write(cx, cy, cz, delegate.getResult());
+    }
+
+    @Override
+    public void generate(float x0, float z0, float frequency) {
+        result = delegate.getResult();
+        final int cx = chunkIndex(x0), cz = chunkIndex(z0);
+        final boolean onGrid = frequency == store.frequency() && cx != Integer.MIN_VALUE && cz != Integer.MIN_VALUE;
+        if (onGrid && store.read(cx, 0, cz, result)) return;
+
+        delegate.generate(x0, z0, frequency);
+        if (onGrid) store.write(cx, 0, cz, delegate.getResult());
+    }
+
+    /**
+     * Chunk-Index einer Ursprungskoordinate oder MIN_VALUE, wenn sie nicht exakt auf dem Raster liegt.
+     */
+    private int chunkIndex(float origin) {
+        final float span = store.chunkSpan();
+        final long c = Math.round(origin / span);
+        if (c < Integer.MIN_VALUE + 1 || c > Integer.MAX_VALUE || c * span != origin) return Integer.MIN_VALUE;
+        return (int) c;
+    }
+
+    @Override
+    public int sampleCount() {
+        return delegate.sampleCount();
+    }
+
+    public NoiseBackend getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Disposes the wrapped backend; the store stays open because it may be shared.
+     */
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public void logSetup() {
+        delegate.logSetup();
+    }
+}
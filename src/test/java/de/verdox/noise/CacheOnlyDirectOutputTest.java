@@ -0,0 +1,55 @@
+package de.verdox.noise;
+
+import de.verdox.noise.NoiseBackendBuilder.CPUParallelismMode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class CacheOnlyDirectOutputTest {
+
+    private static final float X0 = 3f, Y0 = -2f, Z0 = 5f;
+    private static final float FREQ = 0.01f;
+
+    @TestFactory
+    Iterable<DynamicTest> directOutput_matches_staged_slabs() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (boolean vectorize : List.of(false, true)) {
+            for (CPUParallelismMode pm : List.of(CPUParallelismMode.SEQUENTIAL, CPUParallelismMode.PARALLELISM_THREADS)) {
+                String name = String.format("3D size=64, vec=%s, %s", vectorize, pm);
+                tests.add(DynamicTest.dynamicTest(name, () -> {
+                    float[] staged = generate3D(cacheOnly(vectorize, pm, false).withSize3D(64).build());
+                    float[] direct = generate3D(cacheOnly(vectorize, pm, true).withSize3D(64).build());
+                    assertArrayEquals(staged, direct);
+                }));
+            }
+            String name = String.format("2D size=64, vec=%s", vectorize);
+            tests.add(DynamicTest.dynamicTest(name, () -> {
+                NoiseBackend staged = cacheOnly(vectorize, CPUParallelismMode.SEQUENTIAL, false).withSize2D(64).build();
+                NoiseBackend direct = cacheOnly(vectorize, CPUParallelismMode.SEQUENTIAL, true).withSize2D(64).build();
+                staged.generate(X0, Z0, FREQ);
+                direct.generate(X0, Z0, FREQ);
+                assertArrayEquals(staged.getResult(), direct.getResult());
+            }));
+        }
+        return tests;
+    }
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder cacheOnly(boolean vectorize, CPUParallelismMode pm, boolean direct) {
+        return NoiseTestFixtures.cpu()
+                .preventRamUsage(true)
+                .directOutput(direct)
+                .vectorize(vectorize)
+                .withParallelismMode(pm);
+    }
+
+    private static float[] generate3D(NoiseBackend backend) {
+        backend.generate(X0, Y0, Z0, FREQ);
+        float[] res = backend.getResult();
+        return Arrays.copyOf(res, res.length);
+    }
+}
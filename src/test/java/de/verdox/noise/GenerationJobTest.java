@@ -0,0 +1,51 @@
+package de.verdox.noise;
+
+import de.verdox.noise.aparapi.backend.cpu.CPUJavaAparapiNoiseBackend;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerationJobTest {
+    private static final float FREQ = 0.01f;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder cacheOnly(boolean vectorize) {
+        return NoiseTestFixtures.cacheOnly().vectorize(vectorize);
+    }
+
+    @Test
+    void sliced_job_matches_generate_3d() {
+        for (boolean vectorize : List.of(false, true)) {
+            NoiseBackend reference = cacheOnly(vectorize).withSize3D(64).build();
+            reference.generate(1f, 2f, 3f, FREQ);
+
+            var backend = (CPUJavaAparapiNoiseBackend.CacheOnly) cacheOnly(vectorize).withSize3D(64).build();
+            var job = backend.startJob(1f, 2f, 3f, FREQ);
+            int slices = 0;
+            int lastZ = -1;
+            while (!job.advance(0)) {
+                slices++;
+                assertTrue(job.zSlab() >= lastZ);
+                lastZ = job.zSlab();
+            }
+            assertEquals(64 - 1, slices); // 4096 Samples pro Kachel = eine 64x64-Ebene
+            assertEquals(64, job.zSlab());
+            assertEquals(1f, job.progress());
+            assertArrayEquals(reference.getResult(), job.getResult());
+        }
+    }
+
+    @Test
+    void sliced_job_matches_generate_2d() {
+        NoiseBackend reference = cacheOnly(true).withSize2D(256).build();
+        reference.generate(-4f, 9f, FREQ);
+
+        var backend = (CPUJavaAparapiNoiseBackend.CacheOnly) cacheOnly(true).withSize2D(256).build();
+        var job = backend.startJob(-4f, 9f, FREQ);
+        assertFalse(job.advance(0));
+        assertEquals(16, job.zSlab());
+        while (!job.advance(1_000_000)) ;
+        assertArrayEquals(reference.getResult(), job.getResult());
+    }
+}
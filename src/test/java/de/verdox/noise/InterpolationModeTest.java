@@ -0,0 +1,109 @@
+package de.verdox.noise;
+
+import de.verdox.noise.aparapi.backend.cpu.CPUJavaAparapiNoiseBackend;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterpolationModeTest {
+    private static final float X0 = 4f, Y0 = -1f, Z0 = 2.5f, FREQ = 0.01f;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder(boolean cacheOnly) {
+        return NoiseTestFixtures.cpu()
+                .vectorize(true)
+                .preventRamUsage(cacheOnly);
+    }
+
+    @Test
+    void cell_corners_are_exact_and_cells_are_trilinear() {
+        for (boolean cacheOnly : new boolean[]{false, true}) {
+            NoiseBackend exact = builder(cacheOnly).withSize3D(32).build();
+            NoiseBackend interpolated = builder(cacheOnly).withSize3D(32).withInterpolation(4, 8, 4).build();
+            exact.generate(X0, Y0, Z0, FREQ);
+            interpolated.generate(X0, Y0, Z0, FREQ);
+            float[] e = exact.getResult(), r = interpolated.getResult();
+
+            for (int z = 0; z < 32; z += 4) {
+                for (int y = 0; y < 32; y += 8) {
+                    for (int x = 0; x < 32; x += 4) {
+                        int i = x + y * 32 + z * 1024;
+                        assertEquals(e[i], r[i], "corner " + x + "," + y + "," + z);
+                    }
+                }
+            }
+            // Kantenmitte zwischen zwei Ecken auf einer Eckzeile
+            assertEquals(Math.fma(e[4] - e[0], 0.5f, e[0]), r[2], 1e-6f);
+            // Zellmitte = Mittel der acht Ecken
+            float mean = 0f;
+            for (int c = 0; c < 8; c++) mean += e[(c & 1) * 4 + ((c >> 1) & 1) * 8 * 32 + (c >> 2) * 4 * 1024] / 8f;
+            assertEquals(mean, r[2 + 4 * 32 + 2 * 1024], 1e-5f);
+        }
+    }
+
+    @Test
+    void error_report_against_exact_field() {
+        CPUJavaAparapiNoiseBackend backend = (CPUJavaAparapiNoiseBackend) builder(false)
+                .withSize3D(32).withInterpolation(4, 4, 4).build();
+        CPUJavaAparapiNoiseBackend.InterpolationError error = backend.interpolationError(X0, Y0, Z0, FREQ);
+        assertEquals(32 * 32 * 32, error.samples());
+        assertTrue(error.maxAbs() > 0f && error.maxAbs() < 0.05f, "max " + error.maxAbs());
+        assertTrue(error.rms() <= error.maxAbs());
+
+        CPUJavaAparapiNoiseBackend coarse = (CPUJavaAparapiNoiseBackend) builder(false)
+                .withSize3D(32).withInterpolation(8, 8, 8).build();
+        assertTrue(coarse.interpolationError(X0, Y0, Z0, FREQ).rms() > error.rms());
+    }
+
+    @Test
+    void interpolated_and_exact_fields_are_kept_apart() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder exact = builder(false).withSize3D(32);
+        NoiseBackendBuilder.CPUNoiseBackendBuilder interpolated = builder(false).withSize3D(32).withInterpolation(4, 4, 4);
+        assertNotEquals(NoiseKey.of(exact, X0, Y0, Z0, FREQ), NoiseKey.of(interpolated, X0, Y0, Z0, FREQ));
+
+        try (NoiseRequestCoalescer coalescer = new NoiseRequestCoalescer(200_000L, 64)) {
+            CompletableFuture<float[]> e = coalescer.request(exact, X0, Y0, Z0, FREQ);
+            CompletableFuture<float[]> i = coalescer.request(interpolated, X0, Y0, Z0, FREQ);
+            NoiseBackend reference = exact.build();
+            reference.generate(X0, Y0, Z0, FREQ);
+            assertArrayEquals(reference.getResult(), e.get());
+            reference = interpolated.build();
+            reference.generate(X0, Y0, Z0, FREQ);
+            assertArrayEquals(reference.getResult(), i.get());
+        }
+    }
+
+    @Test
+    void bilinear_in_2d() {
+        NoiseBackend exact = builder(true).withSize2D(64).build();
+        CPUJavaAparapiNoiseBackend interpolated = (CPUJavaAparapiNoiseBackend) builder(true)
+                .withSize2D(64).withInterpolation(8, 1, 4).build();
+        exact.generate(X0, Z0, FREQ);
+        CPUJavaAparapiNoiseBackend.InterpolationError error = interpolated.interpolationError(X0, Z0, FREQ);
+        assertTrue(error.maxAbs() < 0.05f, "max " + error.maxAbs());
+        for (int z = 0; z < 64; z += 4) {
+            for (int x = 0; x < 64; x += 8) {
+                assertEquals(exact.getResult()[x + z * 64], interpolated.getResult()[x + z * 64]);
+            }
+        }
+    }
+
+    @Test
+    void cache_only_interpolation_is_cancellable_and_rejects_jobs() {
+        var backend = (CPUJavaAparapiNoiseBackend.CacheOnly) builder(true).withSize3D(32).withInterpolation(4, 4, 4).build();
+        assertThrows(IllegalStateException.class, () -> backend.startJob(X0, Y0, Z0, FREQ));
+
+        // Start-Check, dann nach den Zellecken, dann nach der X-Expansion
+        for (int cancelAt = 1; cancelAt <= 3; cancelAt++) {
+            int[] checks = new int[1];
+            final int limit = cancelAt;
+            assertThrows(NoiseGenerationCancelledException.class,
+                    () -> backend.generate(X0, Y0, Z0, FREQ, () -> ++checks[0] >= limit));
+            assertEquals(cancelAt, checks[0]);
+        }
+        int[] checks = new int[1];
+        backend.generate(X0, Y0, Z0, FREQ, () -> ++checks[0] > 3);
+        assertEquals(3, checks[0]);
+    }
+}
@@ -0,0 +1,102 @@
+package de.verdox.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseChunkPublisherTest {
+    private static final float FREQ = 0.01f;
+
+    @Test
+    void streams_region_in_order_and_matches_direct_generation() throws Exception {
+        NoiseChunkPublisher publisher = NoiseChunkPublisher.region3D(
+                NoiseTestFixtures.cacheOnly().withSize3D(16), FREQ, -1, 0, 0, 1, 2, 1, 2);
+        NoiseBackend reference = NoiseTestFixtures.cacheOnly().withSize3D(16).build();
+
+        List<String> seen = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(NoiseChunk chunk) {
+                float span = 16 * FREQ;
+                reference.generate(chunk.chunkX() * span, chunk.chunkY() * span, chunk.chunkZ() * span, FREQ);
+                assertArrayEquals(reference.getResult(), chunk.data());
+                seen.add(chunk.chunkX() + "," + chunk.chunkY() + "," + chunk.chunkZ());
+                chunk.release();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+                completed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        assertTrue(completed.await(30, TimeUnit.SECONDS));
+        assertEquals(List.of(), errors);
+        assertEquals(List.of("-1,0,0", "0,0,0", "-1,1,0", "0,1,0"), seen);
+    }
+
+    @Test
+    void unreleased_buffers_stall_generation() throws Exception {
+        NoiseChunkPublisher publisher = NoiseChunkPublisher.region3D(
+                NoiseTestFixtures.cacheOnly().withSize3D(16), FREQ, 0, 0, 0, 4, 1, 1, 2);
+        List<NoiseChunk> held = new CopyOnWriteArrayList<>();
+        CountDownLatch twoChunks = new CountDownLatch(2);
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(NoiseChunk chunk) {
+                held.add(chunk);
+                twoChunks.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertTrue(twoChunks.await(30, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(2, held.size());
+
+        held.get(0).release();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (held.size() < 3 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(3, held.size());
+        subscription[0].cancel();
+    }
+}
@@ -0,0 +1,94 @@
+package de.verdox.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseExecutorTest {
+
+    @Test
+    void invokeAll_runs_every_index_once() {
+        try (NoiseExecutor executor = NoiseExecutor.create(4)) {
+            AtomicIntegerArray hits = new AtomicIntegerArray(1000);
+            executor.invokeAll(hits.length(), hits::incrementAndGet);
+            for (int i = 0; i < hits.length(); i++) {
+                assertEquals(1, hits.get(i), "index " + i);
+            }
+        }
+    }
+
+    @Test
+    void nested_invokeAll_does_not_deadlock() {
+        try (NoiseExecutor executor = NoiseExecutor.create(2)) {
+            AtomicIntegerArray hits = new AtomicIntegerArray(64);
+            executor.invokeAll(8, outer -> executor.invokeAll(8, inner -> hits.incrementAndGet(outer * 8 + inner)));
+            for (int i = 0; i < hits.length(); i++) {
+                assertEquals(1, hits.get(i));
+            }
+        }
+    }
+
+    @Test
+    void calls_after_shutdown_run_on_the_caller() {
+        NoiseExecutor executor = NoiseExecutor.create(2);
+        NoiseBackendBuilder.CPUNoiseBackendBuilder builder = NoiseTestFixtures.cpu()
+                .preventRamUsage(true)
+                .withParallelismMode(NoiseBackendBuilder.CPUParallelismMode.FORK_JOIN)
+                .withExecutor(executor)
+                .withSize3D(32);
+        NoiseBackend backend = builder.build();
+        executor.close();
+        assertTrue(executor.isShutdown());
+
+        Thread caller = Thread.currentThread();
+        AtomicIntegerArray hits = new AtomicIntegerArray(16);
+        executor.invokeAll(hits.length(), i -> {
+            assertSame(caller, Thread.currentThread());
+            hits.incrementAndGet(i);
+        });
+        for (int i = 0; i < hits.length(); i++) assertEquals(1, hits.get(i));
+        Thread[] ran = new Thread[1];
+        executor.execute(() -> ran[0] = Thread.currentThread());
+        assertSame(caller, ran[0]);
+
+        // FORK_JOIN-Backend mit dem heruntergefahrenen Executor rechnet weiter
+        backend.generate(1f, 2f, 3f, 0.01f);
+        NoiseBackend reference = builder.withParallelismMode(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL).build();
+        reference.generate(1f, 2f, 3f, 0.01f);
+        assertArrayEquals(reference.getResult(), backend.getResult());
+    }
+
+    @Test
+    void task_failure_is_rethrown_to_caller() {
+        try (NoiseExecutor executor = NoiseExecutor.create(2)) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> executor.invokeAll(16, i -> {
+                if (i == 7) throw new IllegalStateException("tile 7");
+            }));
+            assertEquals("tile 7", e.getMessage());
+        }
+    }
+
+    @Test
+    void shutdown_executor_runs_on_caller() {
+        NoiseExecutor executor = NoiseExecutor.create(2);
+        executor.close();
+        AtomicIntegerArray hits = new AtomicIntegerArray(32);
+        executor.invokeAll(hits.length(), hits::incrementAndGet);
+        for (int i = 0; i < hits.length(); i++) {
+            assertEquals(1, hits.get(i));
+        }
+    }
+
+    @Test
+    void backends_share_one_executor() {
+        try (NoiseExecutor executor = NoiseExecutor.create(2)) {
+            NoiseBackend a = NoiseBackendBuilder.cpu().withSeed(1).withExecutor(executor).preventRamUsage(true).withSize3D(32).build();
+            NoiseBackend b = NoiseBackendBuilder.cpu().withSeed(1).withExecutor(executor).withSize3D(32).build();
+            a.generate(0, 0, 0, 0.02f);
+            b.generate(0, 0, 0, 0.02f);
+            assertArrayEquals(a.getResult(), b.getResult());
+        }
+    }
+}
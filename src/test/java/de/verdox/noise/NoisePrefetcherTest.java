@@ -0,0 +1,95 @@
+package de.verdox.noise;
+
+import de.verdox.util.LODUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoisePrefetcherTest {
+    private static final float FREQ = 0.01f;
+    private static final float SPAN = 16 * FREQ;
+    private static final long SECOND = 1_000_000_000L;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder(int lod) {
+        return NoiseTestFixtures.cpu().withSize2D(16, (byte) lod, LODUtil.LODMode.CHUNK_LOCAL);
+    }
+
+    @Test
+    void chunks_ahead_of_the_viewer_are_prefetched() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = builder(0);
+        try (PriorityNoiseScheduler scheduler = new PriorityNoiseScheduler(b::build, 1);
+             NoisePrefetcher prefetcher = new NoisePrefetcher(new PriorityNoiseScheduler[]{scheduler}, false, SPAN, FREQ, 2)
+                     .withHorizon(2)) {
+            // ein Chunk pro Sekunde in +x
+            prefetcher.observe(0, 0.5f * SPAN, 0, 0.5f * SPAN);
+            prefetcher.observe(SECOND, 1.5f * SPAN, 0, 0.5f * SPAN);
+            assertTrue(prefetcher.tracked() > 0);
+
+            CompletableFuture<float[]> ahead = prefetcher.take(4, 0, 0);
+            assertNotNull(ahead);
+            float[] field = ahead.get(30, TimeUnit.SECONDS);
+
+            NoiseBackend reference = b.build();
+            reference.generate(4 * SPAN, 0, FREQ);
+            assertArrayEquals(reference.getResult(), field);
+
+            assertNull(prefetcher.take(-3, 0, 0)); // hinter dem Betrachter
+            NoisePrefetcher.Stats stats = prefetcher.stats();
+            assertEquals(2, stats.takes());
+            assertEquals(1, stats.hits());
+            assertEquals(0.5, stats.hitRate());
+
+            // Richtungswechsel: Vorhersage in +x wird verworfen
+            prefetcher.observe(2 * SECOND, 1.5f * SPAN, 0, 0.5f * SPAN);
+            prefetcher.observe(3 * SECOND, 1.5f * SPAN, 0, -3.5f * SPAN);
+            prefetcher.observe(4 * SECOND, 1.5f * SPAN, 0, -7.5f * SPAN);
+            assertTrue(prefetcher.stats().dropped() > 0);
+        }
+    }
+
+    @Test
+    void far_chunks_use_coarser_levels() {
+        try (PriorityNoiseScheduler lod0 = new PriorityNoiseScheduler(builder(0)::build, 1);
+             PriorityNoiseScheduler lod1 = new PriorityNoiseScheduler(builder(1)::build, 1);
+             NoisePrefetcher prefetcher = new NoisePrefetcher(new PriorityNoiseScheduler[]{lod0, lod1}, false, SPAN, FREQ, 4)
+                     .withHorizon(1)
+                     .withLodDistance(2)) {
+            prefetcher.observe(0, 0, 0, 0);
+            prefetcher.observe(SECOND, 4 * SPAN, 0, 0);
+            // Chunk (9, 0) kommt am Rand der Sichtweite ins Bild -> LOD 1
+            assertNull(prefetcher.take(9, 0, 0));
+            assertNotNull(prefetcher.take(9, 0, 1));
+        }
+    }
+
+    @Test
+    void unchanged_prediction_only_tops_up_in_flight_prefetches() {
+        try (PriorityNoiseScheduler scheduler = new PriorityNoiseScheduler(builder(0)::build, 1);
+             NoisePrefetcher prefetcher = new NoisePrefetcher(new PriorityNoiseScheduler[]{scheduler}, false, SPAN, FREQ, 2)
+                     .withHorizon(2)
+                     .withMaxInFlight(2)) {
+            prefetcher.observe(0, 0.5f * SPAN, 0, 0.5f * SPAN);
+            prefetcher.observe(SECOND, 1.5f * SPAN, 0, 0.5f * SPAN);
+            assertEquals(2, prefetcher.tracked());
+            assertEquals(2, prefetcher.stats().issued());
+
+            // gleicher Zeitstempel, gleicher Chunk: Vorhersage bleibt, nichts wird neu abgeschickt oder verworfen
+            prefetcher.observe(SECOND, 1.51f * SPAN, 0, 0.5f * SPAN);
+            assertEquals(2, prefetcher.stats().issued());
+            assertEquals(0, prefetcher.stats().dropped());
+
+            // die fünf Chunks, die bei t = 1 s ins Bild kommen; zwei davon sind abgeschickt
+            int taken = 0;
+            for (int[] c : new int[][]{{4, 0}, {3, 1}, {3, -1}, {2, 2}, {2, -2}}) {
+                if (prefetcher.take(c[0], c[1], 0) != null) taken++;
+            }
+            assertEquals(2, taken);
+            prefetcher.observe(SECOND, 1.52f * SPAN, 0, 0.5f * SPAN);
+            assertEquals(2, prefetcher.tracked());
+            assertEquals(4, prefetcher.stats().issued());
+        }
+    }
+}
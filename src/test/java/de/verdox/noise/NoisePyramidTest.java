@@ -0,0 +1,43 @@
+package de.verdox.noise;
+
+import de.verdox.util.LODUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoisePyramidTest {
+    private static final float X0 = 1.5f, Y0 = -2f, Z0 = 7f, FREQ = 0.013f;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder() {
+        return NoiseTestFixtures.cpu().vectorize(true);
+    }
+
+    @Test
+    void every_level_matches_a_backend_built_for_it_3d() {
+        for (LODUtil.LODMode mode : LODUtil.LODMode.values()) {
+            NoisePyramid pyramid = builder().withSize3D(32).build().generatePyramid(X0, Y0, Z0, FREQ, 5, mode);
+            assertEquals(5, pyramid.levels());
+            for (int l = 0; l < 5; l++) {
+                NoiseBackend reference = builder().withSize3D(32, (byte) l, mode).build();
+                reference.generate(X0, Y0, Z0, FREQ);
+                int n = pyramid.length(l);
+                float[] expected = java.util.Arrays.copyOf(reference.getResult(), n);
+                assertArrayEquals(expected, pyramid.copyLevel(l), mode + " level " + l);
+            }
+        }
+    }
+
+    @Test
+    void every_level_matches_a_backend_built_for_it_2d() {
+        for (LODUtil.LODMode mode : LODUtil.LODMode.values()) {
+            NoisePyramid pyramid = builder().withSize2D(64).build().generatePyramid(X0, Z0, FREQ, 4, mode);
+            for (int l = 0; l < 4; l++) {
+                NoiseBackend reference = builder().withSize2D(64, (byte) l, mode).build();
+                reference.generate(X0, Z0, FREQ);
+                float[] expected = java.util.Arrays.copyOf(reference.getResult(), pyramid.length(l));
+                assertArrayEquals(expected, pyramid.copyLevel(l), mode + " level " + l);
+                assertEquals(1, pyramid.height(l));
+            }
+        }
+    }
+}
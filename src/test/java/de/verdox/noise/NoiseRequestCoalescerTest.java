@@ -0,0 +1,129 @@
+package de.verdox.noise;
+
+import com.aparapi.Kernel;
+import com.aparapi.Range;
+import de.verdox.noise.aparapi.kernel.cpu.CPUScalarSimplexNoiseKernel;
+import de.verdox.noise.cache.CachingNoiseBackend;
+import de.verdox.noise.cache.OffHeapChunkCache;
+import de.verdox.util.LODUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseRequestCoalescerTest {
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder3D(NoiseBackendBuilder.CPUParallelismMode mode) {
+        return NoiseTestFixtures.cpu()
+                .vectorize(true)
+                .withParallelismMode(mode)
+                .withSize3D(32);
+    }
+
+    @Test
+    void full_batches_are_dispatched_once_and_scattered() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = builder3D(NoiseBackendBuilder.CPUParallelismMode.PARALLELISM_THREADS);
+        NoiseBackend reference = b.build();
+
+        try (NoiseRequestCoalescer coalescer = new NoiseRequestCoalescer(10_000_000L, 4)) {
+            List<CompletableFuture<float[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(coalescer.request(b, i * 0.32f, 0f, -i * 0.32f, 0.01f));
+            }
+            for (int i = 0; i < 8; i++) {
+                reference.generate(i * 0.32f, 0f, -i * 0.32f, 0.01f);
+                assertArrayEquals(reference.getResult(), futures.get(i).get());
+            }
+            assertEquals(2, coalescer.dispatches());
+        }
+    }
+
+    @Test
+    void window_flushes_incomplete_groups_separately() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b2D = NoiseTestFixtures.cpu()
+                .withSize2D(64);
+        NoiseBackend reference = b2D.build();
+
+        try (NoiseRequestCoalescer coalescer = new NoiseRequestCoalescer(200_000L, 64)) {
+            CompletableFuture<float[]> a = coalescer.request(b2D, 0f, 0f, 0.02f);
+            CompletableFuture<float[]> c = coalescer.request(b2D, 1.28f, 0f, 0.02f);
+            CompletableFuture<float[]> other = coalescer.request(b2D, 0f, 0f, 0.04f); // andere Frequenz
+
+            reference.generate(0f, 0f, 0.02f);
+            assertArrayEquals(reference.getResult(), a.get());
+            reference.generate(1.28f, 0f, 0.02f);
+            assertArrayEquals(reference.getResult(), c.get());
+            reference.generate(0f, 0f, 0.04f);
+            assertArrayEquals(reference.getResult(), other.get());
+            assertEquals(2, coalescer.dispatches());
+        }
+    }
+
+    @Test
+    void scalar_and_vector_requests_are_not_batched_together() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder vector = builder3D(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL);
+        NoiseBackendBuilder.CPUNoiseBackendBuilder scalar = builder3D(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL).vectorize(false);
+
+        try (NoiseRequestCoalescer coalescer = new NoiseRequestCoalescer(200_000L, 64)) {
+            CompletableFuture<float[]> v = coalescer.request(vector, 1f, 2f, 3f, 0.01f);
+            CompletableFuture<float[]> s = coalescer.request(scalar, 1f, 2f, 3f, 0.01f);
+
+            NoiseBackend reference = vector.build();
+            reference.generate(1f, 2f, 3f, 0.01f);
+            assertArrayEquals(reference.getResult(), v.get());
+            reference = scalar.build();
+            reference.generate(1f, 2f, 3f, 0.01f);
+            assertArrayEquals(reference.getResult(), s.get());
+            assertEquals(2, coalescer.dispatches());
+        }
+    }
+
+    @Test
+    void default_batch_copies_only_the_lod_prefix() {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = NoiseTestFixtures.cpu()
+                .withSize3D(16, (byte) 1, LODUtil.LODMode.CHUNK_LOCAL);
+        NoiseBackend reference = b.build();
+        try (OffHeapChunkCache cache = new OffHeapChunkCache(1 << 20, 16 * 16 * 16)) {
+            NoiseBackend caching = new CachingNoiseBackend(b.build(), b, cache, 0);
+            int n = 8 * 8 * 8, stride = 16 * 16 * 16 + 3; // größer als das ganze Ergebnis-Array
+            assertEquals(n, caching.sampleCount());
+
+            float[] out = new float[2 * stride];
+            Arrays.fill(out, Float.NaN);
+            caching.generateBatch(new float[]{0f, 0f, 0f, 1.6f, 0f, -1.6f}, 2, 0.01f, out, stride);
+            for (int c = 0; c < 2; c++) {
+                reference.generate(c * 1.6f, 0f, -c * 1.6f, 0.01f);
+                assertArrayEquals(Arrays.copyOf(reference.getResult(), n), Arrays.copyOfRange(out, c * stride, c * stride + n));
+                for (int i = c * stride + n; i < (c + 1) * stride; i++) assertTrue(Float.isNaN(out[i]), "padding " + i);
+            }
+        }
+    }
+
+    @Test
+    void multi_chunk_kernel_matches_single_chunk_kernel() {
+        final int W = 8, H = 4, D = 4, n = W * H * D;
+        final float[] bases = {0f, 0f, 0f, 3.5f, -1f, 2f, -7f, 4f, 0.25f};
+
+        CPUScalarSimplexNoiseKernel.MultiChunk multi = new CPUScalarSimplexNoiseKernel.MultiChunk.Noise3D(NoiseBackendBuilder.NoiseCalculationMode.LOOKUP);
+        multi.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+        float[] out = new float[3 * n];
+        multi.bindOutput(out);
+        multi.setParameters(0f, 0f, 0f, W, H, D, 0.1f, 0, 99L);
+        multi.setChunks(bases, 3, n);
+        multi.execute(Range.create(3 * n, 1));
+
+        CPUScalarSimplexNoiseKernel single = new CPUScalarSimplexNoiseKernel.Simple.Noise3DIndexing1D(NoiseBackendBuilder.NoiseCalculationMode.LOOKUP);
+        single.setExecutionMode(Kernel.EXECUTION_MODE.SEQ);
+        float[] expected = new float[3 * n];
+        single.bindOutput(expected);
+        for (int c = 0; c < 3; c++) {
+            single.setParameters(bases[c * 3], bases[c * 3 + 1], bases[c * 3 + 2], W, H, D, 0.1f, c * n, 99L);
+            single.execute(Range.create(n, 1));
+        }
+        assertArrayEquals(expected, out);
+    }
+}
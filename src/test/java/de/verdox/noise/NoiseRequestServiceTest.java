@@ -0,0 +1,56 @@
+package de.verdox.noise;
+
+import de.verdox.util.LODUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseRequestServiceTest {
+
+    @Test
+    void builder_allocates_result_per_backend() {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = NoiseTestFixtures.cpu3D(16);
+        assertNotSame(b.build().getResult(), b.build().getResult());
+    }
+
+    @Test
+    void many_virtual_requests_share_bounded_carriers() throws Exception {
+        NoiseBackend reference = NoiseTestFixtures.cpu3D(16).build();
+
+        try (NoiseRequestService service = new NoiseRequestService(NoiseTestFixtures.cpu3D(16)::build, 2)) {
+            List<CompletableFuture<float[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                final int chunk = i % 8;
+                futures.add(service.submit(() -> {
+                    Thread.sleep(1); // IO / Cache-Lookup
+                    assertTrue(Thread.currentThread().isVirtual());
+                    return service.computeNoise(chunk * 16, 0, 0, 0.01f);
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                reference.generate((i % 8) * 16, 0, 0, 0.01f);
+                assertArrayEquals(reference.getResult(), futures.get(i).get());
+            }
+        }
+    }
+
+    @Test
+    void coarse_lod_returns_only_the_lod_samples() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = NoiseTestFixtures.cpu()
+                .withSize3D(16, (byte) 2, LODUtil.LODMode.CHUNK_LOCAL);
+        NoiseBackend reference = b.build();
+        reference.generate(3f, 0f, -1f, 0.01f);
+
+        try (NoiseRequestService service = new NoiseRequestService(b::build, 1)) {
+            float[] chunk = service.submit(() -> service.computeNoise(3f, 0f, -1f, 0.01f)).get();
+            assertEquals(4 * 4 * 4, chunk.length);
+            assertArrayEquals(Arrays.copyOf(reference.getResult(), chunk.length), chunk);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.verdox.noise;
+
+/**
+ * Builder fixtures shared by the tests. All tests use one seed; tests that need a second, different field override it
+ * with {@code withSeed}.
+ */
+public final class NoiseTestFixtures {
+    public static final long SEED = 42L;
+
+    private NoiseTestFixtures() {
+    }
+
+    /**
+     * Sequential CPU builder with {@link #SEED}, the reference every other path is compared against.
+     */
+    public static NoiseBackendBuilder.CPUNoiseBackendBuilder cpu() {
+        return NoiseBackendBuilder.cpu()
+                .withSeed(SEED)
+                .withParallelismMode(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL);
+    }
+
+    /**
+     * Like {@link #cpu()}, but builds the cache sized {@code CacheOnly} backend.
+     */
+    public static NoiseBackendBuilder.CPUNoiseBackendBuilder cacheOnly() {
+        return cpu().preventRamUsage(true);
+    }
+
+    public static NoiseBackendBuilder.CPUNoiseBackendBuilder cpu3D(int size) {
+        return cpu().withSize3D(size);
+    }
+
+    public static NoiseBackendBuilder.CPUNoiseBackendBuilder cpu2D(int size) {
+        return cpu().withSize2D(size);
+    }
+}
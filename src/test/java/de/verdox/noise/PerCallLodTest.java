@@ -0,0 +1,76 @@
+package de.verdox.noise;
+
+import de.verdox.util.LODUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerCallLodTest {
+    private static final float X0 = -3f, Y0 = 2.5f, Z0 = 11f, FREQ = 0.017f;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder(boolean cacheOnly, NoiseBackendBuilder.CPUParallelismMode parallelism) {
+        return NoiseTestFixtures.cpu()
+                .vectorize(true)
+                .preventRamUsage(cacheOnly)
+                .withParallelismMode(parallelism);
+    }
+
+    @Test
+    void one_backend_matches_backends_built_per_level_3d() {
+        for (NoiseBackendBuilder.CPUParallelismMode parallelism : new NoiseBackendBuilder.CPUParallelismMode[]{
+                NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL, NoiseBackendBuilder.CPUParallelismMode.PARALLELISM_THREADS}) {
+            for (boolean cacheOnly : new boolean[]{false, true}) {
+                for (LODUtil.LODMode mode : LODUtil.LODMode.values()) {
+                    NoiseBackend shared = builder(cacheOnly, parallelism).withSize3D(32, (byte) 0, mode).build();
+                    for (int l = 5; l >= 0; l--) {
+                        NoiseBackend reference = builder(cacheOnly, parallelism).withSize3D(32, (byte) l, mode).build();
+                        reference.generate(X0, Y0, Z0, FREQ);
+                        shared.generateLod(X0, Y0, Z0, FREQ, l);
+                        LODUtil.LOD3DParams lp = LODUtil.computeLOD3D(32, 32, 32, X0, Y0, Z0, FREQ, l, mode);
+                        int n = lp.widthLOD() * lp.heightLOD() * lp.depthLOD();
+                        assertArrayEquals(Arrays.copyOf(reference.getResult(), n), Arrays.copyOf(shared.getResult(), n),
+                                parallelism + " cacheOnly=" + cacheOnly + " " + mode + " level " + l);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void one_backend_matches_backends_built_per_level_2d() {
+        for (boolean cacheOnly : new boolean[]{false, true}) {
+            for (LODUtil.LODMode mode : LODUtil.LODMode.values()) {
+                NoiseBackend shared = builder(cacheOnly, NoiseBackendBuilder.CPUParallelismMode.PARALLELISM_THREADS)
+                        .withSize2D(64, (byte) 0, mode).build();
+                for (int l = 0; l <= 6; l++) {
+                    NoiseBackend reference = builder(cacheOnly, NoiseBackendBuilder.CPUParallelismMode.PARALLELISM_THREADS)
+                            .withSize2D(64, (byte) l, mode).build();
+                    reference.generate(X0, Z0, FREQ);
+                    shared.generateLod(X0, Z0, FREQ, l);
+                    LODUtil.LOD2DParams lp = LODUtil.computeLOD2D(64, 64, X0, Z0, FREQ, l, mode);
+                    int n = lp.widthLOD() * lp.depthLOD();
+                    assertArrayEquals(Arrays.copyOf(reference.getResult(), n), Arrays.copyOf(shared.getResult(), n),
+                            "cacheOnly=" + cacheOnly + " " + mode + " level " + l);
+                }
+            }
+        }
+    }
+
+    @Test
+    void configured_level_is_restored_and_range_is_checked() {
+        NoiseBackend shared = builder(true, NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)
+                .withSize3D(16, (byte) 1, LODUtil.LODMode.CHUNK_LOCAL).build();
+        NoiseBackend reference = builder(true, NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL)
+                .withSize3D(16, (byte) 1, LODUtil.LODMode.CHUNK_LOCAL).build();
+        reference.generate(X0, Y0, Z0, FREQ);
+
+        shared.generateLod(X0, Y0, Z0, FREQ, 3);
+        shared.generate(X0, Y0, Z0, FREQ);
+        assertArrayEquals(Arrays.copyOf(reference.getResult(), 8 * 8 * 8), Arrays.copyOf(shared.getResult(), 8 * 8 * 8));
+
+        assertThrows(IllegalArgumentException.class, () -> shared.generateLod(X0, Y0, Z0, FREQ, 5));
+        assertThrows(IllegalArgumentException.class, () -> shared.generateLod(X0, Y0, Z0, FREQ, -1));
+    }
+}
@@ -0,0 +1,89 @@
+package de.verdox.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityNoiseSchedulerTest {
+
+    @Test
+    void runs_by_priority_and_drops_cancelled_requests() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = NoiseTestFixtures.cacheOnly().withSize3D(16);
+        // Worker hält das erste Ticket, bis alle anderen eingereiht sind
+        try (PriorityNoiseScheduler scheduler = new PriorityNoiseScheduler(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return b.build();
+        }, 1)) {
+            List<Double> order = new CopyOnWriteArrayList<>();
+            PriorityNoiseScheduler.Ticket first = scheduler.submit(0, 0, 0, 0, 0.01f);
+            while (scheduler.queuedRequests() > 0) Thread.sleep(1);
+
+            PriorityNoiseScheduler.Ticket far = scheduler.submit(30, 0, 0, 0, 0.01f);
+            PriorityNoiseScheduler.Ticket near = scheduler.submit(10, 0, 0, 0, 0.01f);
+            PriorityNoiseScheduler.Ticket dropped = scheduler.submit(5, 0, 0, 0, 0.01f);
+            PriorityNoiseScheduler.Ticket moved = scheduler.submit(50, 0, 0, 0, 0.01f);
+            for (var t : List.of(far, near, moved)) {
+                t.result().thenRun(() -> order.add(t.priority()));
+            }
+            dropped.cancel();
+            assertTrue(scheduler.reprioritize(moved, 1));
+            start.countDown();
+
+            first.result().get(30, TimeUnit.SECONDS);
+            far.result().get(30, TimeUnit.SECONDS);
+            assertEquals(List.of(1.0, 10.0, 30.0), order);
+            assertThrows(CancellationException.class, () -> dropped.result().join());
+        }
+    }
+
+    @Test
+    void running_request_is_aborted_at_tile_boundary() {
+        // Morton-Kacheln sind höchstens 128³ groß -> 256³ hat immer mehrere Kacheln
+        NoiseBackend backend = NoiseTestFixtures.cacheOnly()
+                .withSize3D(256)
+                .withTileTraversal(NoiseBackendBuilder.TileTraversal.MORTON)
+                .build();
+        int[] checks = new int[1];
+
+        assertThrows(NoiseGenerationCancelledException.class, () -> backend.generate(0, 0, 0, 0.01f, () -> ++checks[0] > 2));
+        // Start-Check + zwei Kacheln, danach abgebrochen
+        assertEquals(3, checks[0]);
+    }
+
+    @Test
+    void requests_racing_close_never_hang() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = NoiseTestFixtures.cacheOnly().withSize3D(8);
+        for (int round = 0; round < 100; round++) {
+            PriorityNoiseScheduler scheduler = new PriorityNoiseScheduler(b::build, 1);
+            List<PriorityNoiseScheduler.Ticket> tickets = new CopyOnWriteArrayList<>();
+            Thread producer = new Thread(() -> {
+                try {
+                    while (true) tickets.add(scheduler.submit(tickets.size(), 0, 0, 0, 0.01f));
+                } catch (IllegalStateException closed) {
+                    // erwartet
+                }
+            });
+            producer.start();
+            while (tickets.isEmpty()) Thread.onSpinWait();
+            scheduler.close();
+            producer.join();
+
+            // jedes angenommene Ticket ist fertig oder abgebrochen, keins bleibt liegen
+            for (var t : new ArrayList<>(tickets)) {
+                assertTrue(t.result().isDone(), "ticket " + t.priority() + " of round " + round + " hangs");
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.verdox.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightNoiseServiceTest {
+
+    @Test
+    void identical_concurrent_requests_share_one_computation() throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder builder = NoiseTestFixtures.cpu().withSize3D(32);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch allWaiting = new CountDownLatch(1);
+
+        try (SingleFlightNoiseService service = new SingleFlightNoiseService(builder, () -> new CountingBackend(builder.build(), computations, allWaiting));
+             ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<NoiseField>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> service.get(1f, 2f, 3f, 0.01f)));
+            }
+            while (service.inFlight() == 0) Thread.sleep(1);
+            Thread.sleep(100);
+            allWaiting.countDown();
+
+            NoiseField first = results.get(0).get();
+            for (Future<NoiseField> f : results) {
+                assertSame(first, f.get());
+            }
+            assertEquals(1, computations.get());
+            assertEquals(0, service.inFlight());
+
+            NoiseBackend reference = builder.build();
+            reference.generate(1f, 2f, 3f, 0.01f);
+            assertArrayEquals(reference.getResult(), first.toArray());
+        }
+    }
+
+    @Test
+    void scalar_and_vector_kernels_do_not_share_results() {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder scalar = NoiseTestFixtures.cpu().withSize3D(16).vectorize(false);
+        NoiseBackendBuilder.CPUNoiseBackendBuilder vector = NoiseTestFixtures.cpu().withSize3D(16).vectorize(true);
+        assertNotEquals(NoiseKey.of(scalar, 1f, 2f, 3f, 0.01f), NoiseKey.of(vector, 1f, 2f, 3f, 0.01f));
+
+        try (SingleFlightNoiseService scalarService = new SingleFlightNoiseService(scalar);
+             SingleFlightNoiseService vectorService = new SingleFlightNoiseService(vector)) {
+            float[] s = scalarService.get(1f, 2f, 3f, 0.01f).toArray();
+            float[] v = vectorService.get(1f, 2f, 3f, 0.01f).toArray();
+            // beide Kernel liefern unterschiedliche Felder, jeder Aufrufer muss sein eigenes bekommen
+            assertFalse(java.util.Arrays.equals(s, v));
+
+            NoiseBackend reference = scalar.build();
+            reference.generate(1f, 2f, 3f, 0.01f);
+            assertArrayEquals(reference.getResult(), s);
+            reference = vector.build();
+            reference.generate(1f, 2f, 3f, 0.01f);
+            assertArrayEquals(reference.getResult(), v);
+        }
+    }
+
+    private static final class CountingBackend extends NoiseBackend {
+        private final NoiseBackend delegate;
+        private final AtomicInteger computations;
+        private final CountDownLatch release;
+
+        CountingBackend(NoiseBackend delegate, AtomicInteger computations, CountDownLatch release) {
+            super(delegate.getResult(), delegate.width, delegate.height, delegate.depth);
+            this.delegate = delegate;
+            this.computations = computations;
+            this.release = release;
+        }
+
+        @Override
+        public void generate(float x0, float y0, float z0, float frequency) {
+            computations.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            delegate.generate(x0, y0, z0, frequency);
+        }
+
+        @Override
+        public void generate(float x0, float y0, float frequency) {
+            delegate.generate(x0, y0, frequency);
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public void logSetup() {
+        }
+    }
+}
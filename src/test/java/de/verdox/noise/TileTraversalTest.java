@@ -0,0 +1,57 @@
+package de.verdox.noise;
+
+import de.verdox.noise.NoiseBackendBuilder.CPUParallelismMode;
+import de.verdox.noise.NoiseBackendBuilder.TileTraversal;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class TileTraversalTest {
+
+    private static final float X0 = 3f, Y0 = -2f, Z0 = 5f;
+    private static final float FREQ = 0.01f;
+    private static final int SIZE = 128;
+
+    @TestFactory
+    Iterable<DynamicTest> morton_tiles_match_untiled_volume() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (boolean vectorize : List.of(false, true)) {
+            float[] reference = generate3D(NoiseTestFixtures.cpu()
+                    .vectorize(vectorize)
+                    .withParallelismMode(CPUParallelismMode.SEQUENTIAL)
+                    .withSize3D(SIZE)
+                    .build());
+
+            for (TileTraversal traversal : TileTraversal.values()) {
+                for (CPUParallelismMode pm : List.of(CPUParallelismMode.SEQUENTIAL, CPUParallelismMode.PARALLELISM_THREADS, CPUParallelismMode.FORK_JOIN)) {
+                    for (boolean direct : List.of(false, true)) {
+                        String name = String.format("vec=%s, %s, %s, direct=%s", vectorize, traversal, pm, direct);
+                        tests.add(DynamicTest.dynamicTest(name, () -> {
+                            float[] tiled = generate3D(NoiseTestFixtures.cpu()
+                                    .preventRamUsage(true)
+                                    .directOutput(direct)
+                                    .withTileTraversal(traversal)
+                                    .vectorize(vectorize)
+                                    .withParallelismMode(pm)
+                                    .withSize3D(SIZE)
+                                    .build());
+                            assertArrayEquals(reference, tiled);
+                        }));
+                    }
+                }
+            }
+        }
+        return tests;
+    }
+
+    private static float[] generate3D(NoiseBackend backend) {
+        backend.generate(X0, Y0, Z0, FREQ);
+        float[] res = backend.getResult();
+        return Arrays.copyOf(res, res.length);
+    }
+}
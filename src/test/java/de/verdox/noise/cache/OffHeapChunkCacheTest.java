@@ -0,0 +1,73 @@
+package de.verdox.noise.cache;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseTestFixtures;
+import de.verdox.noise.NoiseKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapChunkCacheTest {
+
+    private static final NoiseBackendBuilder.CPUNoiseBackendBuilder BUILDER = NoiseTestFixtures.cpu()
+            .withSize3D(16);
+
+    private static OffHeapChunkCache.Key key(int i) {
+        return new OffHeapChunkCache.Key(0, NoiseKey.of(BUILDER, i, 0f, 0f, 0.01f));
+    }
+
+    @Test
+    void values_round_trip_and_bound_is_enforced() {
+        try (OffHeapChunkCache cache = new OffHeapChunkCache(4 * 8 * Float.BYTES, 8)) {
+            float[] in = {1, 2, 3, 4, 5};
+            assertTrue(cache.put(key(0), in, 5));
+            assertFalse(cache.put(key(1), new float[9], 9)); // größer als ein Slot
+
+            float[] out = new float[8];
+            assertEquals(5, cache.get(key(0), out));
+            assertArrayEquals(in, java.util.Arrays.copyOf(out, 5));
+            assertEquals(-1, cache.get(key(1), out));
+
+            for (int i = 2; i < 12; i++) cache.put(key(i), in, 5);
+            OffHeapChunkCache.Stats stats = cache.stats();
+            assertEquals(4, stats.entries());
+            assertEquals(4 * 8 * Float.BYTES, stats.capacityBytes());
+            assertTrue(stats.evictions() >= 6);
+            assertEquals(1, stats.hits());
+            assertEquals(1, stats.misses());
+        }
+    }
+
+    @Test
+    void frequently_used_entries_survive_a_scan() {
+        // ein Segment mit 10 Slots, davon 8 protected
+        try (OffHeapChunkCache cache = new OffHeapChunkCache(10 * 4 * Float.BYTES, 4)) {
+            float[] v = new float[4];
+            cache.put(key(-1), v, 4);
+            cache.get(key(-1), v); // -> protected
+
+            for (int i = 0; i < 100; i++) cache.put(key(i), v, 4);
+            assertTrue(cache.contains(key(-1)));
+            assertFalse(cache.contains(key(0)));
+        }
+    }
+
+    @Test
+    void caching_backend_returns_identical_fields() {
+        NoiseBackend reference = BUILDER.build();
+        try (OffHeapChunkCache cache = new OffHeapChunkCache(1 << 20, 16 * 16 * 16)) {
+            CachingNoiseBackend cached = new CachingNoiseBackend(BUILDER.build(), BUILDER, cache, 1);
+
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < 3; i++) {
+                    cached.generate(i * 0.16f, 0f, 0f, 0.01f);
+                    reference.generate(i * 0.16f, 0f, 0f, 0.01f);
+                    assertArrayEquals(reference.getResult(), cached.getResult());
+                }
+            }
+            assertEquals(3, cache.stats().hits());
+            assertEquals(3, cache.stats().misses());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package de.verdox.noise.cache;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseTestFixtures;
+import de.verdox.noise.NoiseKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedMemoryChunkCacheTest {
+    private static final NoiseBackendBuilder.CPUNoiseBackendBuilder BUILDER = NoiseTestFixtures.cpu()
+            .withSize3D(16);
+
+    private static OffHeapChunkCache.Key key(int i) {
+        return new OffHeapChunkCache.Key(0, NoiseKey.of(BUILDER, i, 0f, 0f, 0.01f));
+    }
+
+    @Test
+    void two_mappings_of_one_file_share_entries(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("noise.shm");
+        try (SharedMemoryChunkCache a = new SharedMemoryChunkCache(file, 64, 8);
+             SharedMemoryChunkCache b = new SharedMemoryChunkCache(file, 64, 8)) {
+            float[] in = {1, 2, 3, 4, 5};
+            assertTrue(a.put(key(0), in, 5));
+            assertFalse(a.put(key(1), new float[9], 9));
+
+            float[] out = new float[8];
+            assertEquals(5, b.get(key(0), out));
+            assertArrayEquals(in, java.util.Arrays.copyOf(out, 5));
+            assertEquals(-1, b.get(key(1), out));
+
+            float[] sum = new float[1];
+            assertTrue(b.read(key(0), seg -> {
+                for (long i = 0; i < seg.byteSize() / Float.BYTES; i++) sum[0] += seg.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            }));
+            assertEquals(15f, sum[0]);
+
+            // mehr Schlüssel als Einträge: verdrängt, aber nie falsche Werte
+            for (int i = 0; i < 500; i++) a.put(key(i), new float[]{i}, 1);
+            for (int i = 0; i < 500; i++) {
+                int n = b.get(key(i), out);
+                if (n >= 0) assertEquals(i, out[0]);
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> new SharedMemoryChunkCache(file, 128, 8));
+    }
+
+    @Test
+    void lock_of_a_crashed_writer_is_reclaimed(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("noise.shm");
+        // PID eines beendeten Prozesses als toter Schreiber
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process dead = new ProcessBuilder(java, "-version").redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        dead.waitFor();
+        try (SharedMemoryChunkCache cache = new SharedMemoryChunkCache(file, 16, 8);
+             FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             Arena arena = Arena.ofConfined()) {
+            assertTrue(cache.put(key(0), new float[]{1f}, 1));
+            MemorySegment map = ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size(), arena);
+            long seq = -1;
+            for (long e = 64; e < 64 + 16 * 32; e += 32) {
+                if (map.get(ValueLayout.JAVA_LONG, e) == SharedMemoryChunkCache.key1(key(0))) seq = e + 16;
+            }
+            // Schreiber stirbt nach dem Sperren: ungerader Zähler, PID eines beendeten Prozesses
+            long counter = map.get(ValueLayout.JAVA_LONG, seq) + 1;
+            map.set(ValueLayout.JAVA_LONG, seq, (dead.pid() << 32) | counter);
+
+            float[] out = new float[8];
+            assertEquals(-1, cache.get(key(0), out));
+            assertEquals(0, cache.tornReads());
+            assertTrue(cache.put(key(0), new float[]{2f}, 1));
+            assertEquals(1, cache.reclaimedLocks());
+            assertEquals(1, cache.get(key(0), out));
+            assertEquals(2f, out[0]);
+
+            // Sperre eines lebenden, nur hängenden Schreibers wird nie übernommen, egal wie alt
+            long live = map.get(ValueLayout.JAVA_LONG, seq) + 1;
+            map.set(ValueLayout.JAVA_LONG, seq, (ProcessHandle.current().pid() << 32) | live);
+            assertFalse(cache.put(key(0), new float[]{3f}, 1));
+            assertEquals(1, cache.skippedWrites());
+            assertEquals(1, cache.reclaimedLocks());
+
+            cache.reset();
+            assertEquals(-1, cache.get(key(0), out));
+            assertTrue(cache.put(key(0), new float[]{4f}, 1));
+            assertEquals(1, cache.get(key(0), out));
+            assertEquals(4f, out[0]);
+        }
+    }
+
+    @Test
+    void caching_backend_over_shared_memory_returns_identical_fields(@TempDir Path dir) throws Exception {
+        NoiseBackend reference = BUILDER.build();
+        try (SharedMemoryChunkCache cache = new SharedMemoryChunkCache(dir.resolve("noise.shm"), 64, 16 * 16 * 16)) {
+            CachingNoiseBackend first = new CachingNoiseBackend(BUILDER.build(), BUILDER, cache, 1);
+            CachingNoiseBackend second = new CachingNoiseBackend(BUILDER.build(), BUILDER, cache, 1);
+            for (int i = 0; i < 4; i++) first.generate(i * 16f, 0f, 0f, 0.01f);
+            for (int i = 0; i < 4; i++) {
+                second.generate(i * 16f, 0f, 0f, 0.01f);
+                reference.generate(i * 16f, 0f, 0f, 0.01f);
+                assertArrayEquals(reference.getResult(), second.getResult());
+            }
+            assertEquals(4, cache.hits());
+        }
+    }
+}
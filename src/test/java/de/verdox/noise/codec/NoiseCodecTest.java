@@ -0,0 +1,122 @@
+package de.verdox.noise.codec;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseTestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoiseCodecTest {
+    private static final float STEP = 1f / 4096;
+
+    private static float[] field3D(int size) {
+        NoiseBackend backend = NoiseTestFixtures.cpu()
+                .withSize3D(size)
+                .build();
+        backend.generate(0f, 0f, 0f, 0.02f);
+        return backend.getResult();
+    }
+
+    private static float[] field2D(int size) {
+        NoiseBackend backend = NoiseTestFixtures.cpu()
+                .withSize2D(size)
+                .build();
+        backend.generate(3f, -2f, 0.02f);
+        return backend.getResult();
+    }
+
+    private static void assertWithinStep(float[] expected, float[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], STEP * 0.5f + 1e-6f, "index " + i);
+        }
+    }
+
+    @Test
+    void every_predictor_and_entropy_round_trips() {
+        float[] f3 = field3D(32);
+        float[] f2 = field2D(64);
+        for (NoiseCodec.Predictor p : NoiseCodec.Predictor.values()) {
+            for (NoiseCodec.Entropy e : NoiseCodec.Entropy.values()) {
+                NoiseCodec codec = new NoiseCodec(STEP, p, e);
+                assertWithinStep(f3, NoiseCodec.decode(codec.encode(f3, 32, 32, 32)));
+                assertWithinStep(f2, NoiseCodec.decode(codec.encode(f2, 64, 1, 64)));
+            }
+        }
+    }
+
+    @Test
+    void odd_dimensions_and_streamed_slabs() throws Exception {
+        final int W = 13, H = 7, D = 9;
+        float[] f = new float[W * H * D];
+        for (int i = 0; i < f.length; i++) f[i] = (float) Math.sin(i * 0.01);
+
+        NoiseCodec codec = new NoiseCodec(STEP, NoiseCodec.Predictor.LORENZO, NoiseCodec.Entropy.BITPACK);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NoiseCodec.Encoder enc = codec.newEncoder(out, W, H, D)) {
+            enc.writeSlab(f, 0, 2);
+            enc.writeSlab(f, 2 * W * H, 5);
+            enc.writeSlab(f, 7 * W * H, 2);
+        }
+
+        float[] back = new float[f.length];
+        try (NoiseCodec.Decoder dec = NoiseCodec.newDecoder(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(2, dec.readSlab(back, 0));
+            assertEquals(5, dec.readSlab(back, 2 * W * H));
+            assertEquals(2, dec.readSlab(back, 7 * W * H));
+            assertEquals(0, dec.readSlab(back, 0));
+        }
+        assertWithinStep(f, back);
+    }
+
+    @Test
+    void unknown_predictor_or_entropy_is_an_io_error() {
+        byte[] data = new NoiseCodec(STEP, NoiseCodec.Predictor.LEFT, NoiseCodec.Entropy.BITPACK).encode(new float[8], 2, 2, 2);
+        // Header: Magic (4), Version (1), Predictor (1), Entropy (1)
+        for (int offset : new int[]{5, 6}) {
+            byte[] corrupt = data.clone();
+            corrupt[offset] = (byte) 0xFF;
+            IOException e = assertThrows(IOException.class, () -> NoiseCodec.newDecoder(new ByteArrayInputStream(corrupt)));
+            assertTrue(e.getMessage().startsWith("Unsupported"), e.getMessage());
+        }
+    }
+
+    @Test
+    void oversized_or_corrupt_sizes_are_rejected_before_allocating() {
+        NoiseCodec codec = new NoiseCodec(STEP, NoiseCodec.Predictor.LORENZO, NoiseCodec.Entropy.BITPACK);
+        assertThrows(IllegalArgumentException.class, () -> codec.newEncoder(new ByteArrayOutputStream(), 2048, 2048, 1024));
+
+        byte[] data = codec.encode(field3D(16), 16, 16, 16);
+        // Header: Magic, Version, Predictor, Entropy, Padding, dann width (8), height (12), depth (16), step (20)
+        byte[] overflow = data.clone();
+        ByteBuffer.wrap(overflow).putInt(8, 2048).putInt(12, 2048).putInt(16, 1024);
+        assertThrows(IOException.class, () -> NoiseCodec.newDecoder(new ByteArrayInputStream(overflow)));
+
+        // 2^30 Samples passen in ein Array, aber nicht in die paar hundert Bytes des Streams
+        byte[] huge = data.clone();
+        ByteBuffer.wrap(huge).putInt(8, 1024).putInt(12, 1024).putInt(16, 1024);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> NoiseCodec.decode(huge));
+        assertEquals("Corrupt field header", e.getCause().getMessage());
+
+        // erster Slab-Header hinter dem 24-Byte-Header: planes (24), size (28)
+        byte[] badSize = data.clone();
+        ByteBuffer.wrap(badSize).putInt(28, Integer.MAX_VALUE - 16);
+        e = assertThrows(UncheckedIOException.class, () -> NoiseCodec.decode(badSize));
+        assertEquals("Corrupt slab header", e.getCause().getMessage());
+    }
+
+    @Test
+    void smooth_noise_compresses_well() {
+        float[] f = field3D(64);
+        byte[] lorenzo = new NoiseCodec(STEP, NoiseCodec.Predictor.LORENZO, NoiseCodec.Entropy.BITPACK).encode(f, 64, 64, 64);
+        byte[] none = new NoiseCodec(STEP, NoiseCodec.Predictor.NONE, NoiseCodec.Entropy.BITPACK).encode(f, 64, 64, 64);
+        assertTrue(lorenzo.length * 4L < (long) f.length * Float.BYTES, "ratio " + (f.length * 4.0 / lorenzo.length));
+        assertTrue(lorenzo.length < none.length);
+    }
+}
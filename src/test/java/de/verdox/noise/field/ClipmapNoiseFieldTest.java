@@ -0,0 +1,60 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseTestFixtures;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClipmapNoiseFieldTest {
+    private static final float FREQ = 0.01f;
+
+    private static NoiseBackend backend() {
+        return NoiseTestFixtures.cpu()
+                .withSize2D(32)
+                .build();
+    }
+
+    private static float[] window(SlidingNoiseField f) {
+        float[] out = new float[f.sizeX() * f.sizeY() * f.sizeZ()];
+        f.copyTo(out, 0);
+        return out;
+    }
+
+    @Test
+    void levels_follow_the_viewpoint_with_doubled_spacing() {
+        NoiseBackend backend = backend();
+        ClipmapNoiseField clipmap = ClipmapNoiseField.of2D(backend, 0f, 0f, FREQ, 32, 3);
+        for (int step = 0; step < 40; step++) {
+            clipmap.setViewpoint(step * 3, -step);
+            clipmap.update();
+        }
+        for (int l = 0; l < 3; l++) {
+            SlidingNoiseField level = clipmap.level(l);
+            assertEquals((117 >> l) - 16, level.originX());
+            assertEquals((-39 >> l) - 16, level.originZ());
+
+            SlidingNoiseField fresh = SlidingNoiseField.of2D(backend, 0f, 0f, FREQ * (1 << l), 32, 32);
+            fresh.moveTo(level.originX(), level.originZ());
+            assertArrayEquals(window(fresh), window(level), "level " + l);
+        }
+    }
+
+    @Test
+    void budget_defers_levels_by_priority() {
+        ClipmapNoiseField clipmap = ClipmapNoiseField.of2D(backend(), 0f, 0f, FREQ, 32, 3);
+        clipmap.setViewpoint(0, 0);
+        assertEquals(2, clipmap.update(1));
+        assertFalse(clipmap.isPending(0));
+        assertTrue(clipmap.isPending(1));
+        assertEquals(0, clipmap.update(1 << 20));
+
+        // ein Schritt auf Level 0 kostet eine Spalte, Level 1 bewegt sich nur bei jedem zweiten Schritt
+        long before = clipmap.generatedSamples();
+        clipmap.setViewpoint(1, 0);
+        assertTrue(clipmap.isPending(0));
+        assertFalse(clipmap.isPending(1));
+        clipmap.update();
+        assertEquals(32, clipmap.generatedSamples() - before);
+    }
+}
@@ -0,0 +1,176 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseTestFixtures;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FractalNoiseTest {
+
+    private static NoiseBackend backend3D() {
+        return NoiseTestFixtures.cpu()
+                .vectorize(true)
+                .withSize3D(16)
+                .build();
+    }
+
+    private static float[] octave(NoiseBackend backend, float x0, float y0, float z0, float frequency, float scale) {
+        float[] out = new float[16 * 16 * 16];
+        backend.generateRegion(x0 * scale, y0 * scale, z0 * scale, frequency * scale, 0, 0, 0, 16, 16, 16, out, 0, 16, 256);
+        return out;
+    }
+
+    @Test
+    void sum_of_octaves_without_culling() {
+        NoiseBackend backend = backend3D();
+        FractalNoise fbm = FractalNoise.of3D(backend, 16, 16, 16, 3).withGain(0.4f);
+        fbm.generate(1f, 2f, 3f, 0.05f);
+
+        float[] o0 = octave(backend, 1f, 2f, 3f, 0.05f, 1f);
+        float[] o1 = octave(backend, 1f, 2f, 3f, 0.05f, 2f);
+        float[] o2 = octave(backend, 1f, 2f, 3f, 0.05f, 4f);
+        for (int i = 0; i < o0.length; i++) {
+            assertEquals(o0[i] + 0.4f * o1[i] + 0.16f * o2[i], fbm.data()[i], 1e-5f);
+        }
+        assertEquals(3L * 16 * 16 * 16, fbm.generatedSamples());
+    }
+
+    @Test
+    void octaves_above_nyquist_are_skipped() {
+        NoiseBackend backend = backend3D();
+        FractalNoise fbm = FractalNoise.of3D(backend, 16, 16, 16, 6).withOctaveCulling(true);
+        // Abstand 0.1: Oktaven 0..2 (0.1, 0.2, 0.4) bleiben, 3..5 liegen über 0.5
+        assertEquals(3, fbm.activeOctaves(0.1f));
+        // gröberes LOD (doppelter Abstand) kostet eine Oktave weniger
+        assertEquals(2, fbm.activeOctaves(0.2f));
+
+        fbm.generate(0f, 0f, 0f, 0.1f);
+        assertEquals(3L * 16 * 16 * 16, fbm.generatedSamples());
+
+        FractalNoise reference = FractalNoise.of3D(backend, 16, 16, 16, 3);
+        reference.generate(0f, 0f, 0f, 0.1f);
+        assertArrayEquals(reference.data(), fbm.data());
+    }
+
+    @Test
+    void fade_lowers_weights_towards_the_limit() {
+        FractalNoise fbm = FractalNoise.of2D(NoiseBackendBuilder.cpu().withSize2D(16).build(), 16, 16, 8)
+                .withOctaveCulling(true)
+                .withCullingFade(2f);
+        float previous = Float.MAX_VALUE;
+        for (int o = 0; o < 8; o++) {
+            float relative = fbm.octaveWeight(0.01f, o) / fbm.amplitude(o);
+            assertTrue(relative >= 0f && relative <= 1f);
+            assertTrue(relative <= previous);
+            previous = relative;
+        }
+        // 0.01 * 2^5 = 0.32 liegt ~0.64 Oktaven unter der Grenze
+        assertEquals(Math.log(0.5 / 0.32) / Math.log(2) / 2, fbm.octaveWeight(0.01f, 5) / fbm.amplitude(5), 1e-4);
+        assertEquals(0f, fbm.octaveWeight(0.01f, 6));
+    }
+
+    @Test
+    void classification_matches_full_evaluation_and_terminates_early() {
+        NoiseBackend backend = backend3D();
+        FractalNoise fbm = FractalNoise.of3D(backend, 16, 16, 16, 5);
+        float[] density = new float[16 * 16 * 16];
+        for (int i = 0; i < density.length; i++) density[i] = (8 - (i / 16) % 16) * 0.25f;
+
+        fbm.generate(3f, 0f, 5f, 0.03f);
+        float[] full = fbm.data().clone();
+
+        ThresholdMask mask = fbm.classify(3f, 0f, 5f, 0.03f, density, 0f, 0.1f);
+        for (int i = 0; i < full.length; i++) {
+            float v = density[i] + full[i];
+            if (Math.abs(v) > 1e-4f) assertEquals(v > 0f, mask.isSolid(i), "voxel " + i);
+            if (Math.abs(v) <= 0.1f - 1e-4f) {
+                assertTrue(mask.isExact(i), "voxel " + i);
+                assertEquals(v, mask.value(i), 1e-5f);
+            }
+        }
+        assertTrue(mask.evaluatedSamples() < 5L * full.length / 2, "evaluated " + mask.evaluatedSamples());
+    }
+
+    @Test
+    void exact_values_without_density_equal_the_fbm() {
+        NoiseBackend backend = backend3D();
+        FractalNoise fbm = FractalNoise.of3D(backend, 16, 16, 16, 4);
+        fbm.generate(0f, 0f, 0f, 0.04f);
+        ThresholdMask mask = fbm.classify(0f, 0f, 0f, 0.04f, null, 0.2f, 0f);
+        int exact = 0;
+        for (int i = 0; i < mask.length(); i++) {
+            assertEquals(fbm.data()[i] > 0.2f, mask.isSolid(i));
+            if (mask.isExact(i)) {
+                assertEquals(fbm.data()[i], mask.value(i));
+                exact++;
+            } else {
+                assertTrue(Float.isNaN(mask.value(i)));
+            }
+        }
+        assertEquals(exact, mask.exactCount());
+    }
+
+    @Test
+    void box_bounds_contain_every_sample() {
+        NoiseBackend backend = backend3D();
+        FractalNoise fbm = FractalNoise.of3D(backend, 16, 16, 16, 4);
+        fbm.generate(-7f, 2f, 9f, 0.02f);
+        for (int[] box : new int[][]{{0, 0, 0, 16, 16, 16}, {4, 8, 2, 4, 4, 4}, {11, 3, 5, 5, 1, 7}}) {
+            float[] b = fbm.bounds(-7f, 2f, 9f, 0.02f, box[0], box[1], box[2], box[3], box[4], box[5]);
+            assertTrue(b[0] <= b[1]);
+            for (int z = box[2]; z < box[2] + box[5]; z++) {
+                for (int y = box[1]; y < box[1] + box[4]; y++) {
+                    for (int x = box[0]; x < box[0] + box[3]; x++) {
+                        float v = fbm.data()[x + y * 16 + z * 256];
+                        assertTrue(v >= b[0] && v <= b[1], v + " outside " + b[0] + ".." + b[1]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void uniform_bricks_are_skipped() {
+        NoiseBackend backend = NoiseTestFixtures.cpu()
+                .withSize3D(32)
+                .build();
+        FractalNoise fbm = FractalNoise.of3D(backend, 32, 32, 32, 4);
+        float[] density = new float[32 * 32 * 32];
+        for (int i = 0; i < density.length; i++) density[i] = (16 - (i / 32) % 32) * 0.5f;
+
+        fbm.generate(5f, 0f, -3f, 0.02f);
+        float[] full = fbm.data().clone();
+        ThresholdMask mask = fbm.classifyBricks(5f, 0f, -3f, 0.02f, density, 0f, 8);
+        for (int i = 0; i < full.length; i++) {
+            float v = full[i] + density[i];
+            assertEquals(v > 0f, mask.isSolid(i), "voxel " + i);
+            if (mask.isExact(i)) assertEquals(v, mask.value(i));
+        }
+        // die Bricks bei y < 8 und y >= 24 liegen klar über/unter der Oberfläche
+        assertTrue(mask.exactCount() <= full.length / 2, "exact " + mask.exactCount());
+        assertTrue(mask.evaluatedSamples() < 4L * full.length * 3 / 4, "evaluated " + mask.evaluatedSamples());
+    }
+
+    @Test
+    void adaptive_resolution_is_sublinear_and_close_to_exact() {
+        NoiseBackend backend = NoiseTestFixtures.cpu()
+                .vectorize(true)
+                .withSize3D(32)
+                .build();
+        FractalNoise exact = FractalNoise.of3D(backend, 32, 32, 32, 6);
+        FractalNoise adaptive = FractalNoise.of3D(backend, 32, 32, 32, 6).withAdaptiveResolution(0.1f);
+        assertArrayEquals(new int[]{16, 8, 4, 2, 1, 1},
+                java.util.stream.IntStream.range(0, 6).map(o -> adaptive.octaveCell(0.005f, o)).toArray());
+        assertEquals(1, exact.octaveCell(0.005f, 0));
+
+        exact.generate(2f, -6f, 1f, 0.005f);
+        adaptive.generate(2f, -6f, 1f, 0.005f);
+        int n = 32 * 32 * 32;
+        assertTrue(adaptive.generatedSamples() < 3L * n, "samples " + adaptive.generatedSamples());
+        float max = 0f;
+        for (int i = 0; i < n; i++) max = Math.max(max, Math.abs(exact.data()[i] - adaptive.data()[i]));
+        assertTrue(max < 0.05f, "max error " + max);
+    }
+}
@@ -0,0 +1,57 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseTestFixtures;
+import de.verdox.noise.NoiseField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressiveNoiseFieldTest {
+    private static final float FREQ = 0.02f;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder(boolean vectorize) {
+        return NoiseTestFixtures.cpu()
+                .vectorize(vectorize)
+                .withParallelismMode(NoiseBackendBuilder.CPUParallelismMode.SEQUENTIAL);
+    }
+
+    @Test
+    void passes_add_up_to_the_full_field_3d() {
+        for (boolean vectorize : List.of(false, true)) {
+            NoiseBackend backend = builder(vectorize).withSize3D(32).build();
+            ProgressiveNoiseField f = ProgressiveNoiseField.of3D(backend, 2f, 3f, 4f, FREQ, 32, 32, 32, 4);
+            List<NoiseField> previews = new ArrayList<>();
+            f.run(previews::add);
+
+            assertEquals(3, previews.size());
+            assertEquals(8 * 8 * 8, previews.get(0).length());
+            assertEquals(32 * 32 * 32, f.generatedSamples());
+
+            backend.generate(2f, 3f, 4f, FREQ);
+            float[] full = backend.getResult();
+            assertArrayEquals(full, f.data());
+            // Vorschau = jedes 4. Sample des fertigen Felds
+            assertEquals(full[4 + 8 * 32 + 12 * 32 * 32], previews.get(0).get(1 + 2 * 8 + 3 * 64));
+        }
+    }
+
+    @Test
+    void passes_add_up_to_the_full_field_2d() {
+        NoiseBackend backend = builder(true).withSize2D(64).build();
+        ProgressiveNoiseField f = ProgressiveNoiseField.of2D(backend, -1f, 5f, FREQ, 64, 64, 8);
+        NoiseField coarse = f.refine();
+        assertEquals(8, f.scale());
+        assertEquals(64, coarse.length());
+        f.run(p -> {});
+        assertEquals(64 * 64, f.generatedSamples());
+
+        backend.generate(-1f, 5f, FREQ);
+        assertArrayEquals(backend.getResult(), f.data());
+        assertThrows(IllegalStateException.class, f::refine);
+    }
+}
@@ -0,0 +1,75 @@
+package de.verdox.noise.field;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseTestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingNoiseFieldTest {
+    private static final float FREQ = 0.02f;
+
+    private static NoiseBackend backend3D(boolean vectorize) {
+        return NoiseTestFixtures.cpu()
+                .withParallelismMode(NoiseBackendBuilder.CPUParallelismMode.PARALLELISM_THREADS)
+                .vectorize(vectorize)
+                .withSize3D(16)
+                .build();
+    }
+
+    private static float[] window(SlidingNoiseField f) {
+        float[] out = new float[f.sizeX() * f.sizeY() * f.sizeZ()];
+        f.copyTo(out, 0);
+        return out;
+    }
+
+    @Test
+    void window_at_anchor_matches_generate() {
+        NoiseBackend backend = backend3D(true);
+        SlidingNoiseField f = SlidingNoiseField.of3D(backend, 3f, -1f, 7f, FREQ, 16, 16, 16);
+        f.moveTo(0, 0, 0);
+        backend.generate(3f, -1f, 7f, FREQ);
+        assertArrayEquals(backend.getResult(), window(f));
+    }
+
+    @Test
+    void incremental_moves_match_full_generation() {
+        for (boolean vectorize : new boolean[]{false, true}) {
+            NoiseBackend backend = backend3D(vectorize);
+            SlidingNoiseField moving = SlidingNoiseField.of3D(backend, 0f, 0f, 0f, FREQ, 32, 16, 32);
+            moving.moveTo(5, -3, 9);
+            Random rnd = new Random(1);
+            for (int step = 0; step < 25; step++) {
+                moving.moveBy(rnd.nextInt(11) - 5, rnd.nextInt(5) - 2, step == 12 ? 100 : rnd.nextInt(11) - 5);
+
+                SlidingNoiseField fresh = SlidingNoiseField.of3D(backend, 0f, 0f, 0f, FREQ, 32, 16, 32);
+                fresh.moveTo(moving.originX(), moving.originY(), moving.originZ());
+                assertArrayEquals(window(fresh), window(moving), "step " + step);
+            }
+            assertEquals(window(moving)[0], moving.getLocal(0, 0, 0));
+        }
+    }
+
+    @Test
+    void step_cost_is_proportional_to_motion_2d() {
+        NoiseBackend backend = NoiseTestFixtures.cpu()
+                .withSize2D(64)
+                .build();
+        SlidingNoiseField f = SlidingNoiseField.of2D(backend, 1f, 2f, FREQ, 64, 64);
+        f.moveTo(0, 0);
+        long full = f.generatedSamples();
+        f.moveTo(1, 0);
+        assertEquals(64, f.generatedSamples() - full);
+        f.moveTo(0, -2);
+        assertEquals(64 + 64 + 2 * 63, f.generatedSamples() - full);
+
+        SlidingNoiseField fresh = SlidingNoiseField.of2D(backend, 1f, 2f, FREQ, 64, 64);
+        fresh.moveTo(0, -2);
+        assertArrayEquals(window(fresh), window(f));
+        assertEquals(fresh.get(10, 5), f.get(10, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> f.get(64, 0));
+    }
+}
@@ -0,0 +1,84 @@
+package de.verdox.noise.store;
+
+import de.verdox.noise.NoiseBackend;
+import de.verdox.noise.NoiseBackendBuilder;
+import de.verdox.noise.NoiseTestFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionFileStoreTest {
+    private static final float FREQ = 0.01f;
+
+    private static NoiseBackendBuilder.CPUNoiseBackendBuilder builder(long seed) {
+        return NoiseTestFixtures.cpu()
+                .withSeed(seed)
+                .withSize3D(16);
+    }
+
+    @Test
+    void chunks_survive_reopen_and_are_read_through(@TempDir Path dir) throws Exception {
+        NoiseBackendBuilder.CPUNoiseBackendBuilder b = builder(5L);
+        NoiseBackend reference = b.build();
+
+        try (RegionFileStore store = new RegionFileStore(dir, b, FREQ, 4)) {
+            RegionStoreNoiseBackend backend = new RegionStoreNoiseBackend(b.build(), b, store);
+            for (int c = -3; c < 3; c++) {
+                backend.generate(c * store.chunkSpan(), 0f, 0f, FREQ);
+            }
+            assertEquals(0, store.hits());
+        }
+
+        try (RegionFileStore store = new RegionFileStore(dir, b, FREQ, 4)) {
+            RegionStoreNoiseBackend backend = new RegionStoreNoiseBackend(b.build(), b, store);
+            for (int c = -3; c < 3; c++) {
+                backend.generate(c * store.chunkSpan(), 0f, 0f, FREQ);
+                reference.generate(c * store.chunkSpan(), 0f, 0f, FREQ);
+                assertArrayEquals(reference.getResult(), backend.getResult());
+            }
+            assertEquals(6, store.hits());
+
+            FloatBuffer view = store.viewAsFloatBuffer(-3, 0, 0);
+            reference.generate(-3 * store.chunkSpan(), 0f, 0f, FREQ);
+            assertEquals(store.chunkFloats(), view.remaining());
+            assertEquals(reference.getResult()[17], view.get(17));
+        }
+    }
+
+    @Test
+    void other_configuration_invalidates_files(@TempDir Path dir) throws Exception {
+        float[] data = new float[16 * 16 * 16];
+        data[3] = 42f;
+        try (RegionFileStore store = new RegionFileStore(dir, builder(1L), FREQ, 2)) {
+            store.write(0, 0, 0, data);
+        }
+        try (RegionFileStore store = new RegionFileStore(dir, builder(1L), FREQ, 2)) {
+            float[] read = new float[data.length];
+            assertTrue(store.read(0, 0, 0, read));
+            assertEquals(42f, read[3]);
+        }
+        try (RegionFileStore store = new RegionFileStore(dir, builder(2L), FREQ, 2)) {
+            assertFalse(store.read(0, 0, 0, new float[data.length]));
+            assertNull(store.view(0, 0, 0));
+            store.write(0, 0, 0, data);
+        }
+        // gleicher Seed, aber der Vektor-Kernel liefert andere Werte
+        try (RegionFileStore store = new RegionFileStore(dir, builder(2L).vectorize(true), FREQ, 2)) {
+            assertFalse(store.read(0, 0, 0, new float[data.length]));
+        }
+    }
+
+    @Test
+    void closed_store_rejects_access(@TempDir Path dir) throws Exception {
+        RegionFileStore store = new RegionFileStore(dir, builder(1L), FREQ, 2);
+        store.write(0, 0, 0, new float[16 * 16 * 16]);
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.read(0, 0, 0, new float[16 * 16 * 16]));
+        assertThrows(IllegalStateException.class, () -> store.write(5, 0, 0, new float[16 * 16 * 16]));
+        store.close();
+    }
+}